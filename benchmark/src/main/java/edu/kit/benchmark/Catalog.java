@@ -0,0 +1,65 @@
+package edu.kit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A synthetic catalog file shared by the benchmarks of one parameter combination.
+ *
+ * @author uqfdp
+ */
+@State(Scope.Benchmark)
+public class Catalog {
+    private static final long SEED = 42;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private int documentCount;
+
+    @Param({"8", "64"})
+    private int identifierCount;
+
+    @Param({"4", "256"})
+    private int valueCardinality;
+
+    @Param({"0", "1.1"})
+    private double skew;
+
+    private Path path;
+
+    /**
+     * Writes the catalog.
+     *
+     * @throws IOException if the catalog cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        path = CatalogGenerator.writeCatalog(documentCount, identifierCount, valueCardinality, skew, SEED);
+    }
+
+    /**
+     * Deletes the catalog.
+     *
+     * @throws IOException if the catalog cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * Returns the path of the catalog.
+     *
+     * @return the path of the catalog
+     */
+    public String getPath() {
+        return path.toString();
+    }
+}
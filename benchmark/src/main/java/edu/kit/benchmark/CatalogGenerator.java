@@ -0,0 +1,286 @@
+package edu.kit.benchmark;
+
+import edu.kit.document.DocumentType;
+import edu.kit.util.AudioLength;
+import edu.kit.util.ImageSize;
+import edu.kit.util.TextLength;
+import edu.kit.util.VideoLength;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Writes synthetic catalogs in the format read by the document loader.
+ * The uses are uniform or follow a Zipf distribution, so that few documents dominate the uses.
+ * Generic catalogs draw a few tags per document from a vocabulary of generic identifiers.
+ * Typed catalogs draw the tags of a document from the vocabulary of its document type and add the numeric
+ * size, length or words field of the type, with values on and around every bucket boundary.
+ *
+ * <p>Usage: {@code CatalogGenerator <output> <document count> [--skew <exponent>] [--seed <seed>]
+ * [--vocabulary <type>:<identifier>=<cardinality>,...]...}, where a cardinality of 0 denotes a tag without value.
+ *
+ * @author uqfdp
+ */
+public final class CatalogGenerator {
+    private static final int TAGS_PER_DOCUMENT = 4;
+    private static final double TAG_PROBABILITY = 0.75;
+    private static final long MAXIMUM_USES = 1_000_000;
+    private static final String DOCUMENT_FORMAT = "d/%d,%s,%d";
+    private static final String TAG_FORMAT = ",t%d=v%d";
+    private static final String TYPED_TAG_FORMAT = ",%s=%s%d";
+    private static final String FLAG_TAG_FORMAT = ",%s";
+    private static final String NUMERIC_TAG_FORMAT = ",%s=%d";
+    private static final String CATALOG_PREFIX = "catalog";
+    private static final String CATALOG_SUFFIX = ".txt";
+    private static final String DEFAULT_VOCABULARY = "genre=8,author=64,fun=0";
+    private static final String SKEW_OPTION = "--skew";
+    private static final String SEED_OPTION = "--seed";
+    private static final String VOCABULARY_OPTION = "--vocabulary";
+    private static final String VOCABULARY_TYPE_SEPARATOR = ":";
+    private static final String VOCABULARY_ENTRY_SEPARATOR = ",";
+    private static final String VOCABULARY_CARDINALITY_SEPARATOR = "=";
+    private static final String USAGE_MESSAGE = "Usage: CatalogGenerator <output> <document count> [--skew <exponent>]"
+        + " [--seed <seed>] [--vocabulary <type>:<identifier>=<cardinality>,...]...";
+    private static final long DEFAULT_SEED = 42;
+
+    /**
+     * Private constructor to prevent instantiation because this class is a utility class.
+     */
+    private CatalogGenerator() {
+    }
+
+    /**
+     * Writes a typed catalog as configured by the command line arguments.
+     *
+     * @param args the command line arguments
+     * @throws IOException if the catalog cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length % 2 != 0) {
+            System.err.println(USAGE_MESSAGE);
+            return;
+        }
+
+        double skew = 0;
+        long seed = DEFAULT_SEED;
+        Map<DocumentType, Map<String, Integer>> vocabularies = getDefaultVocabularies();
+        try {
+            for (int option = 2; option < args.length; option += 2) {
+                switch (args[option]) {
+                    case SKEW_OPTION -> skew = Double.parseDouble(args[option + 1]);
+                    case SEED_OPTION -> seed = Long.parseLong(args[option + 1]);
+                    case VOCABULARY_OPTION -> putVocabulary(vocabularies, args[option + 1]);
+                    default -> throw new IllegalArgumentException(args[option]);
+                }
+            }
+            writeCatalog(Path.of(args[0]), Integer.parseInt(args[1]), vocabularies, skew, seed);
+        } catch (IllegalArgumentException e) {
+            System.err.println(USAGE_MESSAGE);
+        }
+    }
+
+    /**
+     * Writes a generic catalog to a new temporary file.
+     *
+     * @param documentCount the number of documents
+     * @param identifierCount the number of distinct identifiers
+     * @param valueCardinality the number of distinct values per identifier
+     * @param skew the exponent of the Zipf distribution of the uses, 0 for uniform uses
+     * @param seed the seed of the random catalog
+     * @return the path of the written catalog
+     * @throws IOException if the catalog cannot be written
+     */
+    public static Path writeCatalog(int documentCount, int identifierCount, int valueCardinality, double skew,
+                                    long seed) throws IOException {
+        Path catalog = Files.createTempFile(CATALOG_PREFIX, CATALOG_SUFFIX);
+        Random random = new Random(seed);
+        DocumentType[] types = DocumentType.values();
+        int tagsPerDocument = Math.min(TAGS_PER_DOCUMENT, identifierCount);
+        int[] identifiers = new int[tagsPerDocument];
+        try (BufferedWriter writer = Files.newBufferedWriter(catalog)) {
+            for (int document = 0; document < documentCount; document++) {
+                String type = types[random.nextInt(types.length)].name().toLowerCase();
+                writer.write(DOCUMENT_FORMAT.formatted(document, type, getUses(random, documentCount, skew)));
+                for (int tag = 0; tag < tagsPerDocument; tag++) {
+                    identifiers[tag] = getDistinctIdentifier(random, identifierCount, identifiers, tag);
+                    writer.write(TAG_FORMAT.formatted(identifiers[tag], random.nextInt(valueCardinality)));
+                }
+                writer.newLine();
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Writes a typed catalog.
+     * Every tag of the vocabulary of a document type is present on a document with a fixed probability,
+     * so the catalog contains undefined values. The numeric field of the type is always present.
+     *
+     * @param output the path of the catalog to write
+     * @param documentCount the number of documents
+     * @param vocabularies the identifiers and their number of distinct values per document type
+     * @param skew the exponent of the Zipf distribution of the uses, 0 for uniform uses
+     * @param seed the seed of the random catalog
+     * @throws IOException if the catalog cannot be written
+     */
+    public static void writeCatalog(Path output, int documentCount, Map<DocumentType, Map<String, Integer>> vocabularies,
+                                    double skew, long seed) throws IOException {
+        Random random = new Random(seed);
+        DocumentType[] types = DocumentType.values();
+        try (BufferedWriter writer = Files.newBufferedWriter(output)) {
+            for (int document = 0; document < documentCount; document++) {
+                DocumentType type = types[random.nextInt(types.length)];
+                writer.write(DOCUMENT_FORMAT.formatted(document, type.name().toLowerCase(),
+                    getUses(random, documentCount, skew)));
+                for (Map.Entry<String, Integer> tag : vocabularies.getOrDefault(type, Map.of()).entrySet()) {
+                    if (random.nextDouble() >= TAG_PROBABILITY) {
+                        continue;
+                    }
+                    writer.write(tag.getValue() == 0 ? FLAG_TAG_FORMAT.formatted(tag.getKey())
+                        : TYPED_TAG_FORMAT.formatted(tag.getKey(), tag.getKey(), random.nextInt(tag.getValue())));
+                }
+                writeNumericTag(writer, random, type);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Returns the default vocabulary, which is the same for every document type.
+     *
+     * @return the default vocabularies
+     */
+    private static Map<DocumentType, Map<String, Integer>> getDefaultVocabularies() {
+        Map<DocumentType, Map<String, Integer>> vocabularies = new EnumMap<>(DocumentType.class);
+        for (DocumentType type : DocumentType.values()) {
+            putVocabulary(vocabularies, type.name() + VOCABULARY_TYPE_SEPARATOR + DEFAULT_VOCABULARY);
+        }
+        return vocabularies;
+    }
+
+    /**
+     * Replaces the vocabulary of a document type.
+     *
+     * @param vocabularies the vocabularies per document type
+     * @param vocabulary the vocabulary in the form {@code <type>:<identifier>=<cardinality>,...}
+     * @throws IllegalArgumentException if the vocabulary is malformed
+     */
+    private static void putVocabulary(Map<DocumentType, Map<String, Integer>> vocabularies, String vocabulary) {
+        String[] typeAndTags = vocabulary.split(VOCABULARY_TYPE_SEPARATOR, 2);
+        DocumentType type = DocumentType.fromString(typeAndTags[0]);
+        if (type == null || typeAndTags.length != 2) {
+            throw new IllegalArgumentException(vocabulary);
+        }
+
+        Map<String, Integer> tags = new LinkedHashMap<>();
+        for (String tag : typeAndTags[1].split(VOCABULARY_ENTRY_SEPARATOR)) {
+            String[] identifierAndCardinality = tag.split(VOCABULARY_CARDINALITY_SEPARATOR);
+            if (identifierAndCardinality.length != 2) {
+                throw new IllegalArgumentException(tag);
+            }
+            tags.put(identifierAndCardinality[0].toLowerCase(Locale.ROOT),
+                Math.max(0, Integer.parseInt(identifierAndCardinality[1])));
+        }
+        vocabularies.put(type, tags);
+    }
+
+    /**
+     * Writes the numeric field of a document type with a value on or around a bucket boundary of the type.
+     *
+     * @param writer the writer of the catalog
+     * @param random the source of randomness
+     * @param type the type of the document
+     * @throws IOException if the tag cannot be written
+     */
+    private static void writeNumericTag(BufferedWriter writer, Random random, DocumentType type) throws IOException {
+        int[] boundaryValues;
+        String identifier;
+        switch (type) {
+            case IMAGE -> {
+                identifier = "size";
+                boundaryValues = getBoundaryValues(ImageSize.values(), ImageSize::getMaxSize);
+            }
+            case AUDIO -> {
+                identifier = "length";
+                boundaryValues = getBoundaryValues(AudioLength.values(), AudioLength::getMaxLength);
+            }
+            case VIDEO -> {
+                identifier = "length";
+                boundaryValues = getBoundaryValues(VideoLength.values(), VideoLength::getMaxLength);
+            }
+            case TEXT -> {
+                identifier = "words";
+                boundaryValues = getBoundaryValues(TextLength.values(), TextLength::getMaxWords);
+            }
+            default -> {
+                return;
+            }
+        }
+        writer.write(NUMERIC_TAG_FORMAT.formatted(identifier, boundaryValues[random.nextInt(boundaryValues.length)]));
+    }
+
+    /**
+     * Returns zero and the values just below, on and just above every finite bucket boundary.
+     *
+     * @param buckets the buckets in ascending order of their upper bounds
+     * @param maximum the exclusive upper bound of a bucket
+     * @param <E> the type of the buckets
+     * @return the boundary values
+     */
+    private static <E extends Enum<E>> int[] getBoundaryValues(E[] buckets, ToIntFunction<E> maximum) {
+        IntStream boundaries = Arrays.stream(buckets)
+            .mapToInt(maximum)
+            .filter(bound -> bound != Integer.MAX_VALUE)
+            .flatMap(bound -> IntStream.of(bound - 1, bound, bound + 1));
+        return IntStream.concat(IntStream.of(0), boundaries).toArray();
+    }
+
+    /**
+     * Draws the uses of a document.
+     * With a positive skew the uses are the maximum uses divided by a random popularity rank raised to the skew.
+     *
+     * @param random the source of randomness
+     * @param documentCount the number of documents, which is the lowest popularity rank
+     * @param skew the exponent of the Zipf distribution, 0 for uniform uses
+     * @return the uses of the document
+     */
+    static long getUses(Random random, int documentCount, double skew) {
+        if (skew <= 0) {
+            return 1 + (long) (random.nextDouble() * MAXIMUM_USES);
+        }
+        int rank = 1 + random.nextInt(documentCount);
+        return Math.max(1, (long) (MAXIMUM_USES / Math.pow(rank, skew)));
+    }
+
+    /**
+     * Draws an identifier that differs from the identifiers already drawn for the document.
+     *
+     * @param random the source of randomness
+     * @param identifierCount the number of distinct identifiers
+     * @param identifiers the identifiers drawn for the document
+     * @param drawn the number of identifiers drawn for the document
+     * @return the new identifier
+     */
+    private static int getDistinctIdentifier(Random random, int identifierCount, int[] identifiers, int drawn) {
+        while (true) {
+            int identifier = random.nextInt(identifierCount);
+            boolean distinct = true;
+            for (int tag = 0; tag < drawn && distinct; tag++) {
+                distinct = identifiers[tag] != identifier;
+            }
+            if (distinct) {
+                return identifier;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package edu.kit.benchmark;
+
+import edu.kit.document.DocumentLoader;
+import edu.kit.document.DocumentSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.FileNotFoundException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading and grouping a catalog.
+ *
+ * @author uqfdp
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class DocumentLoaderBenchmark {
+
+    /**
+     * Benchmarks loading the catalog into a document set.
+     *
+     * @param catalog the catalog to load
+     * @return the loaded document set
+     * @throws FileNotFoundException if the catalog was deleted
+     */
+    @Benchmark
+    public DocumentSet loadDocuments(Catalog catalog) throws FileNotFoundException {
+        return DocumentLoader.loadDocuments(catalog.getPath());
+    }
+}
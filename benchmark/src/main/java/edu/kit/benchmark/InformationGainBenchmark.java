@@ -0,0 +1,76 @@
+package edu.kit.benchmark;
+
+import edu.kit.DocumentHandler;
+import edu.kit.document.DocumentLoader;
+import edu.kit.document.DocumentSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the information gains of the root node of a catalog.
+ *
+ * @author uqfdp
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class InformationGainBenchmark {
+    private DocumentHandler documentHandler;
+    private DocumentSet documents;
+    private int[] groups;
+    private List<String> identifiers;
+
+    /**
+     * Loads the catalog and collects its identifiers.
+     *
+     * @param catalog the catalog to load
+     * @throws FileNotFoundException if the catalog was deleted
+     */
+    @Setup(Level.Trial)
+    public void setUp(Catalog catalog) throws FileNotFoundException {
+        documentHandler = new DocumentHandler();
+        documents = DocumentLoader.loadDocuments(catalog.getPath());
+        groups = documents.getAllGroups();
+        identifiers = new ArrayList<>();
+        for (int identifierId = 0; documents.getIdentifierId("t" + identifierId) >= 0; identifierId++) {
+            identifiers.add("t" + identifierId);
+        }
+    }
+
+    /**
+     * Benchmarks the information gain of a single identifier.
+     *
+     * @return the information gain
+     */
+    @Benchmark
+    public double getInformationGain() {
+        return documentHandler.getInformationGain(documents, groups, identifiers.get(0));
+    }
+
+    /**
+     * Benchmarks the information gains of all identifiers, as computed for every node of a tree.
+     *
+     * @return the information gains
+     */
+    @Benchmark
+    public double[] getInformationGains() {
+        return documentHandler.getInformationGains(documents, groups, identifiers);
+    }
+}
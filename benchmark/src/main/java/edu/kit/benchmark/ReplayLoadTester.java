@@ -0,0 +1,202 @@
+package edu.kit.benchmark;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandHandler;
+import edu.kit.command.CommandType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Replays a stream of commands against a command handler and reports the latency percentiles per command type.
+ * The stream is either read from a command file or generated as a mix of LOAD, CHANGE and RUN commands on a
+ * catalog. A generated stream first loads the catalog, the following CHANGE and RUN commands use random
+ * loaded sets and random documents of the catalog.
+ *
+ * <p>Usage: {@code ReplayLoadTester <catalog> [--commands <count>] [--mix <load>,<change>,<run>] [--seed <seed>]
+ * [--script <command file>]}, where the mix gives the relative frequencies of the command types.
+ *
+ * @author uqfdp
+ */
+public final class ReplayLoadTester {
+    private static final String COMMANDS_OPTION = "--commands";
+    private static final String MIX_OPTION = "--mix";
+    private static final String SEED_OPTION = "--seed";
+    private static final String SCRIPT_OPTION = "--script";
+    private static final String MIX_SEPARATOR = ",";
+    private static final String DOCUMENT_PART_SEPARATOR = ",";
+    private static final String LOAD_COMMAND_FORMAT = "LOAD %s";
+    private static final String CHANGE_COMMAND_FORMAT = "CHANGE %d %s %d";
+    private static final String RUN_COMMAND_FORMAT = "RUN %d";
+    private static final String USAGE_MESSAGE = "Usage: ReplayLoadTester <catalog> [--commands <count>]"
+        + " [--mix <load>,<change>,<run>] [--seed <seed>] [--script <command file>]";
+    private static final String REPLAY_SUMMARY_FORMAT = "Replayed %d commands with %d characters of output%n";
+    private static final String REPORT_HEADER_FORMAT = "%-8s %8s %12s %12s %12s %12s%n";
+    private static final String REPORT_ROW_FORMAT = "%-8s %8d %12.3f %12.3f %12.3f %12.3f%n";
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+    private static final double NANOSECONDS_PER_MILLISECOND = 1e6;
+    private static final int DEFAULT_COMMAND_COUNT = 1000;
+    private static final int[] DEFAULT_MIX = {1, 90, 9};
+    private static final long DEFAULT_SEED = 42;
+    private static final int MAXIMUM_CHANGED_USES = 1_000_000;
+
+    /**
+     * Private constructor to prevent instantiation because this class is a utility class.
+     */
+    private ReplayLoadTester() {
+    }
+
+    /**
+     * Replays the commands configured by the command line arguments and prints the latency report.
+     *
+     * @param args the command line arguments
+     * @throws IOException if the catalog or the command file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length % 2 != 1) {
+            System.err.println(USAGE_MESSAGE);
+            return;
+        }
+
+        int commandCount = DEFAULT_COMMAND_COUNT;
+        int[] mix = DEFAULT_MIX;
+        long seed = DEFAULT_SEED;
+        Path script = null;
+        try {
+            for (int option = 1; option < args.length; option += 2) {
+                switch (args[option]) {
+                    case COMMANDS_OPTION -> commandCount = Integer.parseInt(args[option + 1]);
+                    case MIX_OPTION -> mix = Arrays.stream(args[option + 1].split(MIX_SEPARATOR))
+                        .mapToInt(Integer::parseInt).toArray();
+                    case SEED_OPTION -> seed = Long.parseLong(args[option + 1]);
+                    case SCRIPT_OPTION -> script = Path.of(args[option + 1]);
+                    default -> throw new IllegalArgumentException(args[option]);
+                }
+            }
+            if (mix.length != DEFAULT_MIX.length || Arrays.stream(mix).anyMatch(weight -> weight < 0)
+                || Arrays.stream(mix).sum() == 0) {
+                throw new IllegalArgumentException(args[0]);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(USAGE_MESSAGE);
+            return;
+        }
+
+        List<String> commands = script == null
+            ? generateCommands(Path.of(args[0]), commandCount, mix, new Random(seed))
+            : Files.readAllLines(script);
+        System.out.print(getReport(replay(commands)));
+    }
+
+    /**
+     * Generates a mixed command stream on a catalog.
+     *
+     * @param catalog the catalog to load and change
+     * @param commandCount the number of commands following the initial LOAD
+     * @param mix the relative frequencies of LOAD, CHANGE and RUN
+     * @param random the source of randomness
+     * @return the commands
+     * @throws IOException if the catalog cannot be read
+     */
+    private static List<String> generateCommands(Path catalog, int commandCount, int[] mix, Random random)
+            throws IOException {
+        List<String> paths = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(catalog)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                paths.add(line.split(DOCUMENT_PART_SEPARATOR, 2)[0]);
+            }
+        }
+
+        List<String> commands = new ArrayList<>();
+        commands.add(LOAD_COMMAND_FORMAT.formatted(catalog));
+        int loadedSets = 1;
+        int mixSum = Arrays.stream(mix).sum();
+        for (int command = 0; command < commandCount; command++) {
+            int draw = random.nextInt(mixSum);
+            if (draw < mix[0]) {
+                commands.add(LOAD_COMMAND_FORMAT.formatted(catalog));
+                loadedSets++;
+            } else if (draw < mix[0] + mix[1] && !paths.isEmpty()) {
+                commands.add(CHANGE_COMMAND_FORMAT.formatted(random.nextInt(loadedSets),
+                    paths.get(random.nextInt(paths.size())), random.nextInt(MAXIMUM_CHANGED_USES)));
+            } else {
+                commands.add(RUN_COMMAND_FORMAT.formatted(random.nextInt(loadedSets)));
+            }
+        }
+        return commands;
+    }
+
+    /**
+     * Executes the commands one after another and measures the latency of every command.
+     *
+     * @param commands the commands to execute
+     * @return the latencies in nanoseconds per command type
+     */
+    private static Map<CommandType, long[]> replay(List<String> commands) {
+        CommandHandler commandHandler = new CommandHandler(new DocumentHandler());
+        Map<CommandType, List<Long>> latencies = new EnumMap<>(CommandType.class);
+        long outputLength = 0;
+        for (String command : commands) {
+            if (commandHandler.hasQuit()) {
+                break;
+            }
+            String[] splittedCommand = CommandHandler.splitCommand(command);
+            CommandType commandType = CommandType.fromString(splittedCommand[0]);
+            long start = System.nanoTime();
+            String output = commandHandler.executeCommand(splittedCommand);
+            long latency = System.nanoTime() - start;
+            if (commandType != null) {
+                latencies.computeIfAbsent(commandType, type -> new ArrayList<>()).add(latency);
+            }
+            outputLength += output == null ? 0 : output.length();
+        }
+        commandHandler.quit();
+        System.err.printf(REPLAY_SUMMARY_FORMAT, commands.size(), outputLength);
+
+        Map<CommandType, long[]> sortedLatencies = new EnumMap<>(CommandType.class);
+        latencies.forEach((type, typeLatencies) -> sortedLatencies.put(type,
+            typeLatencies.stream().mapToLong(Long::longValue).sorted().toArray()));
+        return sortedLatencies;
+    }
+
+    /**
+     * Returns the report of the latency percentiles per command type.
+     *
+     * @param latencies the sorted latencies in nanoseconds per command type
+     * @return the report
+     */
+    private static String getReport(Map<CommandType, long[]> latencies) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, REPORT_HEADER_FORMAT,
+            "Command", "Count", "p50 (ms)", "p99 (ms)", "p999 (ms)", "max (ms)"));
+        latencies.forEach((type, typeLatencies) -> report.append(String.format(Locale.ROOT, REPORT_ROW_FORMAT,
+            type, typeLatencies.length,
+            getPercentile(typeLatencies, PERCENTILES[0]),
+            getPercentile(typeLatencies, PERCENTILES[1]),
+            getPercentile(typeLatencies, PERCENTILES[2]),
+            typeLatencies[typeLatencies.length - 1] / NANOSECONDS_PER_MILLISECOND)));
+        return report.toString();
+    }
+
+    /**
+     * Returns a percentile of sorted latencies by the nearest-rank method.
+     *
+     * @param sortedLatencies the sorted latencies in nanoseconds
+     * @param percentile the percentile as a fraction
+     * @return the percentile in milliseconds
+     */
+    private static double getPercentile(long[] sortedLatencies, double percentile) {
+        int rank = (int) Math.ceil(percentile * sortedLatencies.length);
+        return sortedLatencies[Math.max(0, rank - 1)] / NANOSECONDS_PER_MILLISECOND;
+    }
+}
@@ -0,0 +1,71 @@
+package edu.kit.benchmark;
+
+import edu.kit.DocumentHandler;
+import edu.kit.document.DocumentLoader;
+import edu.kit.document.DocumentSet;
+import edu.kit.document.StructuralTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.FileNotFoundException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a structural tree of a catalog and rendering its leaves.
+ *
+ * @author uqfdp
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class StructuralTreeBenchmark {
+    private DocumentHandler documentHandler;
+    private DocumentSet documents;
+    private StructuralTree builtTree;
+
+    /**
+     * Loads the catalog and builds the tree rendered by {@link #toStringTree()}.
+     *
+     * @param catalog the catalog to load
+     * @throws FileNotFoundException if the catalog was deleted
+     */
+    @Setup(Level.Trial)
+    public void setUp(Catalog catalog) throws FileNotFoundException {
+        documentHandler = new DocumentHandler();
+        documents = DocumentLoader.loadDocuments(catalog.getPath());
+        builtTree = new StructuralTree(documentHandler, documents);
+        builtTree.buildTree();
+    }
+
+    /**
+     * Benchmarks building the tree, including the information gains of every node.
+     *
+     * @return the information gains of the tree
+     */
+    @Benchmark
+    public String buildTree() {
+        return new StructuralTree(documentHandler, documents).buildTree();
+    }
+
+    /**
+     * Benchmarks rendering the sorted documents of the leaves of a built tree.
+     *
+     * @return the rendered tree
+     */
+    @Benchmark
+    public String toStringTree() {
+        return builtTree.toString();
+    }
+}
@@ -0,0 +1,115 @@
+package edu.kit.benchmark;
+
+import edu.kit.util.Uncertainty;
+import edu.kit.util.UncertaintyKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the scalar and the vector uncertainty kernels on synthetic columns.
+ * Every kernel runs in its own fork, since the kernel is selected once per process.
+ *
+ * @author uqfdp
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class UncertaintyKernelBenchmark {
+    private static final long SEED = 42;
+    private static final int MAXIMUM_USES = 100_000;
+
+    @Param({"scalar", "vector"})
+    private String kernelName;
+
+    @Param({"1000", "100000", "1000000"})
+    private int groupCount;
+
+    @Param({"4", "16"})
+    private int valueCount;
+
+    @Param({"root", "child"})
+    private String node;
+
+    private UncertaintyKernel kernel;
+    private long[] uses;
+    private double[] usesLog2Uses;
+    private int[] valueIds;
+    private int[] groups;
+
+    /**
+     * Selects the kernel and creates the columns.
+     * The root node contains all groups, a child node about half of them.
+     */
+    @Setup
+    public void setUp() {
+        System.setProperty(Uncertainty.KERNEL_PROPERTY, kernelName);
+        kernel = Uncertainty.getKernel();
+        if (kernel.getClass().getSimpleName().toLowerCase().indexOf(kernelName) != 0) {
+            throw new IllegalStateException("Kernel " + kernelName + " is not available");
+        }
+
+        Random random = new Random(SEED);
+        uses = new long[groupCount];
+        usesLog2Uses = new double[groupCount];
+        valueIds = new int[groupCount];
+        for (int group = 0; group < groupCount; group++) {
+            uses[group] = random.nextInt(MAXIMUM_USES);
+            usesLog2Uses[group] = Uncertainty.usesLog2Uses(uses[group]);
+            valueIds[group] = random.nextInt(valueCount);
+        }
+        groups = IntStream.range(0, groupCount)
+                .filter(group -> node.equals("root") || random.nextBoolean())
+                .toArray();
+    }
+
+    /**
+     * Benchmarks the accumulation of the uses of a node.
+     *
+     * @return the accumulated uses
+     */
+    @Benchmark
+    public long accumulateUses() {
+        return kernel.accumulateUses(uses, groups);
+    }
+
+    /**
+     * Benchmarks the accumulation of the u * log2(u) of a node.
+     *
+     * @return the accumulated u * log2(u)
+     */
+    @Benchmark
+    public double accumulateUsesLog2Uses() {
+        return kernel.accumulateUsesLog2Uses(usesLog2Uses, groups);
+    }
+
+    /**
+     * Benchmarks the contingency of an identifier in a node.
+     *
+     * @param blackhole the blackhole consuming the contingency
+     */
+    @Benchmark
+    public void accumulatePartitions(Blackhole blackhole) {
+        long[] usesPerValue = new long[valueCount];
+        double[] usesLog2UsesPerValue = new double[valueCount];
+        kernel.accumulatePartitions(valueIds, uses, usesLog2Uses, groups, usesPerValue, usesLog2UsesPerValue);
+        blackhole.consume(usesPerValue);
+        blackhole.consume(usesLog2UsesPerValue);
+    }
+}
@@ -1,6 +1,8 @@
 package edu.kit;
 
 import edu.kit.document.Document;
+import edu.kit.document.DocumentSet;
+import edu.kit.document.DocumentSetFile;
 import edu.kit.document.DocumentType;
 import edu.kit.document.implementations.AudioDocument;
 import edu.kit.document.implementations.ImageDocument;
@@ -8,184 +10,584 @@
 import edu.kit.document.implementations.TextDocument;
 import edu.kit.document.implementations.VideoDocument;
 import edu.kit.document.Tag;
+import edu.kit.document.TagNormalizer;
+import edu.kit.ingest.AccessIngestor;
+import edu.kit.metrics.Metrics;
+import edu.kit.util.Uncertainty;
+import edu.kit.util.UncertaintyKernel;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 /**
  * The DocumentHandler class is responsible for handling documents.
- * It provides methods to calculate information gain, expected remaining uncertainty, probability of a document and a tag,
- * uncertainty of documents and accumulated uses.
+ * It provides methods to calculate information gain, expected remaining uncertainty,
+ * uncertainty of documents and accumulated uses over groups of documents with identical tags.
+ * The columns of the document sets are reduced by the uncertainty kernel selected for this process.
+ * The loaded document sets are kept in a concurrent registry, so documents can be loaded and evaluated
+ * by several threads at once. Concurrent runs on the same version of a document set are computed only once.
+ * The runtime metrics of the application are collected by the document handler, shared by all its users,
+ * and streams of access events are folded into the uses of the loaded sets by its access ingestor.
+ * With a heap budget, given in bytes by the system property {@value #HEAP_BUDGET_PROPERTY} with an optional
+ * suffix k, m or g, the least recently used document sets are spilled to disk whenever the estimated size of
+ * the resident sets exceeds the budget. A spilled set is read back transparently on its next access.
+ * The resident bytes are counted atomically, so accesses within the budget take no lock. Only the choice of the sets
+ * to spill holds the monitor of the handler; a set is written to disk holding only its own monitor.
  *
  * @author uqfdp
  */
 public final class DocumentHandler {
-
     /**
-     * The instance of the DocumentHandler class.
+     * The system property giving the heap budget of the loaded document sets.
      */
-    public static DocumentHandler instance;
-    private final List<Set<Document>> loadedDocuments;
+    public static final String HEAP_BUDGET_PROPERTY = "edu.kit.heapBudget";
+    private static final long PARALLEL_EVALUATION_THRESHOLD = 1 << 16;
+    private static final String HEAP_BUDGET_UNITS = "kmg";
+    private static final int BITS_PER_UNIT = 10;
+    private static final String SPILL_DIRECTORY_PREFIX = "fff-spill";
+    private static final String SPILL_FILE_FORMAT = "set-%d.bin";
+    private static final String RUN_INTERRUPTED_MESSAGE = "Waiting for the run was interrupted.";
+    private final Map<Integer, LoadedDocumentSet> loadedDocuments;
+    private final AtomicLong accessClock;
+    private final long heapBudget;
+    private final AtomicLong residentBytes;
+    private Path spillDirectory;
+    private final AtomicInteger nextDocumentSetId;
+    private final Map<RunKey, CompletableFuture<String>> pendingRuns;
+    private final UncertaintyKernel kernel;
+    private final Metrics metrics;
+    private final AccessIngestor accessIngestor;
 
     /**
      * The constructor of the DocumentHandler class.
+     * The heap budget is read from the system property {@value #HEAP_BUDGET_PROPERTY}.
      */
     public DocumentHandler() {
-        instance = this;
-        this.loadedDocuments = new ArrayList<>();
+        this(parseHeapBudget(System.getProperty(HEAP_BUDGET_PROPERTY)));
     }
 
     /**
-     * Returns all documents with a given tag.
-     * @param documents the documents to get the documents with the tag from
-     * @param tag the tag to get the documents with
-     * @return the documents with the tag
+     * Constructs a new DocumentHandler with a heap budget for the loaded document sets.
+     * @param heapBudget the estimated number of bytes the resident document sets may occupy, 0 for no budget
      */
-    public Set<Document> getDocumentsWithTag(Set<Document> documents, Tag tag) {
-        Set<Document> documentsWithTag = new LinkedHashSet<>();
+    public DocumentHandler(long heapBudget) {
+        this.loadedDocuments = new ConcurrentHashMap<>();
+        this.accessClock = new AtomicLong();
+        this.heapBudget = heapBudget;
+        this.residentBytes = new AtomicLong();
+        this.nextDocumentSetId = new AtomicInteger();
+        this.pendingRuns = new ConcurrentHashMap<>();
+        this.kernel = Uncertainty.getKernel();
+        this.metrics = new Metrics();
+        this.accessIngestor = new AccessIngestor(this);
+    }
 
+    /**
+     * Returns the runtime metrics collected for this document handler.
+     * @return the runtime metrics
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the ingestion of access events into the loaded document sets.
+     * @return the access ingestor
+     */
+    public AccessIngestor getAccessIngestor() {
+        return accessIngestor;
+    }
+
+    /**
+     * Returns all document groups with a given tag.
+     * The groups with an undefined value are derived as the complement of the groups carrying the identifier.
+     * @param documents the document set the groups belong to
+     * @param groups the indices of the groups to get the groups with the tag from, in ascending order
+     * @param tag the tag to get the groups with
+     * @return the indices of the groups with the tag, in ascending order
+     */
+    public int[] getDocumentsWithTag(DocumentSet documents, int[] groups, Tag tag) {
+        int identifierId = documents.getIdentifierId(tag.getIdentifier());
         if (tag.getValue().equalsIgnoreCase(Tag.UNDEFINED_VALUE_REPRESENTATION)) {
-            for (Document document : documents) {
-                if (document.getTags().stream().noneMatch(t -> t.getIdentifier().equals(tag.getIdentifier()))) {
-                    documentsWithTag.add(document);
-                }
+            if (identifierId < 0) {
+                return groups;
+            }
+            int[] valueIds = documents.getValueIds(identifierId);
+            return Arrays.stream(groups).filter(group -> valueIds[group] == DocumentSet.UNDEFINED_VALUE_ID).toArray();
+        }
+
+        int valueId = identifierId < 0 ? -1 : documents.getValueId(identifierId, tag.getValue());
+        if (valueId < 0) {
+            return new int[0];
+        }
+        int[] valueIds = documents.getValueIds(identifierId);
+        Set<Integer> groupsWithAdditionalValue = new HashSet<>();
+        for (int[] additionalValue : documents.getAdditionalValueIds(identifierId)) {
+            if (additionalValue[1] == valueId) {
+                groupsWithAdditionalValue.add(additionalValue[0]);
             }
-            return documentsWithTag;
         }
-        return documents.stream()
-            .filter(document -> document.getTags().contains(tag))
-            .collect(Collectors.toSet());
+        return Arrays.stream(groups)
+            .filter(group -> valueIds[group] == valueId || groupsWithAdditionalValue.contains(group))
+            .toArray();
     }
 
     /**
-     * Returns the information gain of a set of documents with a given identifier.
-     * @param documents the documents to get the information gain from
+     * Returns the information gain of a set of document groups with a given identifier.
+     * @param documents the document set the groups belong to
+     * @param groups the indices of the groups to get the information gain from, in ascending order
      * @param identifier the identifier to get the information gain from
      * @return the information gain of the documents
      */
-    public double getInformationGain(Set<Document> documents, String identifier) {
-        double uncertainty = getUncertaintyOfDocuments(documents);
-        double remainingUncertainty = getExpectedRemainingUncertainty(documents, identifier);
+    public double getInformationGain(DocumentSet documents, int[] groups, String identifier) {
+        double uncertainty = getUncertaintyOfDocuments(documents, groups);
+        double remainingUncertainty = getExpectedRemainingUncertainty(documents, groups, identifier);
         return uncertainty - remainingUncertainty;
     }
 
     /**
-     * Returns the expected remaining uncertainty of a set of documents with a given identifier.
-     * @param documents the documents to get the expected remaining uncertainty from
-     * @param identifier the identifier to get the expected remaining uncertainty from
-     * @return the expected remaining uncertainty of the documents
+     * Returns the information gains of a set of document groups for several identifiers.
+     * Large nodes are evaluated in parallel, but every gain is computed by a single thread in the same order
+     * as {@link #getInformationGain(DocumentSet, int[], String)}, so the gains are identical for any number of threads.
+     * @param documents the document set the groups belong to
+     * @param groups the indices of the groups to get the information gains from, in ascending order
+     * @param identifiers the identifiers to get the information gains from
+     * @return the information gains indexed like the identifiers
      */
-    public double getExpectedRemainingUncertainty(Set<Document> documents, String identifier) {
-        Set<String> possibleValues = Tag.getPossibleTagValues(documents, identifier);
-        double sum = 0;
-        for (String value : possibleValues) {
-            Set<Document> documentsWithValue = getDocumentsWithTag(documents, new Tag(identifier, value));
-
-            double probability = getProbabilityOfTag(new Tag(identifier, value), documents);
-            double uncertainty = getUncertaintyOfDocuments(documentsWithValue);
-            sum += probability * uncertainty;
+    public double[] getInformationGains(DocumentSet documents, int[] groups, List<String> identifiers) {
+        double uncertainty = getUncertaintyOfDocuments(documents, groups);
+        double[] informationGains = new double[identifiers.size()];
+        IntStream indices = IntStream.range(0, identifiers.size());
+        if ((long) groups.length * identifiers.size() >= PARALLEL_EVALUATION_THRESHOLD) {
+            indices = indices.parallel();
         }
-        return sum;
+        indices.forEach(index -> informationGains[index] =
+            uncertainty - getExpectedRemainingUncertainty(documents, groups, identifiers.get(index)));
+        return informationGains;
     }
 
     /**
-     * Returns the probability of a document in a set of documents.
-     * @param document the document to get the probability from
-     * @param documents the documents to take the probability from
-     * @return the probability of the document
-     *
+     * Returns the expected remaining uncertainty of a set of document groups with a given identifier.
+     * The uses of the groups are accumulated per defined value by the kernel,
+     * the undefined partition is derived as the remainder of the totals.
+     * @param documents the document set the groups belong to
+     * @param groups the indices of the groups to get the expected remaining uncertainty from, in ascending order
+     * @param identifier the identifier to get the expected remaining uncertainty from
+     * @return the expected remaining uncertainty of the documents
      */
-    public double getProbabilityOfDocument(Document document, Set<Document> documents) {
-        return document.getUses() / (double) getAccumulatedUses(documents);
+    public double getExpectedRemainingUncertainty(DocumentSet documents, int[] groups, String identifier) {
+        metrics.countGainEvaluation();
+        long accumulatedUses = getAccumulatedUses(documents, groups);
+        if (accumulatedUses == 0) {
+            return 0;
+        }
+        double accumulatedUsesLog2Uses = kernel.accumulateUsesLog2Uses(documents.getGroupUsesLog2Uses(), groups);
+        int identifierId = documents.getIdentifierId(identifier);
+        if (identifierId < 0) {
+            return Uncertainty.of(accumulatedUses, accumulatedUsesLog2Uses);
+        }
+
+        List<String> values = documents.getValues(identifierId);
+        long[] usesPerValue = new long[values.size()];
+        double[] usesLog2UsesPerValue = new double[values.size()];
+        kernel.accumulatePartitions(documents.getValueIds(identifierId), documents.getGroupUses(),
+            documents.getGroupUsesLog2Uses(), groups, usesPerValue, usesLog2UsesPerValue);
+
+        long definedUses = 0;
+        double definedUsesLog2Uses = 0;
+        for (int value = 1; value < values.size(); value++) {
+            definedUses += usesPerValue[value];
+            definedUsesLog2Uses += usesLog2UsesPerValue[value];
+        }
+        for (int[] additionalValue : documents.getAdditionalValueIds(identifierId)) {
+            if (Arrays.binarySearch(groups, additionalValue[0]) >= 0) {
+                usesPerValue[additionalValue[1]] += documents.getGroupUses()[additionalValue[0]];
+                usesLog2UsesPerValue[additionalValue[1]] += documents.getGroupUsesLog2Uses()[additionalValue[0]];
+            }
+        }
+
+        double sum = 0;
+        for (int value = 1; value < values.size(); value++) {
+            if (!values.get(value).equalsIgnoreCase(Tag.UNDEFINED_VALUE_REPRESENTATION)) {
+                sum += getWeightedUncertainty(usesPerValue[value], usesLog2UsesPerValue[value]);
+            }
+        }
+        sum += getWeightedUncertainty(accumulatedUses - definedUses, accumulatedUsesLog2Uses - definedUsesLog2Uses);
+        return sum / accumulatedUses;
     }
 
     /**
-     * Returns the probability of a tag in a set of documents.
-     * @param tag the tag to get the probability from
-     * @param documents the documents to take the probability from
-     * @return the probability of the tag
+     * Returns the uncertainty of a partition weighted by its accumulated uses.
+     * @param uses the accumulated uses of the partition
+     * @param usesLog2Uses the accumulated u * log2(u) of the partition
+     * @return the uncertainty of the partition multiplied by its accumulated uses
      */
-    public double getProbabilityOfTag(Tag tag, Set<Document> documents) {
-        Set<Document> documentsWithTag = getDocumentsWithTag(documents, tag);
-        return documentsWithTag.stream()
-            .mapToDouble(document -> getProbabilityOfDocument(document, documents))
-            .sum();
+    private double getWeightedUncertainty(long uses, double usesLog2Uses) {
+        return uses == 0 ? 0 : Uncertainty.usesLog2Uses(uses) - usesLog2Uses;
     }
 
     /**
-     * Returns the uncertainty of a set of documents.
-     * @param documents the documents to get the uncertainty from
+     * Returns the uncertainty of the documents of a set of document groups.
+     * It is calculated from the integer uses as log2(T) - (1/T) * sum(u * log2(u)).
+     * @param documents the document set the groups belong to
+     * @param groups the indices of the groups to get the uncertainty from
      * @return the uncertainty of the documents
      */
-    public double getUncertaintyOfDocuments(Set<Document> documents) {
-        double sum = 0;
-        for (Document document : documents) {
-            double probability = getProbabilityOfDocument(document, documents);
-            sum += probability * (Math.log(probability) / Math.log(2));
-        }
-        return -sum;
+    public double getUncertaintyOfDocuments(DocumentSet documents, int[] groups) {
+        return Uncertainty.of(getAccumulatedUses(documents, groups),
+            kernel.accumulateUsesLog2Uses(documents.getGroupUsesLog2Uses(), groups));
     }
 
     /**
-     * Returns the accumulated uses of given documents.
-     * @param documents the documents to get the uses from
+     * Returns the accumulated uses of given document groups.
+     * @param documents the document set the groups belong to
+     * @param groups the indices of the groups to get the uses from
      * @return the accumulated uses of the documents
      */
-    private int getAccumulatedUses(Set<Document> documents) {
-        return documents.stream()
-            .mapToInt(Document::getUses)
-            .sum();
+    public long getAccumulatedUses(DocumentSet documents, int[] groups) {
+        return kernel.accumulateUses(documents.getGroupUses(), groups);
     }
 
     /**
      * Creates a document with a given type, path, tags and uses.
+     * The raw tags are normalized by the tag normalizer of the document type.
      * @param type the type of the document
      * @param path the path of the document
-     * @param tags the tags of the document
+     * @param tags the raw tags of the document
      * @param uses the amount of uses of the document
      * @return the created document
      */
-    public Document createDocument(DocumentType type, String path, Set<Tag> tags, int uses) {
+    public static Document createDocument(DocumentType type, String path, Set<Tag> tags, long uses) {
+        return createDocument(type, path, tags, uses, null);
+    }
+
+    /**
+     * Creates a document with a given type, path, tags and uses, normalizing the raw tags into a buffer.
+     * Documents created with the same buffer share their normalized tags if they are equal.
+     * @param type the type of the document
+     * @param path the path of the document
+     * @param tags the raw tags of the document
+     * @param uses the amount of uses of the document
+     * @param buffer the buffer of the loader or null to create a new set of tags
+     * @return the created document
+     */
+    public static Document createDocument(DocumentType type, String path, Set<Tag> tags, long uses,
+                                          TagNormalizer.Buffer buffer) {
         if (type == null || path == null || tags == null) {
             return null;
         }
         return switch (type) {
-            case AUDIO -> new AudioDocument(path, tags, uses);
-            case TEXT -> new TextDocument(path, tags, uses);
-            case IMAGE -> new ImageDocument(path, tags, uses);
-            case VIDEO -> new VideoDocument(path, tags, uses);
-            case PROGRAM -> new ProgramDocument(path, tags, uses);
+            case AUDIO -> new AudioDocument(path, AudioDocument.TAG_NORMALIZER.normalize(tags, buffer), uses);
+            case TEXT -> new TextDocument(path, TextDocument.TAG_NORMALIZER.normalize(tags, buffer), uses);
+            case IMAGE -> new ImageDocument(path, ImageDocument.TAG_NORMALIZER.normalize(tags, buffer), uses);
+            case VIDEO -> new VideoDocument(path, VideoDocument.TAG_NORMALIZER.normalize(tags, buffer), uses);
+            case PROGRAM -> new ProgramDocument(path, ProgramDocument.TAG_NORMALIZER.normalize(tags, buffer), uses);
         };
     }
 
     /**
-     * Returns the document set with a given index.
+     * Returns the document set with a given index and marks it as the most recently used set.
+     * A spilled set is read back from disk, which may spill other sets to stay within the heap budget.
      * @param index the index of the document set
-     * @return the document set with the index
+     * @return the document set with the index or null if there is no such document set
+     *     or it could not be read back from disk
      */
-    public Set<Document> getDocumentSet(int index) {
-        return isValidDocumentSet(index) ? loadedDocuments.get(index) : null;
-    }
+    public DocumentSet getDocumentSet(int index) {
+        LoadedDocumentSet loaded = loadedDocuments.get(index);
+        if (loaded == null) {
+            return null;
+        }
+        loaded.lastAccess = accessClock.incrementAndGet();
+        DocumentSet documents = loaded.documents;
+        if (documents != null) {
+            return documents;
+        }
 
-    /**
-     * Returns whether a document set with a given index is valid.
-     * @param index the index of the document set to check
-     * @return whether the document set is valid
-     */
-    private boolean isValidDocumentSet(int index) {
-        return index >= 0 && index < loadedDocuments.size();
+        synchronized (loaded) {
+            if (loaded.documents == null) {
+                if (loadedDocuments.get(index) != loaded) {
+                    return null;
+                }
+                try {
+                    loaded.documents = DocumentSetFile.read(loaded.spillFile);
+                    Files.deleteIfExists(loaded.spillFile);
+                } catch (IOException e) {
+                    return null;
+                }
+                loaded.spillFile = null;
+                residentBytes.addAndGet(loaded.estimatedBytes);
+            }
+            documents = loaded.documents;
+        }
+        enforceHeapBudget(index);
+        return documents;
     }
 
     /**
      * Adds a document set to the loaded documents.
+     * The indices are assigned atomically in the order of the calls.
+     * Adding a set may spill the least recently used sets to stay within the heap budget.
      * @param documents the document set to add
      * @return the index of the added document set
      */
-    public int addDocumentSet(Set<Document> documents) {
-        loadedDocuments.add(documents);
-        return loadedDocuments.size() - 1;
+    public int addDocumentSet(DocumentSet documents) {
+        int index = nextDocumentSetId.getAndIncrement();
+        LoadedDocumentSet loaded = new LoadedDocumentSet(documents, accessClock.incrementAndGet());
+        residentBytes.addAndGet(loaded.estimatedBytes);
+        loadedDocuments.put(index, loaded);
+        enforceHeapBudget(index);
+        return index;
+    }
+
+    /**
+     * Removes a document set from the loaded documents and deletes its spill file.
+     * Commands that already hold the set finish on it, but it cannot be accessed by its index anymore.
+     * @param index the index of the document set
+     * @return true if the set was removed, false if there is no such document set
+     */
+    public boolean unloadDocumentSet(int index) {
+        LoadedDocumentSet loaded = loadedDocuments.remove(index);
+        if (loaded == null) {
+            return false;
+        }
+        synchronized (loaded) {
+            if (loaded.documents != null) {
+                residentBytes.addAndGet(-loaded.estimatedBytes);
+            }
+            if (loaded.spillFile != null) {
+                try {
+                    Files.deleteIfExists(loaded.spillFile);
+                } catch (IOException e) {
+                    // the spill file is deleted when the application exits
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the estimated memory usage of the loaded document sets, ordered by their index.
+     * @return the memory usage of the loaded document sets
+     */
+    public List<MemoryUsage> getMemoryUsage() {
+        List<MemoryUsage> usage = new ArrayList<>();
+        loadedDocuments.forEach((index, loaded) -> usage.add(new MemoryUsage(index, loaded.documentCount,
+            loaded.estimatedBytes, loaded.offHeapBytes, loaded.documents == null)));
+        usage.sort(Comparator.comparingInt(MemoryUsage::index));
+        return usage;
+    }
+
+    /**
+     * Returns the heap budget of the loaded document sets.
+     * @return the estimated number of bytes the resident document sets may occupy, 0 for no budget
+     */
+    public long getHeapBudget() {
+        return heapBudget;
+    }
+
+    /**
+     * Spills the least recently used document sets until the resident sets fit into the heap budget.
+     * Sets in use by a reader or a change are skipped, and so is the set that was just accessed.
+     * No lock is taken while the resident sets fit into the budget. The sets are written to disk outside of the
+     * monitor of the handler, so concurrent accesses only wait for the choice of the sets to spill.
+     * @param accessedIndex the index of the set that was just accessed
+     */
+    private void enforceHeapBudget(int accessedIndex) {
+        if (heapBudget <= 0 || residentBytes.get() <= heapBudget) {
+            return;
+        }
+        List<Map.Entry<Integer, LoadedDocumentSet>> candidates = getSpillCandidates(accessedIndex);
+        for (int candidate = 0; candidate < candidates.size() && residentBytes.get() > heapBudget; candidate++) {
+            Map.Entry<Integer, LoadedDocumentSet> entry = candidates.get(candidate);
+            spill(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Returns the resident document sets that may be spilled, the least recently used first.
+     * @param accessedIndex the index of the set that was just accessed, which is not spilled
+     * @return the loaded document sets to spill in this order
+     */
+    private synchronized List<Map.Entry<Integer, LoadedDocumentSet>> getSpillCandidates(int accessedIndex) {
+        List<Map.Entry<Integer, LoadedDocumentSet>> candidates = new ArrayList<>();
+        for (Map.Entry<Integer, LoadedDocumentSet> entry : loadedDocuments.entrySet()) {
+            if (entry.getValue().documents != null && entry.getKey() != accessedIndex) {
+                candidates.add(entry);
+            }
+        }
+        candidates.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+        return candidates;
+    }
+
+    /**
+     * Spills a loaded document set to a file of the spill directory.
+     * @param index the index of the document set
+     * @param loaded the loaded document set
+     * @return true if the set was spilled, false if it is in use, already spilled, unloaded or could not be written
+     */
+    private boolean spill(int index, LoadedDocumentSet loaded) {
+        synchronized (loaded) {
+            if (loaded.documents == null || loadedDocuments.get(index) != loaded) {
+                return false;
+            }
+            Path spillFile = null;
+            try {
+                spillFile = getSpillDirectory().resolve(SPILL_FILE_FORMAT.formatted(index));
+                if (!loaded.documents.trySpill(spillFile)) {
+                    return false;
+                }
+            } catch (IOException e) {
+                deleteQuietly(spillFile);
+                return false;
+            }
+            spillFile.toFile().deleteOnExit();
+            loaded.spillFile = spillFile;
+            loaded.documents = null;
+            residentBytes.addAndGet(-loaded.estimatedBytes);
+            return true;
+        }
+    }
+
+    /**
+     * Returns the directory of the spill files and creates it on first use.
+     * @return the spill directory
+     * @throws IOException if the directory cannot be created
+     */
+    private synchronized Path getSpillDirectory() throws IOException {
+        if (spillDirectory == null) {
+            spillDirectory = Files.createTempDirectory(SPILL_DIRECTORY_PREFIX);
+            spillDirectory.toFile().deleteOnExit();
+        }
+        return spillDirectory;
+    }
+
+    /**
+     * Deletes a file that could not be written completely.
+     * @param file the file to delete or null
+     */
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // the file is left behind in the temporary directory
+        }
+    }
+
+    /**
+     * Parses a heap budget in bytes with an optional suffix k, m or g.
+     * @param heapBudget the heap budget or null
+     * @return the heap budget in bytes, 0 if there is no valid budget
+     */
+    private static long parseHeapBudget(String heapBudget) {
+        if (heapBudget == null || heapBudget.isBlank()) {
+            return 0;
+        }
+        String budget = heapBudget.trim().toLowerCase(Locale.ROOT);
+        int unit = HEAP_BUDGET_UNITS.indexOf(budget.charAt(budget.length() - 1)) + 1;
+        try {
+            long bytes = Long.parseLong(unit == 0 ? budget : budget.substring(0, budget.length() - 1));
+            return bytes < 0 || bytes > Long.MAX_VALUE >> (BITS_PER_UNIT * unit) ? 0 : bytes << (BITS_PER_UNIT * unit);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the result of a run on a version of a document set, computing it only once for concurrent callers.
+     * The first caller computes the result, callers arriving while it is computed wait for it instead.
+     * If the computing caller is cancelled, one of the waiting callers takes over the computation.
+     * @param index the index of the document set
+     * @param version the version of the document set the run is computed on
+     * @param run the computation of the run
+     * @return the result of the run
+     * @throws CancellationException if the calling thread is interrupted while it waits
+     */
+    public String getRunResult(int index, long version, Supplier<String> run) {
+        RunKey key = new RunKey(index, version);
+        CompletableFuture<String> ownRun = new CompletableFuture<>();
+        while (true) {
+            CompletableFuture<String> pendingRun = pendingRuns.putIfAbsent(key, ownRun);
+            if (pendingRun == null) {
+                break;
+            }
+            try {
+                return pendingRun.get();
+            } catch (CancellationException e) {
+                continue;
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : new CompletionException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException(RUN_INTERRUPTED_MESSAGE);
+            }
+        }
+
+        String result;
+        try {
+            result = run.get();
+        } catch (RuntimeException | Error e) {
+            pendingRuns.remove(key, ownRun);
+            ownRun.completeExceptionally(e);
+            throw e;
+        }
+        pendingRuns.remove(key, ownRun);
+        ownRun.complete(result);
+        return result;
+    }
+
+    /**
+     * A document set in the registry, which is either resident or spilled to a file.
+     * The set and the spill file are changed while holding the monitor of this object, together with the resident
+     * bytes of the handler.
+     */
+    private static final class LoadedDocumentSet {
+        private final int documentCount;
+        private final long estimatedBytes;
+        private final long offHeapBytes;
+        private volatile DocumentSet documents;
+        private volatile long lastAccess;
+        private Path spillFile;
+
+        /**
+         * Constructs a new resident LoadedDocumentSet.
+         * @param documents the document set
+         * @param lastAccess the time of the last access on the access clock
+         */
+        private LoadedDocumentSet(DocumentSet documents, long lastAccess) {
+            this.documentCount = documents.getDocumentCount();
+            this.estimatedBytes = documents.getEstimatedBytes();
+            this.offHeapBytes = documents.getOffHeapBytes();
+            this.documents = documents;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * The key of a run on a version of a document set.
+     * @param index the index of the document set
+     * @param version the version of the document set
+     */
+    private record RunKey(int index, long version) {
     }
 }
@@ -1,6 +1,11 @@
 package edu.kit;
 
+import edu.kit.command.BatchCommandHandler;
 import edu.kit.command.CommandHandler;
+import edu.kit.command.CommandServer;
+
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * This is the main class of the FlawlessFileFacilitator application.
@@ -8,6 +13,13 @@
  * @author uqfdp
  */
 public final class FlawlessFileFacilitator {
+    private static final String BATCH_OPTION = "--batch";
+    private static final String FLUSH_INTERVAL_OPTION = "--flush-interval";
+    private static final String SERVER_OPTION = "--server";
+    private static final String USAGE_MESSAGE =
+        "Usage: [--batch <command file> [--flush-interval <commands>] | --server <port | unix:socket path>]";
+    private static final String BATCH_ERROR_MESSAGE_FORMAT = "ERROR: Could not execute the commands of %s.";
+    private static final String SERVER_ERROR_MESSAGE_FORMAT = "ERROR: Could not serve on %s.";
 
     /**
      * This class is a utility class and should not be instantiated.
@@ -18,12 +30,58 @@ private FlawlessFileFacilitator() {
 
     /**
      * The main method of the application.
+     * Without arguments the commands are read interactively from the standard input,
+     * with {@code --batch} they are read from a command file and with {@code --server} they are read from
+     * the clients of a local socket.
      *
      * @param args the command line arguments
      */
     public static void main(String[] args) {
         DocumentHandler documentHandler = new DocumentHandler();
-        new CommandHandler(documentHandler).handleUserInput();
+        if (args.length == 0) {
+            new CommandHandler(documentHandler).handleUserInput();
+            return;
+        }
+
+        if (args.length == 2 && args[0].equals(SERVER_OPTION)) {
+            try {
+                new CommandServer(documentHandler).serve(args[1]);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println(SERVER_ERROR_MESSAGE_FORMAT.formatted(args[1]));
+            }
+            return;
+        }
+
+        int flushInterval = getFlushInterval(args);
+        if (!args[0].equals(BATCH_OPTION) || flushInterval < 0) {
+            System.err.println(USAGE_MESSAGE);
+            return;
+        }
+        try {
+            new BatchCommandHandler(documentHandler, flushInterval).handleCommands(Path.of(args[1]));
+        } catch (IOException e) {
+            System.err.println(BATCH_ERROR_MESSAGE_FORMAT.formatted(args[1]));
+        }
+    }
+
+    /**
+     * Returns the flush interval of the batch mode given by the command line arguments.
+     *
+     * @param args the command line arguments
+     * @return the flush interval, 0 if none is given or -1 if the arguments are invalid
+     */
+    private static int getFlushInterval(String[] args) {
+        if (args.length == 2) {
+            return 0;
+        }
+        if (args.length != 4 || !args[2].equals(FLUSH_INTERVAL_OPTION)) {
+            return -1;
+        }
+        try {
+            return Math.max(Integer.parseInt(args[3]), -1);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
 
 
@@ -0,0 +1,14 @@
+package edu.kit;
+
+/**
+ * The estimated memory usage of a loaded document set.
+ *
+ * @param index the index of the document set
+ * @param documentCount the number of documents of the set
+ * @param estimatedBytes the estimated number of heap bytes of the set while it is resident
+ * @param offHeapBytes the number of bytes the documents of the set occupy outside of the heap while it is resident
+ * @param spilled whether the set is spilled to disk, so it does not occupy the heap
+ * @author uqfdp
+ */
+public record MemoryUsage(int index, int documentCount, long estimatedBytes, long offHeapBytes, boolean spilled) {
+}
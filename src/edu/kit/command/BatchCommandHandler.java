@@ -0,0 +1,112 @@
+package edu.kit.command;
+
+import edu.kit.DocumentHandler;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * This class executes the commands of a command file without interaction.
+ * The outputs of the commands are written through one large buffer, which is flushed after a configurable
+ * number of commands or at the end of the file. A summary of the execution times per command type
+ * is printed to the standard error stream afterwards.
+ *
+ * @author uqfdp
+ */
+public final class BatchCommandHandler {
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+    private static final double NANOSECONDS_PER_MILLISECOND = 1e6;
+    private static final String UNKNOWN_COMMAND_NAME = "UNKNOWN";
+    private static final String SUMMARY_FORMAT = "Executed %d commands in %.3f ms%n";
+    private static final String COMMAND_SUMMARY_FORMAT = "%s: %d commands, %.3f ms total, %.3f ms average%n";
+    private final CommandHandler commandHandler;
+    private final int flushInterval;
+
+    /**
+     * Creates a new BatchCommandHandler instance.
+     *
+     * @param documentHandler the document handler to execute the commands on
+     * @param flushInterval the number of commands after which the output is flushed, 0 to flush only at the end
+     */
+    public BatchCommandHandler(DocumentHandler documentHandler, int flushInterval) {
+        this.commandHandler = new CommandHandler(documentHandler);
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Executes the commands of the given file until its end or the QUIT command.
+     *
+     * @param commandFile the file with one command per line
+     * @throws IOException if the command file cannot be read or the output cannot be written
+     */
+    public void handleCommands(Path commandFile) throws IOException {
+        int unknownCommand = CommandType.values().length;
+        long[] commandCounts = new long[unknownCommand + 1];
+        long[] commandNanoseconds = new long[unknownCommand + 1];
+        Writer output = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out),
+            Charset.defaultCharset()), OUTPUT_BUFFER_SIZE);
+
+        long start = System.nanoTime();
+        long executedCommands = 0;
+        try (BufferedReader reader = Files.newBufferedReader(commandFile, Charset.defaultCharset())) {
+            String line;
+            while (!commandHandler.hasQuit() && (line = reader.readLine()) != null) {
+                String[] splittedCommand = CommandHandler.splitCommand(line);
+                CommandType commandType = CommandType.fromString(splittedCommand[0]);
+                long commandStart = System.nanoTime();
+                String commandOutput = commandHandler.executeCommand(splittedCommand);
+                int command = commandType == null ? unknownCommand : commandType.ordinal();
+                commandNanoseconds[command] += System.nanoTime() - commandStart;
+                commandCounts[command]++;
+                executedCommands++;
+
+                if (commandOutput != null) {
+                    output.write(commandOutput);
+                    output.write(System.lineSeparator());
+                }
+                if (flushInterval > 0 && executedCommands % flushInterval == 0) {
+                    output.flush();
+                }
+            }
+        } finally {
+            output.flush();
+        }
+
+        printSummary(executedCommands, System.nanoTime() - start, commandCounts, commandNanoseconds);
+    }
+
+    /**
+     * Prints the summary of the execution times to the standard error stream.
+     *
+     * @param executedCommands the number of executed commands
+     * @param nanoseconds the total time of the batch, including reading the commands and writing the outputs
+     * @param commandCounts the number of executed commands per command type, unknown commands last
+     * @param commandNanoseconds the execution time per command type, unknown commands last
+     */
+    private static void printSummary(long executedCommands, long nanoseconds,
+                                     long[] commandCounts, long[] commandNanoseconds) {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format(Locale.ROOT, SUMMARY_FORMAT,
+            executedCommands, nanoseconds / NANOSECONDS_PER_MILLISECOND));
+        for (int command = 0; command < commandCounts.length; command++) {
+            if (commandCounts[command] == 0) {
+                continue;
+            }
+            String commandName = command < CommandType.values().length
+                ? CommandType.values()[command].getCommandName() : UNKNOWN_COMMAND_NAME;
+            double milliseconds = commandNanoseconds[command] / NANOSECONDS_PER_MILLISECOND;
+            summary.append(String.format(Locale.ROOT, COMMAND_SUMMARY_FORMAT,
+                commandName, commandCounts[command], milliseconds, milliseconds / commandCounts[command]));
+        }
+        System.err.print(summary);
+    }
+}
@@ -1,12 +1,32 @@
 package edu.kit.command;
 
 import edu.kit.DocumentHandler;
+import edu.kit.command.implementation.CancelCommand;
+import edu.kit.command.implementation.ChangeBatchCommand;
 import edu.kit.command.implementation.ChangeCommand;
+import edu.kit.command.implementation.ClassifyCommand;
+import edu.kit.command.implementation.DecayCommand;
+import edu.kit.command.implementation.ExplainCommand;
+import edu.kit.command.implementation.ExportCommand;
+import edu.kit.command.implementation.FindCommand;
+import edu.kit.command.implementation.IngestCommand;
 import edu.kit.command.implementation.LoadCommand;
+import edu.kit.command.implementation.MemoryCommand;
+import edu.kit.command.implementation.MergeCommand;
 import edu.kit.command.implementation.RunCommand;
+import edu.kit.command.implementation.SaveCommand;
+import edu.kit.command.implementation.StatsCommand;
+import edu.kit.command.implementation.StatusCommand;
+import edu.kit.command.implementation.SubmitCommand;
+import edu.kit.command.implementation.TopCommand;
+import edu.kit.command.implementation.UnloadCommand;
+import edu.kit.command.implementation.ViewCommand;
+import edu.kit.command.implementation.WaitCommand;
+import edu.kit.command.job.JobHandler;
+import edu.kit.metrics.MetricsExporter;
 
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Scanner;
 
@@ -17,14 +37,18 @@
  * @author uqfdp
  **/
 public final class CommandHandler {
-    private static final String COMMAND_SEPARATOR_REGEX = " +";
+    private static final char COMMAND_SEPARATOR = ' ';
     private static final String COMMAND_NOT_FOUND_FORMAT = "Command '%s' not found";
     private static final String ERROR_PREFIX = "ERROR: ";
     private static final String INVALID_ARGUMENT_COUNT_MESSAGE_FORMAT = "Invalid number of arguments. Expected: %d.";
+    private static final String MINIMUM_ARGUMENT_COUNT_MESSAGE_FORMAT =
+        "Invalid number of arguments. Expected at least: %d.";
     private final DocumentHandler documentHandler;
-    private final Scanner scanner;
     private final Map<CommandType, InteractionCommand> commands;
+    private final JobHandler jobHandler;
+    private final MetricsExporter exporter;
     private boolean running = false;
+    private boolean quit = false;
 
     /**
      * Creates a new CommandHandler instance.
@@ -33,8 +57,9 @@ public final class CommandHandler {
      */
     public CommandHandler(DocumentHandler documentHandler) {
         this.documentHandler = documentHandler;
-        this.commands = new HashMap<>();
-        this.scanner = new Scanner(System.in);
+        this.commands = new EnumMap<>(CommandType.class);
+        this.jobHandler = new JobHandler(documentHandler.getMetrics());
+        this.exporter = new MetricsExporter(documentHandler.getMetrics());
 
         initCommands();
     }
@@ -47,63 +72,117 @@ public void handleUserInput() {
             return;
         }
         this.running = true;
-        while (running && scanner.hasNextLine()) {
-            executeCommand(scanner.nextLine());
+        Scanner scanner = new Scanner(System.in);
+        while (!quit && scanner.hasNextLine()) {
+            String output = executeCommand(splitCommand(scanner.nextLine()));
+            if (output != null) {
+                System.out.println(output);
+            }
         }
+        this.running = false;
     }
 
     /**
-     * Quits the interaction with the user.
+     * Returns whether the QUIT command was executed.
+     *
+     * @return true if the QUIT command was executed, false otherwise
      */
-    private void quit() {
-        this.running = false;
+    public boolean hasQuit() {
+        return quit;
     }
 
     /**
-     * Executes a command.
+     * Quits the interaction with the user, cancels the pending background jobs and stops serving the metrics.
+     */
+    public void quit() {
+        this.quit = true;
+        jobHandler.shutdown();
+        exporter.close();
+    }
+
+    /**
+     * Splits a line into the command name and its arguments.
+     * Surrounding whitespace is ignored and the parts are separated by one or more spaces,
+     * so an empty line results in a single empty command name.
      *
      * @param commandWithArguments the command with arguments
+     * @return the command name followed by the arguments
      */
-    private void executeCommand(String commandWithArguments) {
-        String[] splittedCommand = commandWithArguments.trim().split(COMMAND_SEPARATOR_REGEX);
-        String commandName = splittedCommand[0];
-        String[] commandArguments = Arrays.copyOfRange(splittedCommand, 1, splittedCommand.length);
+    public static String[] splitCommand(String commandWithArguments) {
+        int start = 0;
+        int end = commandWithArguments.length();
+        while (start < end && commandWithArguments.charAt(start) <= COMMAND_SEPARATOR) {
+            start++;
+        }
+        while (end > start && commandWithArguments.charAt(end - 1) <= COMMAND_SEPARATOR) {
+            end--;
+        }
 
-        executeCommand(commandName, commandArguments);
+        int partCount = 1;
+        for (int index = start; index < end; index++) {
+            if (commandWithArguments.charAt(index) == COMMAND_SEPARATOR
+                    && commandWithArguments.charAt(index - 1) != COMMAND_SEPARATOR) {
+                partCount++;
+            }
+        }
+
+        String[] parts = new String[partCount];
+        int part = 0;
+        int partStart = start;
+        for (int index = start; index < end; index++) {
+            if (commandWithArguments.charAt(index) != COMMAND_SEPARATOR) {
+                continue;
+            }
+            if (commandWithArguments.charAt(index - 1) != COMMAND_SEPARATOR) {
+                parts[part++] = commandWithArguments.substring(partStart, index);
+            }
+            partStart = index + 1;
+        }
+        parts[part] = commandWithArguments.substring(partStart, end);
+        return parts;
     }
 
     /**
      * Executes a command.
+     * The latency and the allocations of the command and the bytes of its output are recorded in the metrics
+     * of the document handler.
      *
-     * @param commandName      the name of the command
-     * @param commandArguments the arguments of the command
+     * @param splittedCommand the command name followed by the arguments, as split by {@link #splitCommand(String)}
+     * @return the output of the command or null if the command has no output
      */
-    private void executeCommand(String commandName, String[] commandArguments) {
+    public String executeCommand(String[] splittedCommand) {
+        String commandName = splittedCommand[0];
+        String[] commandArguments = Arrays.copyOfRange(splittedCommand, 1, splittedCommand.length);
+
         CommandType commandType = CommandType.fromString(commandName);
         if (commandType == null) {
-            System.out.println(ERROR_PREFIX + COMMAND_NOT_FOUND_FORMAT.formatted(commandName));
-            return;
+            return ERROR_PREFIX + COMMAND_NOT_FOUND_FORMAT.formatted(commandName);
         }
 
-        if (commandArguments.length != commandType.getRequiredArgumentsCount()) {
-            System.out.println(ERROR_PREFIX + INVALID_ARGUMENT_COUNT_MESSAGE_FORMAT.formatted(commandType.getRequiredArgumentsCount()));
-            return;
+        if (commandType.isVariadic() && commandArguments.length < commandType.getRequiredArgumentsCount()) {
+            return ERROR_PREFIX
+                + MINIMUM_ARGUMENT_COUNT_MESSAGE_FORMAT.formatted(commandType.getRequiredArgumentsCount());
+        }
+        if (!commandType.isVariadic() && commandArguments.length != commandType.getRequiredArgumentsCount()) {
+            return ERROR_PREFIX + INVALID_ARGUMENT_COUNT_MESSAGE_FORMAT.formatted(commandType.getRequiredArgumentsCount());
         }
 
         if (commandType == CommandType.QUIT) {
             quit();
-            return;
+            return null;
         }
 
         InteractionCommand commandImplementation = commands.get(commandType);
-        CommandResult result = commandImplementation.execute(documentHandler, commandArguments);
+        CommandResult result = documentHandler.getMetrics().record(commandType,
+            () -> commandImplementation.execute(documentHandler, commandArguments));
         String output = switch (result.getType()) {
             case SUCCESS -> result.getMessage();
             case FAILURE -> ERROR_PREFIX + result.getMessage();
         };
         if (output != null) {
-            System.out.println(output);
+            documentHandler.getMetrics().countBytesEchoed(output);
         }
+        return output;
     }
 
     /**
@@ -113,6 +192,29 @@ private void initCommands() {
         addCommand(CommandType.LOAD, new LoadCommand());
         addCommand(CommandType.RUN, new RunCommand());
         addCommand(CommandType.CHANGE, new ChangeCommand());
+        addCommand(CommandType.CHANGE_BATCH, new ChangeBatchCommand());
+        addCommand(CommandType.DECAY, new DecayCommand());
+        addCommand(CommandType.EXPLAIN, new ExplainCommand());
+        addCommand(CommandType.UNLOAD, new UnloadCommand());
+        addCommand(CommandType.MERGE, new MergeCommand());
+        addCommand(CommandType.MEMORY, new MemoryCommand());
+        addCommand(CommandType.SAVE, new SaveCommand());
+        addCommand(CommandType.VIEW, new ViewCommand());
+        addCommand(CommandType.CLASSIFY, new ClassifyCommand());
+        addCommand(CommandType.FIND, new FindCommand());
+        addCommand(CommandType.TOP, new TopCommand());
+        addCommand(CommandType.INGEST, new IngestCommand());
+
+        Map<CommandType, InteractionCommand> submittableCommands = new EnumMap<>(CommandType.class);
+        submittableCommands.put(CommandType.LOAD, commands.get(CommandType.LOAD));
+        submittableCommands.put(CommandType.RUN, commands.get(CommandType.RUN));
+        submittableCommands.put(CommandType.EXPLAIN, commands.get(CommandType.EXPLAIN));
+        addCommand(CommandType.SUBMIT, new SubmitCommand(jobHandler, submittableCommands));
+        addCommand(CommandType.STATUS, new StatusCommand(jobHandler));
+        addCommand(CommandType.WAIT, new WaitCommand(jobHandler));
+        addCommand(CommandType.CANCEL, new CancelCommand(jobHandler));
+        addCommand(CommandType.STATS, new StatsCommand());
+        addCommand(CommandType.EXPORT, new ExportCommand(exporter));
     }
 
     /**
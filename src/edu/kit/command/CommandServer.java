@@ -0,0 +1,87 @@
+package edu.kit.command;
+
+import edu.kit.DocumentHandler;
+import edu.kit.util.LocalSockets;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class serves the commands of many concurrent clients on a local socket.
+ * Every client session runs on its own thread with its own command handler, while all sessions share the
+ * loaded document sets of one document handler. A session reads one command per line and ends with the
+ * QUIT command or when the client closes the connection.
+ *
+ * @author uqfdp
+ */
+public final class CommandServer {
+    private static final String SESSION_THREAD_NAME_FORMAT = "session-%d";
+    private final DocumentHandler documentHandler;
+    private final AtomicInteger nextSessionId;
+
+    /**
+     * Creates a new CommandServer instance.
+     *
+     * @param documentHandler the document handler shared by all sessions
+     */
+    public CommandServer(DocumentHandler documentHandler) {
+        this.documentHandler = documentHandler;
+        this.nextSessionId = new AtomicInteger();
+    }
+
+    /**
+     * Accepts clients on the given address until the server is terminated.
+     * The address is either a TCP port on the loopback interface or {@code unix:} followed by the path of a
+     * Unix domain socket. A stale file of the Unix domain socket is replaced, and the file is removed when
+     * the server ends.
+     *
+     * @param address the address to accept the clients on
+     * @throws IOException if the socket cannot be opened or bound
+     * @throws NumberFormatException if the address is neither a port nor a Unix domain socket
+     */
+    public void serve(String address) throws IOException {
+        ServerSocketChannel server = LocalSockets.openServer(address);
+        try {
+            while (true) {
+                SocketChannel client = server.accept();
+                new Thread(() -> handleSession(client),
+                    SESSION_THREAD_NAME_FORMAT.formatted(nextSessionId.getAndIncrement())).start();
+            }
+        } finally {
+            LocalSockets.closeServer(server);
+        }
+    }
+
+    /**
+     * Executes the commands of one client and writes their outputs back to it.
+     * A failing connection only ends its own session.
+     *
+     * @param client the connection to the client
+     */
+    private void handleSession(SocketChannel client) {
+        CommandHandler commandHandler = new CommandHandler(documentHandler);
+        try (client;
+             BufferedReader reader = new BufferedReader(Channels.newReader(client, StandardCharsets.UTF_8));
+             Writer writer = Channels.newWriter(client, StandardCharsets.UTF_8)) {
+            String line;
+            while (!commandHandler.hasQuit() && (line = reader.readLine()) != null) {
+                String output = commandHandler.executeCommand(CommandHandler.splitCommand(line));
+                if (output != null) {
+                    writer.write(output);
+                    writer.write(System.lineSeparator());
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            // the client disconnected, which ends its session like the QUIT command
+        } finally {
+            commandHandler.quit();
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package edu.kit.command;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * This enum represents the different types of commands.
  *
@@ -22,12 +26,113 @@ public enum CommandType {
      */
     CHANGE(3),
 
+    /**
+     * Represents the command to change the numbers of uses of many documents from a file.
+     * The command is entered as {@code CHANGE-BATCH}.
+     */
+    CHANGE_BATCH(2),
+
+    /**
+     * Represents the command to let the uses of a set of documents decay with a half-life.
+     */
+    DECAY(2),
+
+    /**
+     * Represents the command to print the profile of every node of the tree of a set of documents.
+     */
+    EXPLAIN(1),
+
+    /**
+     * Represents the command to unload a set of documents.
+     */
+    UNLOAD(1),
+
+    /**
+     * Represents the command to merge two or more sets of documents into a new set of documents.
+     */
+    MERGE(3, true),
+
+    /**
+     * Represents the command to print the estimated memory usage of the loaded sets of documents.
+     */
+    MEMORY(0),
+
+    /**
+     * Represents the command to save the tree of a set of documents as a tree snapshot file.
+     */
+    SAVE(2),
+
+    /**
+     * Represents the command to print a tree snapshot file.
+     */
+    VIEW(1),
+
+    /**
+     * Represents the command to place the documents of a file into the folders of a tree.
+     */
+    CLASSIFY(2),
+
+    /**
+     * Represents the command to find the documents of a set matching a predicate over their tags.
+     */
+    FIND(2, true),
+
+    /**
+     * Represents the command to print the most used documents of a set carrying a tag.
+     */
+    TOP(3),
+
+    /**
+     * Represents the command to count the accesses of the documents of a set from a stream of access events.
+     */
+    INGEST(2),
+
+    /**
+     * Represents the command to execute a load, run or explain command as a background job.
+     */
+    SUBMIT(2),
+
+    /**
+     * Represents the command to print the status of a background job.
+     */
+    STATUS(1),
+
+    /**
+     * Represents the command to wait for a background job and print its result.
+     */
+    WAIT(1),
+
+    /**
+     * Represents the command to cancel a background job.
+     */
+    CANCEL(1),
+
+    /**
+     * Represents the command to print the runtime metrics.
+     */
+    STATS(0),
+
+    /**
+     * Represents the command to export the runtime metrics to a file or a port.
+     */
+    EXPORT(1),
+
     /**
      * Represents the command to quit the program.
      */
     QUIT(0);
 
+    private static final Map<String, CommandType> COMMANDS_BY_NAME = new HashMap<>();
+
+    static {
+        for (CommandType type : CommandType.values()) {
+            COMMANDS_BY_NAME.put(type.getCommandName(), type);
+            COMMANDS_BY_NAME.put(type.getCommandName().toLowerCase(Locale.ROOT), type);
+        }
+    }
+
     private final int requiredArgumentsCount;
+    private final boolean variadic;
 
     /**
      * Constructs a new CommandType with the given number of required arguments.
@@ -35,24 +140,50 @@ public enum CommandType {
      * @param requiredArgumentsCount the number of required arguments
      */
     CommandType(int requiredArgumentsCount) {
+        this(requiredArgumentsCount, false);
+    }
+
+    /**
+     * Constructs a new CommandType with the given number of required arguments.
+     *
+     * @param requiredArgumentsCount the number of required arguments, the minimum if the command is variadic
+     * @param variadic whether the command accepts more than the required arguments
+     */
+    CommandType(int requiredArgumentsCount, boolean variadic) {
         this.requiredArgumentsCount = requiredArgumentsCount;
+        this.variadic = variadic;
     }
 
     /**
-     * Returns the CommandType that corresponds to the given string.
+     * Returns the CommandType that corresponds to the given string, ignoring the case.
+     * Names in upper or lower case are looked up directly, other spellings are compared one by one.
      *
      * @param command the string to convert
      * @return the CommandType that corresponds to the given string
      */
     public static CommandType fromString(String command) {
+        CommandType commandType = COMMANDS_BY_NAME.get(command);
+        if (commandType != null) {
+            return commandType;
+        }
         for (CommandType type : CommandType.values()) {
-            if (type.name().equalsIgnoreCase(command)) {
+            if (type.getCommandName().equalsIgnoreCase(command)) {
                 return type;
             }
         }
         return null;
     }
 
+    /**
+     * Returns the name the command is entered with, which is the name of the constant with dashes instead of
+     * underscores.
+     *
+     * @return the name of the command
+     */
+    public String getCommandName() {
+        return name().replace('_', '-');
+    }
+
     /**
      * Returns the number of required arguments for this command.
      *
@@ -61,4 +192,13 @@ public static CommandType fromString(String command) {
     public int getRequiredArgumentsCount() {
         return requiredArgumentsCount;
     }
+
+    /**
+     * Returns whether this command accepts more than the required number of arguments.
+     *
+     * @return true if the required number of arguments is a minimum, false if it is exact
+     */
+    public boolean isVariadic() {
+        return variadic;
+    }
 }
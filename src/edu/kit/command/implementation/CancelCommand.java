@@ -0,0 +1,51 @@
+package edu.kit.command.implementation;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.InteractionCommand;
+import edu.kit.command.job.Job;
+import edu.kit.command.job.JobHandler;
+
+/**
+ * Represents the command to cancel a background job.
+ * The thread executing the command of the job is interrupted and the job is forgotten.
+ *
+ * @author uqfdp
+ */
+public class CancelCommand implements InteractionCommand {
+    private static final String INVALID_ARGUMENTS_ERROR_MESSAGE = "Invalid argument.";
+    private static final String JOB_NOT_FOUND_ERROR_MESSAGE = "Job not found.";
+    private static final String JOB_COMPLETED_ERROR_MESSAGE_FORMAT = "Job %d has already completed.";
+    private static final String SUCCESS_MESSAGE_FORMAT = "Cancelled job %d";
+    private final JobHandler jobHandler;
+
+    /**
+     * Constructs a new CancelCommand.
+     *
+     * @param jobHandler the job handler the jobs were submitted to
+     */
+    public CancelCommand(JobHandler jobHandler) {
+        this.jobHandler = jobHandler;
+    }
+
+    @Override
+    public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
+        int id;
+        try {
+            id = Integer.parseInt(commandArguments[0]);
+        } catch (NumberFormatException e) {
+            return new CommandResult(CommandResultType.FAILURE, INVALID_ARGUMENTS_ERROR_MESSAGE);
+        }
+
+        Job job = jobHandler.getJob(id);
+        if (job == null) {
+            return new CommandResult(CommandResultType.FAILURE, JOB_NOT_FOUND_ERROR_MESSAGE);
+        }
+        if (!job.cancel()) {
+            return new CommandResult(CommandResultType.FAILURE, JOB_COMPLETED_ERROR_MESSAGE_FORMAT.formatted(id));
+        }
+        jobHandler.removeJob(id);
+        return new CommandResult(CommandResultType.SUCCESS, SUCCESS_MESSAGE_FORMAT.formatted(id));
+    }
+}
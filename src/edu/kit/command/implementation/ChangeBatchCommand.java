@@ -0,0 +1,99 @@
+package edu.kit.command.implementation;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.InteractionCommand;
+import edu.kit.document.DocumentSet;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents the command to change the numbers of uses of many documents from an update file.
+ * Every line of the file holds a path and the new number of uses, separated by a comma. If a path occurs
+ * more than once, its last line applies. The changes are applied atomically: if a line is invalid, a path is
+ * unknown or the uses would exceed the supported range, no change is applied.
+ * If the set of documents is spilled to disk while the changes are prepared, they are repeated
+ * on the set read back from disk.
+ *
+ * @author uqfdp
+ */
+public class ChangeBatchCommand implements InteractionCommand {
+    private static final String UPDATE_PART_SEPARATOR = ",";
+    private static final int UPDATE_PARTS = 2;
+    private static final String INVALID_ARGUMENTS_ERROR_MESSAGE = "Invalid argument.";
+    private static final String DOCUMENT_NOT_FOUND_ERROR_MESSAGE = "Document not found.";
+    private static final String FILE_NOT_FOUND_ERROR_MESSAGE = "File not found.";
+    private static final String INVALID_UPDATE_ERROR_MESSAGE_FORMAT = "Invalid update in line %d.";
+    private static final String INVALID_PATH_ERROR_MESSAGE_FORMAT = "No document with path %s found in line %d.";
+    private static final String USES_OVERFLOW_ERROR_MESSAGE = "Uses of the document set exceed the supported range.";
+    private static final String SUCCESS_MESSAGE_FORMAT = "Changed %d documents of %d from %s";
+
+    @Override
+    public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
+        int id;
+        try {
+            id = Integer.parseInt(commandArguments[0]);
+        } catch (NumberFormatException e) {
+            return new CommandResult(CommandResultType.FAILURE, INVALID_ARGUMENTS_ERROR_MESSAGE);
+        }
+
+        List<String> updates;
+        try {
+            updates = Files.readAllLines(Path.of(commandArguments[1]), Charset.defaultCharset());
+        } catch (IOException | InvalidPathException e) {
+            return new CommandResult(CommandResultType.FAILURE, FILE_NOT_FOUND_ERROR_MESSAGE);
+        }
+        Map<String, Long> usesByPath = new LinkedHashMap<>();
+        Map<String, Integer> lineByPath = new HashMap<>();
+        for (int line = 0; line < updates.size(); line++) {
+            String[] update = updates.get(line).split(UPDATE_PART_SEPARATOR, -1);
+            try {
+                if (update.length != UPDATE_PARTS) {
+                    throw new NumberFormatException();
+                }
+                usesByPath.remove(update[0]);
+                usesByPath.put(update[0], Long.parseLong(update[1]));
+                lineByPath.put(update[0], line + 1);
+            } catch (NumberFormatException e) {
+                return new CommandResult(CommandResultType.FAILURE, INVALID_UPDATE_ERROR_MESSAGE_FORMAT.formatted(line + 1));
+            }
+        }
+
+        while (true) {
+            DocumentSet documents = documentHandler.getDocumentSet(id);
+            if (documents == null) {
+                return new CommandResult(CommandResultType.FAILURE, DOCUMENT_NOT_FOUND_ERROR_MESSAGE);
+            }
+
+            int[] changedDocuments = new int[usesByPath.size()];
+            long[] changedUses = new long[usesByPath.size()];
+            int change = 0;
+            for (Map.Entry<String, Long> update : usesByPath.entrySet()) {
+                changedDocuments[change] = documents.getDocumentIndex(update.getKey());
+                if (changedDocuments[change] < 0) {
+                    return new CommandResult(CommandResultType.FAILURE, INVALID_PATH_ERROR_MESSAGE_FORMAT
+                            .formatted(update.getKey(), lineByPath.get(update.getKey())));
+                }
+                changedUses[change++] = update.getValue();
+            }
+            try {
+                documents.changeUses(changedDocuments, changedUses);
+            } catch (ArithmeticException e) {
+                return new CommandResult(CommandResultType.FAILURE, USES_OVERFLOW_ERROR_MESSAGE);
+            } catch (IllegalStateException e) {
+                continue;
+            }
+            return new CommandResult(CommandResultType.SUCCESS,
+                    SUCCESS_MESSAGE_FORMAT.formatted(changedDocuments.length, id, commandArguments[1]));
+        }
+    }
+}
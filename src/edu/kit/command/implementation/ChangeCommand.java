@@ -4,12 +4,13 @@
 import edu.kit.command.CommandResult;
 import edu.kit.command.CommandResultType;
 import edu.kit.command.InteractionCommand;
-import edu.kit.document.Document;
+import edu.kit.document.DocumentSet;
 
-import java.util.Set;
 
 /**
  * Represents the command to change the number of uses of a document.
+ * If the set of documents is spilled to disk while the change is prepared, the change is repeated
+ * on the set read back from disk.
  *
  * @author uqfdp
  */
@@ -17,33 +18,43 @@ public class ChangeCommand implements InteractionCommand {
     private static final String INVALID_ARGUMENTS_ERROR_MESSAGE = "Invalid argument.";
     private static final String DOCUMENT_NOT_FOUND_ERROR_MESSAGE = "Document not found.";
     private static final String INVALID_PATH_ERROR_MESSAGE_FORMAT = "No document with path %s found.";
+    private static final String USES_OVERFLOW_ERROR_MESSAGE = "Uses of the document set exceed the supported range.";
     private static final String SUCCESS_MESSAGE_FORMAT = "Change %d to %d for %s";
 
 
     @Override
     public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
         int id;
-        int number;
+        long number;
         try {
             id = Integer.parseInt(commandArguments[0]);
-            number = Integer.parseInt(commandArguments[2]);
+            number = Long.parseLong(commandArguments[2]);
         } catch (NumberFormatException e) {
             return new CommandResult(CommandResultType.FAILURE, INVALID_ARGUMENTS_ERROR_MESSAGE);
         }
 
         String path = commandArguments[1];
 
-        Set<Document> documents = documentHandler.getDocumentSet(id);
-        if (documents == null) {
-            return new CommandResult(CommandResultType.FAILURE, DOCUMENT_NOT_FOUND_ERROR_MESSAGE);
+        while (true) {
+            DocumentSet documents = documentHandler.getDocumentSet(id);
+            if (documents == null) {
+                return new CommandResult(CommandResultType.FAILURE, DOCUMENT_NOT_FOUND_ERROR_MESSAGE);
+            }
+
+            int document = documents.getDocumentIndex(path);
+            if (document < 0) {
+                return new CommandResult(CommandResultType.FAILURE, INVALID_PATH_ERROR_MESSAGE_FORMAT.formatted(path));
+            }
+            long oldUses;
+            try {
+                oldUses = documents.changeUses(document, number);
+            } catch (ArithmeticException e) {
+                return new CommandResult(CommandResultType.FAILURE, USES_OVERFLOW_ERROR_MESSAGE);
+            } catch (IllegalStateException e) {
+                continue;
+            }
+            return new CommandResult(CommandResultType.SUCCESS,
+                    SUCCESS_MESSAGE_FORMAT.formatted(oldUses, number, path));
         }
-
-        Document document = documents.stream().filter(d -> d.getPath().equals(path)).findFirst().orElse(null);
-        if (document == null) {
-            return new CommandResult(CommandResultType.FAILURE, INVALID_PATH_ERROR_MESSAGE_FORMAT.formatted(path));
-        }
-        int oldUses = document.getUses();
-        document.setUses(number);
-        return new CommandResult(CommandResultType.SUCCESS, SUCCESS_MESSAGE_FORMAT.formatted(oldUses, number, path));
     }
 }
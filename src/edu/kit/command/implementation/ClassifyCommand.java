@@ -0,0 +1,87 @@
+package edu.kit.command.implementation;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.InteractionCommand;
+import edu.kit.document.DocumentSet;
+import edu.kit.document.StructuralTree;
+import edu.kit.document.TreeClassifier;
+import edu.kit.document.TreeSnapshot;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Represents the command to place the documents of a file into the folders of a tree without loading them.
+ * The tree is either built from a loaded set of documents, given by its id, or read from a tree snapshot file.
+ * Every document is printed with the tag path of its folder like in the tree printed by the RUN command.
+ *
+ * @author uqfdp
+ */
+public class ClassifyCommand implements InteractionCommand {
+    private static final String ID_PATTERN = "-?\\d+";
+    private static final String DOCUMENT_PART_SEPARATOR = ",";
+    private static final String INVALID_ARGUMENTS_ERROR_MESSAGE = "Invalid argument.";
+    private static final String DOCUMENT_NOT_FOUND_ERROR_MESSAGE = "Document not found.";
+    private static final String FILE_NOT_FOUND_ERROR_MESSAGE = "File not found.";
+    private static final String READ_ERROR_MESSAGE_FORMAT = "Could not read the tree from %s.";
+    private static final String INVALID_DOCUMENT_ERROR_MESSAGE_FORMAT = "Invalid document in line %d.";
+    private static final String SUCCESS_MESSAGE_FORMAT = "Classified %d documents";
+    private static final String DOCUMENT_FORMAT = "%n%s/\"%s\"";
+
+    @Override
+    public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
+        List<String> rawDocuments;
+        try {
+            rawDocuments = Files.readAllLines(Path.of(commandArguments[1]), Charset.defaultCharset());
+        } catch (IOException | InvalidPathException e) {
+            return new CommandResult(CommandResultType.FAILURE, FILE_NOT_FOUND_ERROR_MESSAGE);
+        }
+
+        TreeClassifier classifier;
+        String source = commandArguments[0];
+        if (source.matches(ID_PATTERN)) {
+            int id;
+            try {
+                id = Integer.parseInt(source);
+            } catch (NumberFormatException e) {
+                return new CommandResult(CommandResultType.FAILURE, INVALID_ARGUMENTS_ERROR_MESSAGE);
+            }
+            DocumentSet documents = documentHandler.getDocumentSet(id);
+            if (documents == null) {
+                return new CommandResult(CommandResultType.FAILURE, DOCUMENT_NOT_FOUND_ERROR_MESSAGE);
+            }
+            documents.getReadLock().lock();
+            try {
+                StructuralTree tree = new StructuralTree(documentHandler, documents);
+                tree.buildTree();
+                classifier = TreeClassifier.compile(tree);
+            } finally {
+                documents.getReadLock().unlock();
+            }
+        } else {
+            try {
+                classifier = TreeClassifier.compile(TreeSnapshot.open(Path.of(source)));
+            } catch (IOException | InvalidPathException e) {
+                return new CommandResult(CommandResultType.FAILURE, READ_ERROR_MESSAGE_FORMAT.formatted(source));
+            }
+        }
+
+        String[] tagPaths = classifier.classifyAll(rawDocuments);
+        StringBuilder classification = new StringBuilder(SUCCESS_MESSAGE_FORMAT.formatted(tagPaths.length));
+        for (int line = 0; line < tagPaths.length; line++) {
+            if (tagPaths[line] == null) {
+                return new CommandResult(CommandResultType.FAILURE,
+                        INVALID_DOCUMENT_ERROR_MESSAGE_FORMAT.formatted(line + 1));
+            }
+            String path = rawDocuments.get(line).split(DOCUMENT_PART_SEPARATOR, 2)[0];
+            classification.append(DOCUMENT_FORMAT.formatted(tagPaths[line], path));
+        }
+        return new CommandResult(CommandResultType.SUCCESS, classification.toString());
+    }
+}
@@ -0,0 +1,86 @@
+package edu.kit.command.implementation;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.InteractionCommand;
+import edu.kit.document.DocumentSet;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Represents the command to let the uses of a set of documents decay exponentially with a half-life.
+ * The half-life is a number followed by s, m, h or d for seconds, minutes, hours or days, the argument off
+ * makes the set count all uses again. The current uses of the documents are kept, they decay from now on.
+ * If the set of documents is spilled to disk while the change is prepared, the change is repeated
+ * on the set read back from disk.
+ *
+ * @author uqfdp
+ */
+public class DecayCommand implements InteractionCommand {
+    private static final Pattern HALF_LIFE_PATTERN = Pattern.compile("(\\d{1,9})([smhd])");
+    private static final String OFF_ARGUMENT = "off";
+    private static final String INVALID_ARGUMENTS_ERROR_MESSAGE = "Invalid argument.";
+    private static final String INVALID_HALF_LIFE_ERROR_MESSAGE =
+            "Invalid half-life, expected a positive number followed by s, m, h or d, or off.";
+    private static final String DOCUMENT_NOT_FOUND_ERROR_MESSAGE = "Document not found.";
+    private static final String USES_OVERFLOW_ERROR_MESSAGE = "Uses of the document set exceed the supported range.";
+    private static final String DECAY_SUCCESS_MESSAGE_FORMAT = "Uses of %d decay with a half-life of %s";
+    private static final String OFF_SUCCESS_MESSAGE_FORMAT = "Uses of %d no longer decay";
+
+    @Override
+    public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
+        int id;
+        try {
+            id = Integer.parseInt(commandArguments[0]);
+        } catch (NumberFormatException e) {
+            return new CommandResult(CommandResultType.FAILURE, INVALID_ARGUMENTS_ERROR_MESSAGE);
+        }
+        String argument = commandArguments[1].toLowerCase(Locale.ROOT);
+        long halfLife = 0;
+        if (!argument.equals(OFF_ARGUMENT)) {
+            Matcher matcher = HALF_LIFE_PATTERN.matcher(argument);
+            if (!matcher.matches()) {
+                return new CommandResult(CommandResultType.FAILURE, INVALID_HALF_LIFE_ERROR_MESSAGE);
+            }
+            halfLife = getUnit(matcher.group(2)).toMillis(Long.parseLong(matcher.group(1)));
+            if (halfLife <= 0) {
+                return new CommandResult(CommandResultType.FAILURE, INVALID_HALF_LIFE_ERROR_MESSAGE);
+            }
+        }
+
+        while (true) {
+            DocumentSet documents = documentHandler.getDocumentSet(id);
+            if (documents == null) {
+                return new CommandResult(CommandResultType.FAILURE, DOCUMENT_NOT_FOUND_ERROR_MESSAGE);
+            }
+            try {
+                documents.setHalfLife(halfLife);
+            } catch (ArithmeticException e) {
+                return new CommandResult(CommandResultType.FAILURE, USES_OVERFLOW_ERROR_MESSAGE);
+            } catch (IllegalStateException e) {
+                continue;
+            }
+            return new CommandResult(CommandResultType.SUCCESS, halfLife > 0
+                    ? DECAY_SUCCESS_MESSAGE_FORMAT.formatted(id, argument) : OFF_SUCCESS_MESSAGE_FORMAT.formatted(id));
+        }
+    }
+
+    /**
+     * Returns the time unit of a half-life suffix.
+     *
+     * @param suffix the suffix s, m, h or d
+     * @return the time unit
+     */
+    private static TimeUnit getUnit(String suffix) {
+        return switch (suffix) {
+            case "s" -> TimeUnit.SECONDS;
+            case "m" -> TimeUnit.MINUTES;
+            case "h" -> TimeUnit.HOURS;
+            default -> TimeUnit.DAYS;
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package edu.kit.command.implementation;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.InteractionCommand;
+import edu.kit.document.DocumentSet;
+import edu.kit.document.NodeProfile;
+import edu.kit.document.StructuralTree;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Represents the command to build and render the tree of a set of documents like the RUN command
+ * and print the profile of every node instead of the tree.
+ * The tree is always built anew, since a run shared with concurrent callers could not be profiled.
+ *
+ * @author uqfdp
+ */
+public class ExplainCommand implements InteractionCommand {
+    private static final String INVALID_ARGUMENTS_ERROR_MESSAGE = "Invalid argument.";
+    private static final String DOCUMENT_NOT_FOUND_ERROR_MESSAGE = "Document not found.";
+    private static final String ROOT_TAG_PATH = "/";
+    private static final String SUMMARY_FORMAT = "Explained run of %d: %d nodes in %.3f ms, "
+        + "gain %.3f ms, subsets %.3f ms, rendering %.3f ms";
+    private static final String NODE_FORMAT = "%n%s: %d documents, %d candidates, "
+        + "gain %.3f ms, subsets %.3f ms, rendering %.3f ms";
+    private static final double NANOSECONDS_PER_MILLISECOND = 1e6;
+
+    @Override
+    public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
+        int id;
+        try {
+            id = Integer.parseInt(commandArguments[0]);
+        } catch (NumberFormatException e) {
+            return new CommandResult(CommandResultType.FAILURE, INVALID_ARGUMENTS_ERROR_MESSAGE);
+        }
+
+        DocumentSet documents = documentHandler.getDocumentSet(id);
+        if (documents == null) {
+            return new CommandResult(CommandResultType.FAILURE, DOCUMENT_NOT_FOUND_ERROR_MESSAGE);
+        }
+        StructuralTree tree = new StructuralTree(documentHandler, documents);
+        long start = System.nanoTime();
+        documents.getReadLock().lock();
+        try {
+            tree.buildTree();
+            tree.toString();
+        } finally {
+            documents.getReadLock().unlock();
+        }
+        long nanoseconds = System.nanoTime() - start;
+        return new CommandResult(CommandResultType.SUCCESS, getExplanation(id, nanoseconds, tree.getNodeProfiles()));
+    }
+
+    /**
+     * Returns the summary of a profiled run followed by the profiles of its nodes.
+     *
+     * @param id the id of the document set
+     * @param nanoseconds the time of the whole run
+     * @param profiles the profiles of the nodes in the order of the rendered tree
+     * @return the explanation of the run
+     */
+    private static String getExplanation(int id, long nanoseconds, List<NodeProfile> profiles) {
+        long gainNanoseconds = 0;
+        long subsetNanoseconds = 0;
+        long renderingNanoseconds = 0;
+        StringBuilder nodes = new StringBuilder();
+        for (NodeProfile profile : profiles) {
+            gainNanoseconds += profile.gainNanoseconds();
+            subsetNanoseconds += profile.subsetNanoseconds();
+            renderingNanoseconds += profile.renderingNanoseconds();
+            nodes.append(String.format(Locale.ROOT, NODE_FORMAT,
+                profile.tagPath().isEmpty() ? ROOT_TAG_PATH : profile.tagPath(),
+                profile.documentCount(), profile.candidateCount(),
+                profile.gainNanoseconds() / NANOSECONDS_PER_MILLISECOND,
+                profile.subsetNanoseconds() / NANOSECONDS_PER_MILLISECOND,
+                profile.renderingNanoseconds() / NANOSECONDS_PER_MILLISECOND));
+        }
+        return String.format(Locale.ROOT, SUMMARY_FORMAT, id, profiles.size(),
+            nanoseconds / NANOSECONDS_PER_MILLISECOND,
+            gainNanoseconds / NANOSECONDS_PER_MILLISECOND,
+            subsetNanoseconds / NANOSECONDS_PER_MILLISECOND,
+            renderingNanoseconds / NANOSECONDS_PER_MILLISECOND) + nodes;
+    }
+}
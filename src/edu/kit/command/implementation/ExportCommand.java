@@ -0,0 +1,65 @@
+package edu.kit.command.implementation;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.InteractionCommand;
+import edu.kit.metrics.MetricsExporter;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+/**
+ * Represents the command to export the runtime metrics in the Prometheus text exposition format.
+ * A numeric argument is the port of the loopback interface to serve the metrics on,
+ * any other argument is the path of the file to write the metrics to. The port 0 serves the metrics on an ephemeral
+ * port, which is printed. Serving on a port replaces the port the session served on before.
+ *
+ * @author uqfdp
+ */
+public class ExportCommand implements InteractionCommand {
+    private static final String PORT_PATTERN = "\\d{1,5}";
+    private static final int MAXIMUM_PORT = 65535;
+    private static final String INVALID_PORT_ERROR_MESSAGE = "Invalid port.";
+    private static final String SERVE_ERROR_MESSAGE_FORMAT = "Could not serve the metrics on port %d.";
+    private static final String WRITE_ERROR_MESSAGE_FORMAT = "Could not write the metrics to %s.";
+    private static final String SERVE_SUCCESS_MESSAGE_FORMAT = "Serving the metrics on port %d";
+    private static final String WRITE_SUCCESS_MESSAGE_FORMAT = "Exported the metrics to %s";
+    private final MetricsExporter exporter;
+
+    /**
+     * Constructs a new ExportCommand.
+     *
+     * @param exporter the exporter of the session, which keeps the server the metrics are served on
+     */
+    public ExportCommand(MetricsExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @Override
+    public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
+        String target = commandArguments[0];
+
+        if (target.matches(PORT_PATTERN)) {
+            int port = Integer.parseInt(target);
+            if (port > MAXIMUM_PORT) {
+                return new CommandResult(CommandResultType.FAILURE, INVALID_PORT_ERROR_MESSAGE);
+            }
+            int boundPort;
+            try {
+                boundPort = exporter.serve(port);
+            } catch (IOException e) {
+                return new CommandResult(CommandResultType.FAILURE, SERVE_ERROR_MESSAGE_FORMAT.formatted(port));
+            }
+            return new CommandResult(CommandResultType.SUCCESS, SERVE_SUCCESS_MESSAGE_FORMAT.formatted(boundPort));
+        }
+
+        try {
+            exporter.writeFile(Path.of(target));
+        } catch (IOException | InvalidPathException e) {
+            return new CommandResult(CommandResultType.FAILURE, WRITE_ERROR_MESSAGE_FORMAT.formatted(target));
+        }
+        return new CommandResult(CommandResultType.SUCCESS, WRITE_SUCCESS_MESSAGE_FORMAT.formatted(target));
+    }
+}
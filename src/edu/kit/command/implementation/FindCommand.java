@@ -0,0 +1,56 @@
+package edu.kit.command.implementation;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.InteractionCommand;
+import edu.kit.document.DocumentQuery;
+import edu.kit.document.DocumentSet;
+
+import java.util.Arrays;
+
+/**
+ * Represents the command to find the documents of a set matching a predicate over their tags and types.
+ * The predicate language is described by {@link DocumentQuery}. The matching documents are printed with their
+ * uses in the order of the documents of a leaf of the tree.
+ *
+ * @author uqfdp
+ */
+public class FindCommand implements InteractionCommand {
+    private static final String INVALID_ARGUMENTS_ERROR_MESSAGE = "Invalid argument.";
+    private static final String INVALID_PREDICATE_ERROR_MESSAGE = "Invalid predicate.";
+    private static final String DOCUMENT_NOT_FOUND_ERROR_MESSAGE = "Document not found.";
+    private static final String SUCCESS_MESSAGE_FORMAT = "Found %d documents";
+    private static final String DOCUMENT_FORMAT = "%n%s,%d";
+
+    @Override
+    public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
+        int id;
+        try {
+            id = Integer.parseInt(commandArguments[0]);
+        } catch (NumberFormatException e) {
+            return new CommandResult(CommandResultType.FAILURE, INVALID_ARGUMENTS_ERROR_MESSAGE);
+        }
+        DocumentQuery query = DocumentQuery.parse(Arrays.copyOfRange(commandArguments, 1, commandArguments.length));
+        if (query == null) {
+            return new CommandResult(CommandResultType.FAILURE, INVALID_PREDICATE_ERROR_MESSAGE);
+        }
+
+        DocumentSet documents = documentHandler.getDocumentSet(id);
+        if (documents == null) {
+            return new CommandResult(CommandResultType.FAILURE, DOCUMENT_NOT_FOUND_ERROR_MESSAGE);
+        }
+        documents.getReadLock().lock();
+        try {
+            int[] matches = query.find(documents);
+            StringBuilder result = new StringBuilder(SUCCESS_MESSAGE_FORMAT.formatted(matches.length));
+            for (int match : matches) {
+                result.append(DOCUMENT_FORMAT.formatted(documents.getDocumentPath(match),
+                        documents.getDocumentUses(match)));
+            }
+            return new CommandResult(CommandResultType.SUCCESS, result.toString());
+        } finally {
+            documents.getReadLock().unlock();
+        }
+    }
+}
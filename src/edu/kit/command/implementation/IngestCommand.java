@@ -0,0 +1,51 @@
+package edu.kit.command.implementation;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.InteractionCommand;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+
+/**
+ * Represents the command to count the accesses of the documents of a set from a stream of access events.
+ * The events are the paths of accessed documents, one per line, read in the background from a file or named
+ * pipe, from the clients of a port on the loopback interface or from the clients of a Unix domain socket given
+ * as {@code unix:} followed by its path. The counted accesses are added to the uses of the documents
+ * periodically.
+ *
+ * @author uqfdp
+ */
+public class IngestCommand implements InteractionCommand {
+    private static final String PORT_PATTERN = "\\d{1,5}";
+    private static final int MAXIMUM_PORT = 65535;
+    private static final String INVALID_ARGUMENTS_ERROR_MESSAGE = "Invalid argument.";
+    private static final String INVALID_PORT_ERROR_MESSAGE = "Invalid port.";
+    private static final String DOCUMENT_NOT_FOUND_ERROR_MESSAGE = "Document not found.";
+    private static final String OPEN_ERROR_MESSAGE_FORMAT = "Could not open %s.";
+    private static final String SUCCESS_MESSAGE_FORMAT = "Ingesting accesses of %d from %s";
+
+    @Override
+    public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
+        int id;
+        try {
+            id = Integer.parseInt(commandArguments[0]);
+        } catch (NumberFormatException e) {
+            return new CommandResult(CommandResultType.FAILURE, INVALID_ARGUMENTS_ERROR_MESSAGE);
+        }
+        String source = commandArguments[1];
+        if (source.matches(PORT_PATTERN) && Integer.parseInt(source) > MAXIMUM_PORT) {
+            return new CommandResult(CommandResultType.FAILURE, INVALID_PORT_ERROR_MESSAGE);
+        }
+
+        try {
+            if (!documentHandler.getAccessIngestor().ingest(id, source)) {
+                return new CommandResult(CommandResultType.FAILURE, DOCUMENT_NOT_FOUND_ERROR_MESSAGE);
+            }
+        } catch (IOException | InvalidPathException e) {
+            return new CommandResult(CommandResultType.FAILURE, OPEN_ERROR_MESSAGE_FORMAT.formatted(source));
+        }
+        return new CommandResult(CommandResultType.SUCCESS, SUCCESS_MESSAGE_FORMAT.formatted(id, source));
+    }
+}
@@ -4,11 +4,10 @@
 import edu.kit.command.CommandResult;
 import edu.kit.command.CommandResultType;
 import edu.kit.command.InteractionCommand;
-import edu.kit.document.Document;
 import edu.kit.document.DocumentLoader;
+import edu.kit.document.DocumentSet;
 
 import java.io.FileNotFoundException;
-import java.util.Set;
 
 /**
  * Represents the command to load a document from a file.
@@ -20,12 +19,13 @@ public class LoadCommand implements InteractionCommand {
     private static final String LOADING_ERROR_MESSAGE = "Failed to load document";
     private static final String SUCCESS_MESSAGE_FORMAT = "Loaded %s with id: %d%n%s";
     private static final String EMPTY_FILE_ERROR_MESSAGE_FORMAT = "File %s is empty!";
+    private static final String CANCELLED_ERROR_MESSAGE = "Loading was cancelled.";
 
     @Override
     public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
         String path = commandArguments[0];
 
-        Set<Document> documents;
+        DocumentSet documents;
         try {
             documents = DocumentLoader.loadDocuments(path);
         } catch (FileNotFoundException e) {
@@ -34,7 +34,11 @@ public CommandResult execute(DocumentHandler documentHandler, String[] commandAr
         if (documents == null) {
             return new CommandResult(CommandResultType.FAILURE, LOADING_ERROR_MESSAGE);
         }
+        documentHandler.getMetrics().countDocumentsParsed(documents.getDocumentCount());
 
+        if (Thread.currentThread().isInterrupted()) {
+            return new CommandResult(CommandResultType.FAILURE, CANCELLED_ERROR_MESSAGE);
+        }
         int id = documentHandler.addDocumentSet(documents);
 
         String fileRepresentation = DocumentLoader.getFileAsString(path);
@@ -0,0 +1,44 @@
+package edu.kit.command.implementation;
+
+import edu.kit.DocumentHandler;
+import edu.kit.MemoryUsage;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.InteractionCommand;
+
+/**
+ * Represents the command to print the estimated memory usage of every loaded set of documents.
+ * Spilled sets are listed with the size they occupy when they are read back.
+ *
+ * @author uqfdp
+ */
+public class MemoryCommand implements InteractionCommand {
+    private static final String SET_FORMAT = "%d: %d documents, %d bytes, %d bytes off-heap, %s%n";
+    private static final String RESIDENT_STATE = "resident";
+    private static final String SPILLED_STATE = "spilled";
+    private static final String TOTAL_FORMAT = "Total: %d bytes resident, %d bytes spilled";
+    private static final String BUDGET_FORMAT = ", budget %d bytes";
+
+    @Override
+    public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
+        StringBuilder report = new StringBuilder();
+        long residentBytes = 0;
+        long spilledBytes = 0;
+        for (MemoryUsage usage : documentHandler.getMemoryUsage()) {
+            report.append(SET_FORMAT.formatted(usage.index(), usage.documentCount(), usage.estimatedBytes(),
+                    usage.offHeapBytes(),
+                    usage.spilled() ? SPILLED_STATE : RESIDENT_STATE));
+            if (usage.spilled()) {
+                spilledBytes += usage.estimatedBytes();
+            } else {
+                residentBytes += usage.estimatedBytes();
+            }
+        }
+
+        report.append(TOTAL_FORMAT.formatted(residentBytes, spilledBytes));
+        if (documentHandler.getHeapBudget() > 0) {
+            report.append(BUDGET_FORMAT.formatted(documentHandler.getHeapBudget()));
+        }
+        return new CommandResult(CommandResultType.SUCCESS, report.toString());
+    }
+}
@@ -0,0 +1,72 @@
+package edu.kit.command.implementation;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.InteractionCommand;
+import edu.kit.document.DocumentSet;
+import edu.kit.document.DocumentSetMerge;
+import edu.kit.document.UsesMergePolicy;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Represents the command to merge two or more loaded sets of documents into a new set of documents.
+ * The documents are joined on their paths, and the uses of a document contained in several sets are combined by
+ * the policy sum, max or fail, see {@link UsesMergePolicy}. The source sets stay loaded.
+ *
+ * @author uqfdp
+ */
+public class MergeCommand implements InteractionCommand {
+    private static final String INVALID_ARGUMENTS_ERROR_MESSAGE = "Invalid argument.";
+    private static final String INVALID_POLICY_ERROR_MESSAGE = "Invalid policy, expected sum, max or fail.";
+    private static final String DOCUMENT_NOT_FOUND_ERROR_MESSAGE = "Document not found.";
+    private static final String CONFLICT_ERROR_MESSAGE_FORMAT = "Conflicting uses of %s.";
+    private static final String USES_OVERFLOW_ERROR_MESSAGE = "Uses of the document set exceed the supported range.";
+    private static final String SUCCESS_MESSAGE_FORMAT = "Merged %d documents of %d sets with id: %d";
+
+    @Override
+    public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
+        UsesMergePolicy policy = UsesMergePolicy.fromString(commandArguments[0]);
+        if (policy == null) {
+            return new CommandResult(CommandResultType.FAILURE, INVALID_POLICY_ERROR_MESSAGE);
+        }
+
+        Set<Integer> ids = new HashSet<>();
+        List<DocumentSet> sources = new ArrayList<>();
+        for (int argument = 1; argument < commandArguments.length; argument++) {
+            int id;
+            try {
+                id = Integer.parseInt(commandArguments[argument]);
+            } catch (NumberFormatException e) {
+                return new CommandResult(CommandResultType.FAILURE, INVALID_ARGUMENTS_ERROR_MESSAGE);
+            }
+            if (!ids.add(id)) {
+                return new CommandResult(CommandResultType.FAILURE, INVALID_ARGUMENTS_ERROR_MESSAGE);
+            }
+            DocumentSet documents = documentHandler.getDocumentSet(id);
+            if (documents == null) {
+                return new CommandResult(CommandResultType.FAILURE, DOCUMENT_NOT_FOUND_ERROR_MESSAGE);
+            }
+            sources.add(documents);
+        }
+
+        DocumentSetMerge merge = new DocumentSetMerge(policy);
+        DocumentSet merged;
+        try {
+            merged = merge.merge(sources);
+        } catch (ArithmeticException e) {
+            return new CommandResult(CommandResultType.FAILURE, USES_OVERFLOW_ERROR_MESSAGE);
+        }
+        if (merged == null) {
+            return new CommandResult(CommandResultType.FAILURE,
+                    CONFLICT_ERROR_MESSAGE_FORMAT.formatted(merge.getConflictingPath()));
+        }
+        int id = documentHandler.addDocumentSet(merged);
+        return new CommandResult(CommandResultType.SUCCESS,
+                SUCCESS_MESSAGE_FORMAT.formatted(merged.getDocumentCount(), sources.size(), id));
+    }
+}
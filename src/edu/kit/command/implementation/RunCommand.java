@@ -4,13 +4,13 @@
 import edu.kit.command.CommandResult;
 import edu.kit.command.CommandResultType;
 import edu.kit.command.InteractionCommand;
-import edu.kit.document.Document;
+import edu.kit.document.DocumentSet;
 import edu.kit.document.StructuralTree;
 
-import java.util.Set;
 
 /**
  * Represents the command to turn a set of documents into a tree and print it.
+ * Concurrent runs on the same version of a document set share one computation of the tree.
  *
  * @author uqfdp
  */
@@ -28,16 +28,32 @@ public CommandResult execute(DocumentHandler documentHandler, String[] commandAr
             return new CommandResult(CommandResultType.FAILURE, INVALID_ARGUMENTS_ERROR_MESSAGE);
         }
 
-        Set<Document> documents = documentHandler.getDocumentSet(id);
+        DocumentSet documents = documentHandler.getDocumentSet(id);
         if (documents == null) {
             return new CommandResult(CommandResultType.FAILURE, DOCUMENT_NOT_FOUND_ERROR_MESSAGE);
         }
+        documents.getReadLock().lock();
+        try {
+            return new CommandResult(CommandResultType.SUCCESS,
+                    documentHandler.getRunResult(id, documents.getVersion(), () -> runTree(documentHandler, documents)));
+        } finally {
+            documents.getReadLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the tree of a document set and returns its representation.
+     *
+     * @param documentHandler the document handler to build the tree with
+     * @param documents the document set to build the tree of
+     * @return the information gains of the tree followed by the sorted documents of its leaves
+     */
+    private static String runTree(DocumentHandler documentHandler, DocumentSet documents) {
         StructuralTree tree = new StructuralTree(documentHandler, documents);
         String treeValues = tree.buildTree();
         String treeString = tree.toString();
-        return new CommandResult(CommandResultType.SUCCESS,
-                TREE_FORMAT.formatted(
-                        treeValues.substring(0, treeValues.length() - 1),
-                        treeString.substring(0, treeString.length() - 1)));
+        return TREE_FORMAT.formatted(
+                treeValues.substring(0, treeValues.length() - 1),
+                treeString.substring(0, treeString.length() - 1));
     }
 }
@@ -0,0 +1,55 @@
+package edu.kit.command.implementation;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.InteractionCommand;
+import edu.kit.document.DocumentSet;
+import edu.kit.document.StructuralTree;
+import edu.kit.document.TreeSnapshot;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+/**
+ * Represents the command to build the tree of a set of documents and save it as a tree snapshot file.
+ * The snapshot can be printed with the VIEW command without building the tree again.
+ *
+ * @author uqfdp
+ */
+public class SaveCommand implements InteractionCommand {
+    private static final String INVALID_ARGUMENTS_ERROR_MESSAGE = "Invalid argument.";
+    private static final String DOCUMENT_NOT_FOUND_ERROR_MESSAGE = "Document not found.";
+    private static final String WRITE_ERROR_MESSAGE_FORMAT = "Could not write the tree to %s.";
+    private static final String SUCCESS_MESSAGE_FORMAT = "Saved %d nodes of %d to %s";
+
+    @Override
+    public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
+        int id;
+        Path file;
+        try {
+            id = Integer.parseInt(commandArguments[0]);
+            file = Path.of(commandArguments[1]);
+        } catch (NumberFormatException | InvalidPathException e) {
+            return new CommandResult(CommandResultType.FAILURE, INVALID_ARGUMENTS_ERROR_MESSAGE);
+        }
+
+        DocumentSet documents = documentHandler.getDocumentSet(id);
+        if (documents == null) {
+            return new CommandResult(CommandResultType.FAILURE, DOCUMENT_NOT_FOUND_ERROR_MESSAGE);
+        }
+        int nodeCount;
+        documents.getReadLock().lock();
+        try {
+            StructuralTree tree = new StructuralTree(documentHandler, documents);
+            tree.buildTree();
+            nodeCount = TreeSnapshot.write(tree, file);
+        } catch (IOException e) {
+            return new CommandResult(CommandResultType.FAILURE, WRITE_ERROR_MESSAGE_FORMAT.formatted(file));
+        } finally {
+            documents.getReadLock().unlock();
+        }
+        return new CommandResult(CommandResultType.SUCCESS, SUCCESS_MESSAGE_FORMAT.formatted(nodeCount, id, file));
+    }
+}
@@ -0,0 +1,19 @@
+package edu.kit.command.implementation;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.InteractionCommand;
+
+/**
+ * Represents the command to print the runtime metrics of the application.
+ *
+ * @author uqfdp
+ */
+public class StatsCommand implements InteractionCommand {
+
+    @Override
+    public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
+        return new CommandResult(CommandResultType.SUCCESS, documentHandler.getMetrics().getReport());
+    }
+}
@@ -0,0 +1,46 @@
+package edu.kit.command.implementation;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.InteractionCommand;
+import edu.kit.command.job.Job;
+import edu.kit.command.job.JobHandler;
+
+/**
+ * Represents the command to print the status of a background job without waiting for it.
+ *
+ * @author uqfdp
+ */
+public class StatusCommand implements InteractionCommand {
+    private static final String INVALID_ARGUMENTS_ERROR_MESSAGE = "Invalid argument.";
+    private static final String JOB_NOT_FOUND_ERROR_MESSAGE = "Job not found.";
+    private static final String SUCCESS_MESSAGE_FORMAT = "Job %d (%s): %s";
+    private final JobHandler jobHandler;
+
+    /**
+     * Constructs a new StatusCommand.
+     *
+     * @param jobHandler the job handler the jobs were submitted to
+     */
+    public StatusCommand(JobHandler jobHandler) {
+        this.jobHandler = jobHandler;
+    }
+
+    @Override
+    public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
+        int id;
+        try {
+            id = Integer.parseInt(commandArguments[0]);
+        } catch (NumberFormatException e) {
+            return new CommandResult(CommandResultType.FAILURE, INVALID_ARGUMENTS_ERROR_MESSAGE);
+        }
+
+        Job job = jobHandler.getJob(id);
+        if (job == null) {
+            return new CommandResult(CommandResultType.FAILURE, JOB_NOT_FOUND_ERROR_MESSAGE);
+        }
+        return new CommandResult(CommandResultType.SUCCESS, SUCCESS_MESSAGE_FORMAT.formatted(
+                id, job.getCommandType(), job.getStatus().name().toLowerCase()));
+    }
+}
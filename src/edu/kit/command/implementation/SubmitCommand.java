@@ -0,0 +1,46 @@
+package edu.kit.command.implementation;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.CommandType;
+import edu.kit.command.InteractionCommand;
+import edu.kit.command.job.JobHandler;
+
+import java.util.Map;
+
+/**
+ * Represents the command to execute a long-running command as a background job.
+ *
+ * @author uqfdp
+ */
+public class SubmitCommand implements InteractionCommand {
+    private static final String NOT_SUBMITTABLE_ERROR_MESSAGE_FORMAT = "Command '%s' cannot be submitted.";
+    private static final String SUCCESS_MESSAGE_FORMAT = "Submitted %s as job with id: %d";
+    private final JobHandler jobHandler;
+    private final Map<CommandType, InteractionCommand> submittableCommands;
+
+    /**
+     * Constructs a new SubmitCommand.
+     *
+     * @param jobHandler the job handler to submit the jobs to
+     * @param submittableCommands the commands that can be executed as background jobs
+     */
+    public SubmitCommand(JobHandler jobHandler, Map<CommandType, InteractionCommand> submittableCommands) {
+        this.jobHandler = jobHandler;
+        this.submittableCommands = submittableCommands;
+    }
+
+    @Override
+    public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
+        CommandType commandType = CommandType.fromString(commandArguments[0]);
+        InteractionCommand command = commandType == null ? null : submittableCommands.get(commandType);
+        if (command == null) {
+            return new CommandResult(CommandResultType.FAILURE,
+                    NOT_SUBMITTABLE_ERROR_MESSAGE_FORMAT.formatted(commandArguments[0]));
+        }
+
+        int id = jobHandler.submit(commandType, command, documentHandler, new String[] {commandArguments[1]});
+        return new CommandResult(CommandResultType.SUCCESS, SUCCESS_MESSAGE_FORMAT.formatted(commandType, id));
+    }
+}
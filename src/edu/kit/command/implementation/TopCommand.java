@@ -0,0 +1,64 @@
+package edu.kit.command.implementation;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.InteractionCommand;
+import edu.kit.document.DocumentSet;
+import edu.kit.document.Tag;
+
+import java.util.Locale;
+
+/**
+ * Represents the command to print the most used documents of a set carrying a tag.
+ * The documents are printed with their uses in the order of the documents of a leaf of the tree.
+ *
+ * @author uqfdp
+ */
+public class TopCommand implements InteractionCommand {
+    private static final String VALUE_SEPARATOR = "=";
+    private static final String INVALID_ARGUMENTS_ERROR_MESSAGE = "Invalid argument.";
+    private static final String DOCUMENT_NOT_FOUND_ERROR_MESSAGE = "Document not found.";
+    private static final String INVALID_TAG_ERROR_MESSAGE = "Invalid tag, expected <identifier>=<value>.";
+    private static final String INVALID_COUNT_ERROR_MESSAGE_FORMAT = "Invalid count, expected 1 to %d.";
+    private static final String SUCCESS_MESSAGE_FORMAT = "Top %d of %s";
+    private static final String DOCUMENT_FORMAT = "%n%s,%d";
+
+    @Override
+    public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
+        int id;
+        int count;
+        try {
+            id = Integer.parseInt(commandArguments[0]);
+            count = Integer.parseInt(commandArguments[2]);
+        } catch (NumberFormatException e) {
+            return new CommandResult(CommandResultType.FAILURE, INVALID_ARGUMENTS_ERROR_MESSAGE);
+        }
+        if (count < 1 || count > DocumentSet.getMaximumTopDocuments()) {
+            return new CommandResult(CommandResultType.FAILURE,
+                    INVALID_COUNT_ERROR_MESSAGE_FORMAT.formatted(DocumentSet.getMaximumTopDocuments()));
+        }
+        String[] tag = commandArguments[1].split(VALUE_SEPARATOR, -1);
+        if (tag.length != 2 || tag[0].isEmpty() || tag[1].isEmpty()
+                || tag[1].equals(Tag.UNDEFINED_VALUE_REPRESENTATION)) {
+            return new CommandResult(CommandResultType.FAILURE, INVALID_TAG_ERROR_MESSAGE);
+        }
+
+        DocumentSet documents = documentHandler.getDocumentSet(id);
+        if (documents == null) {
+            return new CommandResult(CommandResultType.FAILURE, DOCUMENT_NOT_FOUND_ERROR_MESSAGE);
+        }
+        documents.getReadLock().lock();
+        try {
+            int[] top = documents.getTopDocuments(tag[0].toLowerCase(Locale.ROOT), tag[1], count);
+            StringBuilder result = new StringBuilder(SUCCESS_MESSAGE_FORMAT.formatted(top.length, commandArguments[1]));
+            for (int document : top) {
+                result.append(DOCUMENT_FORMAT.formatted(documents.getDocumentPath(document),
+                        documents.getDocumentUses(document)));
+            }
+            return new CommandResult(CommandResultType.SUCCESS, result.toString());
+        } finally {
+            documents.getReadLock().unlock();
+        }
+    }
+}
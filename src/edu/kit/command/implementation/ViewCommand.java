@@ -0,0 +1,45 @@
+package edu.kit.command.implementation;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.InteractionCommand;
+import edu.kit.document.TreeSnapshot;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+/**
+ * Represents the command to print a tree snapshot file like the RUN command prints a tree.
+ * The snapshot is memory mapped, so no document set has to be loaded and no tree has to be built.
+ *
+ * @author uqfdp
+ */
+public class ViewCommand implements InteractionCommand {
+    private static final String INVALID_ARGUMENTS_ERROR_MESSAGE = "Invalid argument.";
+    private static final String READ_ERROR_MESSAGE_FORMAT = "Could not read the tree from %s.";
+    private static final String TREE_FORMAT = "%s%n---%n%s";
+
+    @Override
+    public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
+        Path file;
+        try {
+            file = Path.of(commandArguments[0]);
+        } catch (InvalidPathException e) {
+            return new CommandResult(CommandResultType.FAILURE, INVALID_ARGUMENTS_ERROR_MESSAGE);
+        }
+
+        TreeSnapshot snapshot;
+        try {
+            snapshot = TreeSnapshot.open(file);
+        } catch (IOException e) {
+            return new CommandResult(CommandResultType.FAILURE, READ_ERROR_MESSAGE_FORMAT.formatted(file));
+        }
+        String treeValues = snapshot.renderGains();
+        String treeString = snapshot.renderTree();
+        return new CommandResult(CommandResultType.SUCCESS, TREE_FORMAT.formatted(
+                treeValues.substring(0, Math.max(0, treeValues.length() - 1)),
+                treeString.substring(0, Math.max(0, treeString.length() - 1))));
+    }
+}
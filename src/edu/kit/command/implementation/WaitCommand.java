@@ -0,0 +1,64 @@
+package edu.kit.command.implementation;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.InteractionCommand;
+import edu.kit.command.job.Job;
+import edu.kit.command.job.JobHandler;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Represents the command to wait for a background job and print the result of its command.
+ * The job is forgotten once its result was delivered.
+ *
+ * @author uqfdp
+ */
+public class WaitCommand implements InteractionCommand {
+    private static final String INVALID_ARGUMENTS_ERROR_MESSAGE = "Invalid argument.";
+    private static final String JOB_NOT_FOUND_ERROR_MESSAGE = "Job not found.";
+    private static final String JOB_CANCELLED_ERROR_MESSAGE_FORMAT = "Job %d was cancelled.";
+    private static final String JOB_FAILED_ERROR_MESSAGE_FORMAT = "Job %d failed.";
+    private static final String INTERRUPTED_ERROR_MESSAGE_FORMAT = "Waiting for job %d was interrupted.";
+    private final JobHandler jobHandler;
+
+    /**
+     * Constructs a new WaitCommand.
+     *
+     * @param jobHandler the job handler the jobs were submitted to
+     */
+    public WaitCommand(JobHandler jobHandler) {
+        this.jobHandler = jobHandler;
+    }
+
+    @Override
+    public CommandResult execute(DocumentHandler documentHandler, String[] commandArguments) {
+        int id;
+        try {
+            id = Integer.parseInt(commandArguments[0]);
+        } catch (NumberFormatException e) {
+            return new CommandResult(CommandResultType.FAILURE, INVALID_ARGUMENTS_ERROR_MESSAGE);
+        }
+
+        Job job = jobHandler.getJob(id);
+        if (job == null) {
+            return new CommandResult(CommandResultType.FAILURE, JOB_NOT_FOUND_ERROR_MESSAGE);
+        }
+
+        CommandResult result;
+        try {
+            result = job.await();
+        } catch (CancellationException e) {
+            result = new CommandResult(CommandResultType.FAILURE, JOB_CANCELLED_ERROR_MESSAGE_FORMAT.formatted(id));
+        } catch (ExecutionException e) {
+            result = new CommandResult(CommandResultType.FAILURE, JOB_FAILED_ERROR_MESSAGE_FORMAT.formatted(id));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new CommandResult(CommandResultType.FAILURE, INTERRUPTED_ERROR_MESSAGE_FORMAT.formatted(id));
+        }
+        jobHandler.removeJob(id);
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+package edu.kit.command.job;
+
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandResultType;
+import edu.kit.command.CommandType;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Represents a command that is executed in the background.
+ *
+ * @author uqfdp
+ */
+public class Job {
+    private final int id;
+    private final CommandType commandType;
+    private final Future<CommandResult> result;
+
+    /**
+     * Constructs a new Job.
+     *
+     * @param id the id of the job
+     * @param commandType the type of the command the job executes
+     * @param result the pending result of the command
+     */
+    Job(int id, CommandType commandType, Future<CommandResult> result) {
+        this.id = id;
+        this.commandType = commandType;
+        this.result = result;
+    }
+
+    /**
+     * Returns the id of the job.
+     *
+     * @return the id of the job
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the type of the command the job executes.
+     *
+     * @return the type of the command
+     */
+    public CommandType getCommandType() {
+        return commandType;
+    }
+
+    /**
+     * Returns the current status of the job without blocking.
+     *
+     * @return the status of the job
+     */
+    public JobStatus getStatus() {
+        if (result.isCancelled()) {
+            return JobStatus.CANCELLED;
+        }
+        if (!result.isDone()) {
+            return JobStatus.RUNNING;
+        }
+        try {
+            return result.get().getType() == CommandResultType.SUCCESS ? JobStatus.DONE : JobStatus.FAILED;
+        } catch (ExecutionException | InterruptedException e) {
+            return JobStatus.FAILED;
+        }
+    }
+
+    /**
+     * Waits for the command of the job to complete and returns its result.
+     *
+     * @return the result of the command
+     * @throws CancellationException if the job was cancelled
+     * @throws ExecutionException if the command threw an exception
+     * @throws InterruptedException if the waiting thread was interrupted
+     */
+    public CommandResult await() throws ExecutionException, InterruptedException {
+        return result.get();
+    }
+
+    /**
+     * Cancels the job and interrupts the thread executing its command.
+     *
+     * @return true if the job was cancelled, false if it had already completed
+     */
+    public boolean cancel() {
+        return result.cancel(true);
+    }
+}
@@ -0,0 +1,123 @@
+package edu.kit.command.job;
+
+import edu.kit.DocumentHandler;
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandType;
+import edu.kit.command.InteractionCommand;
+import edu.kit.metrics.Metrics;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The JobHandler class executes commands as background jobs and keeps track of them by their ids.
+ * Every job runs on its own daemon thread, so pending jobs do not keep the application alive after it quit.
+ * The latency and the allocations of every job are recorded in the metrics under the type of its command.
+ * Jobs are forgotten once their result was delivered or they were cancelled. Since the results of jobs that are
+ * never waited for would be kept forever, only the {@value #MAXIMUM_FINISHED_JOBS} most recently finished jobs
+ * are kept and older finished jobs are forgotten.
+ *
+ * @author uqfdp
+ */
+public final class JobHandler {
+    private static final String THREAD_NAME_FORMAT = "job-worker-%d";
+    private static final int MAXIMUM_FINISHED_JOBS = 1024;
+    private final Map<Integer, Job> jobs;
+    private final Queue<Integer> finishedJobIds;
+    private final AtomicInteger finishedJobCount;
+    private final AtomicInteger nextJobId;
+    private final ExecutorService executor;
+    private final Metrics metrics;
+
+    /**
+     * Constructs a new JobHandler.
+     *
+     * @param metrics the metrics to record the jobs in
+     */
+    public JobHandler(Metrics metrics) {
+        this.metrics = metrics;
+        this.jobs = new ConcurrentHashMap<>();
+        this.finishedJobIds = new ConcurrentLinkedQueue<>();
+        this.finishedJobCount = new AtomicInteger();
+        this.nextJobId = new AtomicInteger();
+        AtomicInteger nextThreadId = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME_FORMAT.formatted(nextThreadId.getAndIncrement()));
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submits a command to be executed in the background.
+     *
+     * @param commandType the type of the command
+     * @param command the command to execute
+     * @param documentHandler the document handler to execute the command on
+     * @param commandArguments the arguments of the command
+     * @return the id of the submitted job
+     */
+    public int submit(CommandType commandType, InteractionCommand command, DocumentHandler documentHandler,
+                      String[] commandArguments) {
+        int id = nextJobId.getAndIncrement();
+        FutureTask<CommandResult> task = new FutureTask<>(() -> {
+            try {
+                return metrics.record(commandType, () -> command.execute(documentHandler, commandArguments));
+            } finally {
+                retainFinishedJob(id);
+            }
+        });
+        jobs.put(id, new Job(id, commandType, task));
+        executor.execute(task);
+        return id;
+    }
+
+    /**
+     * Remembers a job whose command completed and forgets the oldest finished jobs beyond the maximum.
+     * The job is registered before its command is executed, so it is never forgotten before it is known.
+     *
+     * @param id the id of the finished job
+     */
+    private void retainFinishedJob(int id) {
+        finishedJobIds.add(id);
+        if (finishedJobCount.incrementAndGet() > MAXIMUM_FINISHED_JOBS) {
+            finishedJobCount.decrementAndGet();
+            Integer oldestId = finishedJobIds.poll();
+            if (oldestId != null) {
+                jobs.remove(oldestId);
+            }
+        }
+    }
+
+    /**
+     * Returns the job with the given id.
+     *
+     * @param id the id of the job
+     * @return the job or null if there is no such job
+     */
+    public Job getJob(int id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * Removes the job with the given id, after its result was delivered or it was cancelled.
+     *
+     * @param id the id of the job
+     */
+    public void removeJob(int id) {
+        jobs.remove(id);
+    }
+
+    /**
+     * Cancels all pending jobs and stops accepting new ones.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
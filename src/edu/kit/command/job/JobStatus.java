@@ -0,0 +1,29 @@
+package edu.kit.command.job;
+
+/**
+ * This enum represents the states a background job can be in.
+ *
+ * @author uqfdp
+ */
+public enum JobStatus {
+
+    /**
+     * The job is still executing its command.
+     */
+    RUNNING,
+
+    /**
+     * The command of the job was executed successfully.
+     */
+    DONE,
+
+    /**
+     * The command of the job failed.
+     */
+    FAILED,
+
+    /**
+     * The job was cancelled before its command completed.
+     */
+    CANCELLED
+}
@@ -12,7 +12,7 @@ public abstract class Document {
     private final DocumentType type;
     private final String path;
     private Set<Tag> tags;
-    private int uses;
+    private long uses;
 
     /**
      * Constructs a new Document with the given type, path and number of uses.
@@ -21,7 +21,7 @@ public abstract class Document {
      * @param path the path of the document
      * @param uses the number of uses of the document
      */
-    protected Document(DocumentType type, String path, int uses) {
+    protected Document(DocumentType type, String path, long uses) {
         this.type = type;
         this.path = path;
         this.tags = new LinkedHashSet<>();
@@ -46,6 +46,15 @@ public Set<Tag> getTags() {
         return tags;
     }
 
+    /**
+     * Returns the document type of the document.
+     *
+     * @return the document type of the document
+     */
+    public DocumentType getType() {
+        return type;
+    }
+
     /**
      * Returns the path of the document.
      *
@@ -60,7 +69,7 @@ public String getPath() {
      *
      * @return the number of uses of the document
      */
-    public int getUses() {
+    public long getUses() {
         return uses;
     }
 
@@ -69,7 +78,7 @@ public int getUses() {
      *
      * @param uses the number of uses of the document
      */
-    public void setUses(int uses) {
+    void setUses(long uses) {
         this.uses = uses;
     }
 }
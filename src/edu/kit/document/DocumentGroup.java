@@ -0,0 +1,80 @@
+package edu.kit.document;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * The DocumentGroup class represents all documents of a document set sharing the same tags.
+ * The weight of a group is kept in the columns of its document set, so that information gains
+ * can be computed per group instead of per document. The documents of a group are referenced by their index
+ * in the document set.
+ *
+ * @author uqfdp
+ */
+public class DocumentGroup {
+    private final int index;
+    private final Set<Tag> tags;
+    private int[] documents;
+    private int documentCount;
+
+    /**
+     * Constructs a new DocumentGroup with the given index and tags.
+     *
+     * @param index the index of the group in its document set
+     * @param tags the tags shared by all documents of the group
+     */
+    DocumentGroup(int index, Set<Tag> tags) {
+        this.index = index;
+        this.tags = tags;
+        this.documents = new int[1];
+    }
+
+    /**
+     * Adds a document to the group.
+     *
+     * @param document the index of the document to add
+     */
+    void addDocument(int document) {
+        if (documentCount == documents.length) {
+            documents = Arrays.copyOf(documents, 2 * documentCount);
+        }
+        documents[documentCount++] = document;
+    }
+
+    /**
+     * Returns the index of the group in its document set.
+     *
+     * @return the index of the group
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the tags shared by all documents of the group.
+     *
+     * @return the tags of the group
+     */
+    public Set<Tag> getTags() {
+        return tags;
+    }
+
+    /**
+     * Returns the number of documents of the group.
+     *
+     * @return the number of documents of the group
+     */
+    public int getDocumentCount() {
+        return documentCount;
+    }
+
+    /**
+     * Returns the document with a position in the group.
+     *
+     * @param position the position of the document in the group, in the order the documents were added
+     * @return the index of the document in its document set
+     */
+    public int getDocument(int position) {
+        return documents[position];
+    }
+}
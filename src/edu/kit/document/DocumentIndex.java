@@ -0,0 +1,235 @@
+package edu.kit.document;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * The inverted indexes of a document set, which answer which documents carry a value or have a type.
+ * Since all documents of a group share their tags, the documents are partitioned into cells of one group and
+ * one document type, on which every tag and type predicate is constant. The indexes map every value of every
+ * identifier to its groups and every document type to its cells, so a predicate is evaluated on a bit set of
+ * cells whose size is bounded by the number of distinct tag sets and types instead of the number of documents.
+ * The index only depends on the tags and types, so it stays valid when uses are changed.
+ *
+ * @author uqfdp
+ */
+final class DocumentIndex {
+    private final DocumentSet documents;
+    private final int[] groupCellOffsets;
+    private final int[] groupCells;
+    private final int[] cellDocumentOffsets;
+    private final int[] cellDocuments;
+    private final int[][] cellsByType;
+    private final int[][][] groupsByValue;
+
+    /**
+     * Builds the indexes of a document set.
+     *
+     * @param documents the document set to index
+     */
+    DocumentIndex(DocumentSet documents) {
+        this.documents = documents;
+        int groupCount = documents.getGroups().size();
+        DocumentType[] types = DocumentType.values();
+
+        int[] cellOfGroupType = new int[groupCount * types.length];
+        Arrays.fill(cellOfGroupType, -1);
+        List<Integer> cellKeys = new ArrayList<>();
+        int[] cellOfDocument = new int[documents.getDocumentCount()];
+        for (int document = 0; document < cellOfDocument.length; document++) {
+            int key = documents.getDocumentGroup(document) * types.length + documents.getDocumentType(document).ordinal();
+            if (cellOfGroupType[key] < 0) {
+                cellOfGroupType[key] = cellKeys.size();
+                cellKeys.add(key);
+            }
+            cellOfDocument[document] = cellOfGroupType[key];
+        }
+
+        int cellCount = cellKeys.size();
+        this.cellDocumentOffsets = new int[cellCount + 1];
+        for (int cell : cellOfDocument) {
+            cellDocumentOffsets[cell + 1]++;
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            cellDocumentOffsets[cell + 1] += cellDocumentOffsets[cell];
+        }
+        this.cellDocuments = new int[cellOfDocument.length];
+        int[] cellPositions = Arrays.copyOf(cellDocumentOffsets, cellCount);
+        for (int document = 0; document < cellOfDocument.length; document++) {
+            cellDocuments[cellPositions[cellOfDocument[document]]++] = document;
+        }
+
+        this.groupCellOffsets = new int[groupCount + 1];
+        this.groupCells = new int[cellCount];
+        int position = 0;
+        for (int group = 0; group < groupCount; group++) {
+            groupCellOffsets[group] = position;
+            for (DocumentType type : types) {
+                int cell = cellOfGroupType[group * types.length + type.ordinal()];
+                if (cell >= 0) {
+                    groupCells[position++] = cell;
+                }
+            }
+        }
+        groupCellOffsets[groupCount] = position;
+
+        this.cellsByType = new int[types.length][];
+        for (DocumentType type : types) {
+            cellsByType[type.ordinal()] = IntStream.range(0, cellCount)
+                    .filter(cell -> cellKeys.get(cell) % types.length == type.ordinal())
+                    .toArray();
+        }
+
+        this.groupsByValue = new int[documents.getIdentifierCount()][][];
+        for (int identifier = 0; identifier < groupsByValue.length; identifier++) {
+            groupsByValue[identifier] = getGroupsByValue(identifier, groupCount);
+        }
+    }
+
+    /**
+     * Inverts the value column of an identifier.
+     *
+     * @param identifier the id of the identifier
+     * @param groupCount the number of groups of the document set
+     * @return the ascending groups of every value id of the identifier
+     */
+    private int[][] getGroupsByValue(int identifier, int groupCount) {
+        int valueCount = documents.getValues(identifier).size();
+        int[] valueIds = documents.getValueIds(identifier);
+        List<int[]> additionalValueIds = documents.getAdditionalValueIds(identifier);
+        BitSet[] groupsOfValue = new BitSet[valueCount];
+        for (int value = 0; value < valueCount; value++) {
+            groupsOfValue[value] = new BitSet(groupCount);
+        }
+        for (int group = 0; group < groupCount; group++) {
+            groupsOfValue[valueIds[group]].set(group);
+        }
+        for (int[] groupAndValue : additionalValueIds) {
+            groupsOfValue[groupAndValue[1]].set(groupAndValue[0]);
+        }
+
+        int[][] groups = new int[valueCount][];
+        for (int value = 0; value < valueCount; value++) {
+            groups[value] = groupsOfValue[value].stream().toArray();
+        }
+        return groups;
+    }
+
+    /**
+     * Returns the number of cells of the index.
+     *
+     * @return the number of cells
+     */
+    int getCellCount() {
+        return cellDocumentOffsets.length - 1;
+    }
+
+    /**
+     * Returns the cells of the documents carrying a value of an identifier.
+     * The undefined value selects the documents without the identifier.
+     *
+     * @param identifier the identifier
+     * @param value the value
+     * @return the cells of the documents
+     */
+    BitSet getCellsWithValue(String identifier, String value) {
+        BitSet cells = new BitSet(getCellCount());
+        int identifierId = documents.getIdentifierId(identifier);
+        if (identifierId < 0) {
+            if (value.equals(Tag.UNDEFINED_VALUE_REPRESENTATION)) {
+                cells.set(0, getCellCount());
+            }
+            return cells;
+        }
+        int valueId = value.equals(Tag.UNDEFINED_VALUE_REPRESENTATION)
+                ? DocumentSet.UNDEFINED_VALUE_ID : documents.getValueId(identifierId, value);
+        if (valueId >= 0) {
+            addGroupCells(cells, groupsByValue[identifierId][valueId]);
+        }
+        return cells;
+    }
+
+    /**
+     * Returns the cells of the documents carrying an identifier with any value.
+     *
+     * @param identifier the identifier
+     * @return the cells of the documents
+     */
+    BitSet getCellsWithIdentifier(String identifier) {
+        BitSet cells = new BitSet(getCellCount());
+        int identifierId = documents.getIdentifierId(identifier);
+        if (identifierId < 0) {
+            return cells;
+        }
+        int[][] groups = groupsByValue[identifierId];
+        for (int value = DocumentSet.UNDEFINED_VALUE_ID + 1; value < groups.length; value++) {
+            addGroupCells(cells, groups[value]);
+        }
+        return cells;
+    }
+
+    /**
+     * Returns the cells of the documents of a type.
+     *
+     * @param type the document type
+     * @return the cells of the documents
+     */
+    BitSet getCellsOfType(DocumentType type) {
+        BitSet cells = new BitSet(getCellCount());
+        for (int cell : cellsByType[type.ordinal()]) {
+            cells.set(cell);
+        }
+        return cells;
+    }
+
+    /**
+     * Returns the documents carrying a value of an identifier.
+     *
+     * @param identifierId the id of the identifier
+     * @param valueId the id of the value, which must not be the undefined value
+     * @return the indices of the documents in the document set
+     */
+    int[] getDocumentsWithValue(int identifierId, int valueId) {
+        BitSet cells = new BitSet(getCellCount());
+        addGroupCells(cells, groupsByValue[identifierId][valueId]);
+        return getDocuments(cells);
+    }
+
+    /**
+     * Returns the documents of cells in ascending order of their cells.
+     *
+     * @param cells the cells
+     * @return the indices of the documents in the document set
+     */
+    int[] getDocuments(BitSet cells) {
+        int documentCount = 0;
+        for (int cell = cells.nextSetBit(0); cell >= 0; cell = cells.nextSetBit(cell + 1)) {
+            documentCount += cellDocumentOffsets[cell + 1] - cellDocumentOffsets[cell];
+        }
+        int[] cellDocumentsOfCells = new int[documentCount];
+        int position = 0;
+        for (int cell = cells.nextSetBit(0); cell >= 0; cell = cells.nextSetBit(cell + 1)) {
+            int length = cellDocumentOffsets[cell + 1] - cellDocumentOffsets[cell];
+            System.arraycopy(cellDocuments, cellDocumentOffsets[cell], cellDocumentsOfCells, position, length);
+            position += length;
+        }
+        return cellDocumentsOfCells;
+    }
+
+    /**
+     * Adds the cells of groups to a bit set of cells.
+     *
+     * @param cells the bit set of cells
+     * @param groups the groups
+     */
+    private void addGroupCells(BitSet cells, int[] groups) {
+        for (int group : groups) {
+            for (int position = groupCellOffsets[group]; position < groupCellOffsets[group + 1]; position++) {
+                cells.set(groupCells[position]);
+            }
+        }
+    }
+}
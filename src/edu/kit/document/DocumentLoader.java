@@ -4,6 +4,11 @@
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
 import java.util.LinkedHashSet;
@@ -27,12 +32,14 @@ private DocumentLoader() {
 
     /**
      * Loads documents from the file at the given path.
+     * The loaded documents are grouped by their tags as the last stage of loading.
+     * The tags are normalized into one buffer, so the documents with equal tags share their set and its signature.
      *
      * @param path the path of the file
-     * @return the set of documents or null if the file does not exist or the documents could not be loaded
+     * @return the document set or null if the file does not exist or the documents could not be loaded
      * @throws FileNotFoundException if the file does not exist
      */
-    public static Set<Document> loadDocuments(String path) throws FileNotFoundException {
+    public static DocumentSet loadDocuments(String path) throws FileNotFoundException {
         File documentFile = new File(path);
         if (!documentFile.exists()) {
             return null;
@@ -40,40 +47,31 @@ public static Set<Document> loadDocuments(String path) throws FileNotFoundExcept
 
         Scanner scanner = new Scanner(documentFile);
         Set<Document> documents = new LinkedHashSet<>();
+        Set<String> paths = new HashSet<>();
+        TagNormalizer.Buffer tagBuffer = new TagNormalizer.Buffer();
+        Map<Set<Tag>, String> signaturesOfTags = new IdentityHashMap<>();
+        List<String> signatures = new ArrayList<>();
 
         while (scanner.hasNextLine()) {
-            String rawDocument = scanner.nextLine();
-            String[] documentParts = rawDocument.split(DOCUMENT_PART_SEPARATOR);
-            Document document = createDocument(documentParts);
+            Document document = parseDocument(scanner.nextLine(), tagBuffer);
             if (document == null) {
                 return null;
             }
 
-            if (containsDocumentPath(documents, document.getPath())) {
+            if (!paths.add(document.getPath())) {
                 return null;
             }
 
             documents.add(document);
+            signatures.add(signaturesOfTags.computeIfAbsent(document.getTags(), DocumentSet::getSignature));
         }
 
         scanner.close();
-        return documents;
-    }
-
-    /**
-     * Checks if the set of documents contains a document with the given path.
-     *
-     * @param documents the set of documents
-     * @param path the path of the document
-     * @return true if the set of documents contains a document with the given path, false otherwise
-     */
-    private static boolean containsDocumentPath(Set<Document> documents, String path) {
-        for (Document document : documents) {
-            if (document.getPath().equals(path)) {
-                return true;
-            }
+        try {
+            return new DocumentSet(documents, signatures.toArray(new String[0]));
+        } catch (ArithmeticException e) {
+            return null;
         }
-        return false;
     }
 
     /**
@@ -104,13 +102,35 @@ public static String getFileAsString(String path) {
         return fileContent.substring(0, fileContent.length() - 1);
     }
 
+    /**
+     * Parses a document from a line of a document file.
+     *
+     * @param rawDocument the line of the document file
+     * @return the document with normalized tags or null if the line is invalid
+     */
+    static Document parseDocument(String rawDocument) {
+        return parseDocument(rawDocument, null);
+    }
+
+    /**
+     * Parses a document from a line of a document file, normalizing its tags into a buffer.
+     *
+     * @param rawDocument the line of the document file
+     * @param tagBuffer the buffer of the loader or null to create a new set of tags
+     * @return the document with normalized tags or null if the line is invalid
+     */
+    private static Document parseDocument(String rawDocument, TagNormalizer.Buffer tagBuffer) {
+        return createDocument(rawDocument.split(DOCUMENT_PART_SEPARATOR), tagBuffer);
+    }
+
     /**
      * Creates a document from the given document parts.
      *
      * @param documentParts the document parts
+     * @param tagBuffer the buffer of the loader or null to create a new set of tags
      * @return the document or null if the document parts are invalid
      */
-    private static Document createDocument(String[] documentParts) {
+    private static Document createDocument(String[] documentParts, TagNormalizer.Buffer tagBuffer) {
         if (documentParts.length < MINIMUM_DOCUMENT_PARTS) {
             return null;
         }
@@ -122,9 +142,9 @@ private static Document createDocument(String[] documentParts) {
 
         DocumentType type = DocumentType.fromString(documentParts[1]);
 
-        int uses;
+        long uses;
         try {
-            uses = Integer.parseInt(documentParts[2]);
+            uses = Long.parseLong(documentParts[2]);
         } catch (NumberFormatException e) {
             return null;
         }
@@ -133,6 +153,6 @@ private static Document createDocument(String[] documentParts) {
             return null;
         }
 
-        return DocumentHandler.instance.createDocument(type, path, tags, uses);
+        return DocumentHandler.createDocument(type, path, tags, uses, tagBuffer);
     }
 }
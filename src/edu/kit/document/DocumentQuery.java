@@ -0,0 +1,272 @@
+package edu.kit.document;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A predicate over the tags and types of documents, which is evaluated through the inverted indexes of a set.
+ * The predicate language has the following grammar, keywords ignoring the case:
+ * <pre>
+ * expression := term ("OR" term)*
+ * term       := factor ("AND" factor)*
+ * factor     := "NOT" factor | "(" expression ")" | "type:" type | identifier "=" value | identifier
+ * </pre>
+ * An identifier with a value matches the documents carrying the tag after normalization, the value
+ * {@value Tag#UNDEFINED_VALUE_REPRESENTATION} matches the documents without the identifier and a bare
+ * identifier matches the documents carrying the identifier with any value. Identifiers ignore the case like
+ * loaded tags, values do not.
+ *
+ * @author uqfdp
+ */
+public final class DocumentQuery {
+    private static final String TYPE_PREFIX = "type:";
+    private static final String OR = "OR";
+    private static final String AND = "AND";
+    private static final String NOT = "NOT";
+    private static final String OPENING_PARENTHESIS = "(";
+    private static final String CLOSING_PARENTHESIS = ")";
+    private static final String VALUE_SEPARATOR = "=";
+    private final Expression expression;
+
+    /**
+     * Constructs a new DocumentQuery.
+     *
+     * @param expression the parsed predicate
+     */
+    private DocumentQuery(Expression expression) {
+        this.expression = expression;
+    }
+
+    /**
+     * Parses a predicate.
+     *
+     * @param predicate the parts of the predicate, which are joined by spaces
+     * @return the query or null if the predicate is invalid
+     */
+    public static DocumentQuery parse(String... predicate) {
+        Parser parser = new Parser(tokenize(String.join(" ", predicate)));
+        Expression expression = parser.parseExpression();
+        if (expression == null || parser.hasNext()) {
+            return null;
+        }
+        return new DocumentQuery(expression);
+    }
+
+    /**
+     * Splits a predicate into words and parentheses.
+     *
+     * @param predicate the predicate
+     * @return the tokens of the predicate
+     */
+    private static List<String> tokenize(String predicate) {
+        List<String> tokens = new ArrayList<>();
+        int start = 0;
+        for (int index = 0; index <= predicate.length(); index++) {
+            char character = index < predicate.length() ? predicate.charAt(index) : ' ';
+            if (character != ' ' && character != '(' && character != ')') {
+                continue;
+            }
+            if (start < index) {
+                tokens.add(predicate.substring(start, index));
+            }
+            if (character != ' ') {
+                tokens.add(String.valueOf(character));
+            }
+            start = index + 1;
+        }
+        return tokens;
+    }
+
+    /**
+     * Finds the documents of a set matching the predicate.
+     * The caller has to hold the read lock of the set. The documents are ordered like the documents of a leaf
+     * of the structural tree, by descending uses and then by path.
+     * Every match is ranked by its weight among the distinct weights and by its path among the paths, which are
+     * unique within a set, and the matches are sorted by both ranks packed into one primitive key.
+     *
+     * @param documents the document set
+     * @return the indices of the matching documents in the document set
+     */
+    public int[] find(DocumentSet documents) {
+        DocumentIndex index = documents.getIndex();
+        int[] matches = index.getDocuments(expression.evaluate(index));
+        String[] paths = new String[matches.length];
+        long[] weights = new long[matches.length];
+        for (int match = 0; match < matches.length; match++) {
+            paths[match] = documents.getDocumentPath(matches[match]);
+            weights[match] = documents.getDocumentWeight(matches[match]);
+        }
+        String[] sortedPaths = paths.clone();
+        Arrays.sort(sortedPaths);
+        long[] sortedWeights = weights.clone();
+        Arrays.sort(sortedWeights);
+        int weightCount = removeDuplicates(sortedWeights);
+
+        int[] matchOfPathRank = new int[matches.length];
+        long[] keys = new long[matches.length];
+        for (int match = 0; match < matches.length; match++) {
+            int pathRank = Arrays.binarySearch(sortedPaths, paths[match]);
+            long weightRank = weightCount - 1 - Arrays.binarySearch(sortedWeights, 0, weightCount, weights[match]);
+            matchOfPathRank[pathRank] = matches[match];
+            keys[match] = weightRank << Integer.SIZE | pathRank;
+        }
+        Arrays.sort(keys);
+
+        int[] sorted = new int[matches.length];
+        for (int position = 0; position < matches.length; position++) {
+            sorted[position] = matchOfPathRank[(int) keys[position]];
+        }
+        return sorted;
+    }
+
+    /**
+     * Removes the duplicates of a sorted array by moving its distinct values to its front.
+     *
+     * @param values the sorted values
+     * @return the number of distinct values
+     */
+    private static int removeDuplicates(long[] values) {
+        int count = 0;
+        for (long value : values) {
+            if (count == 0 || values[count - 1] != value) {
+                values[count++] = value;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * A node of a parsed predicate.
+     */
+    @FunctionalInterface
+    private interface Expression {
+
+        /**
+         * Evaluates the predicate on the cells of an index.
+         *
+         * @param index the index of a document set
+         * @return the matching cells
+         */
+        BitSet evaluate(DocumentIndex index);
+    }
+
+    /**
+     * A recursive descent parser of the predicate language.
+     */
+    private static final class Parser {
+        private final List<String> tokens;
+        private int position;
+
+        /**
+         * Constructs a new Parser.
+         *
+         * @param tokens the tokens of the predicate
+         */
+        private Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        /**
+         * Returns whether tokens are left.
+         *
+         * @return true if tokens are left, false otherwise
+         */
+        private boolean hasNext() {
+            return position < tokens.size();
+        }
+
+        /**
+         * Consumes the next token if it is the given keyword.
+         *
+         * @param keyword the keyword
+         * @return true if the keyword was consumed, false otherwise
+         */
+        private boolean accept(String keyword) {
+            if (hasNext() && tokens.get(position).equalsIgnoreCase(keyword)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Parses a disjunction of terms.
+         *
+         * @return the expression or null if it is invalid
+         */
+        private Expression parseExpression() {
+            Expression expression = parseTerm();
+            while (expression != null && accept(OR)) {
+                Expression left = expression;
+                Expression right = parseTerm();
+                expression = right == null ? null : index -> {
+                    BitSet cells = left.evaluate(index);
+                    cells.or(right.evaluate(index));
+                    return cells;
+                };
+            }
+            return expression;
+        }
+
+        /**
+         * Parses a conjunction of factors.
+         *
+         * @return the term or null if it is invalid
+         */
+        private Expression parseTerm() {
+            Expression term = parseFactor();
+            while (term != null && accept(AND)) {
+                Expression left = term;
+                Expression right = parseFactor();
+                term = right == null ? null : index -> {
+                    BitSet cells = left.evaluate(index);
+                    cells.and(right.evaluate(index));
+                    return cells;
+                };
+            }
+            return term;
+        }
+
+        /**
+         * Parses a negation, a parenthesized expression, a type filter or a tag.
+         *
+         * @return the factor or null if it is invalid
+         */
+        private Expression parseFactor() {
+            if (accept(NOT)) {
+                Expression negated = parseFactor();
+                return negated == null ? null : index -> {
+                    BitSet cells = negated.evaluate(index);
+                    cells.flip(0, index.getCellCount());
+                    return cells;
+                };
+            }
+            if (accept(OPENING_PARENTHESIS)) {
+                Expression expression = parseExpression();
+                return accept(CLOSING_PARENTHESIS) ? expression : null;
+            }
+            if (!hasNext() || tokens.get(position).equals(CLOSING_PARENTHESIS)
+                    || tokens.get(position).equalsIgnoreCase(OR) || tokens.get(position).equalsIgnoreCase(AND)) {
+                return null;
+            }
+
+            String token = tokens.get(position++);
+            if (token.regionMatches(true, 0, TYPE_PREFIX, 0, TYPE_PREFIX.length())) {
+                DocumentType type = DocumentType.fromString(token.substring(TYPE_PREFIX.length()));
+                return type == null ? null : index -> index.getCellsOfType(type);
+            }
+            String[] tag = token.split(VALUE_SEPARATOR, -1);
+            String identifier = tag[0].toLowerCase(Locale.ROOT);
+            if (identifier.isEmpty() || tag.length > 2 || tag.length == 2 && tag[1].isEmpty()) {
+                return null;
+            }
+            if (tag.length == 1) {
+                return index -> index.getCellsWithIdentifier(identifier);
+            }
+            return index -> index.getCellsWithValue(identifier, tag[1]);
+        }
+    }
+}
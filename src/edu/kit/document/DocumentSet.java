@@ -0,0 +1,814 @@
+package edu.kit.document;
+
+import edu.kit.util.Uncertainty;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * The DocumentSet class represents a loaded set of documents.
+ * The documents are aggregated into groups of identical tags when the set is created,
+ * so that the cost of computing a structural tree scales with the number of distinct tag sets.
+ * The uses of the groups and the value of every identifier per group are kept in primitive columns,
+ * which are read by the uncertainty kernels.
+ * The accumulated absolute uses of the set are checked to fit into a long, so that every sum of uses over
+ * groups of the set is exact, regardless of the order of summation. The u * log2(u) of the groups are
+ * accumulated with compensated summation.
+ * The set is shared between threads: readers of the columns hold the read lock of the set,
+ * changes of uses hold its write lock. Every change of uses increments the version of the set.
+ * A set can be spilled to a {@link DocumentSetFile}, after which it rejects changes of uses, since they
+ * would be lost. It keeps its columns, so readers that still hold a spilled set read consistent data.
+ * The documents are addressed by their index in the set. They are kept as objects on the heap, or in direct
+ * buffers outside of the heap if the system property {@value #STORE_PROPERTY} is set to {@value #OFF_HEAP_STORE}.
+ * The columns per group are primitive arrays in both cases, which the garbage collector does not have to trace.
+ * The uses of a set count all uses by default. With a half-life, the uses decay exponentially: the set stores a
+ * weight per document, to which uses are added in O(1) relative to a landmark time, and the decayed uses are
+ * derived from the weights by a global factor when they are read, see {@link UsageDecay}. The columns hold
+ * the weights, which build the same trees as the decayed uses, so trees are built without decaying the set.
+ *
+ * @author uqfdp
+ */
+public class DocumentSet {
+    /**
+     * The value id of groups without a tag with the identifier.
+     */
+    public static final int UNDEFINED_VALUE_ID = 0;
+    /**
+     * The system property selecting the store of the documents.
+     */
+    public static final String STORE_PROPERTY = "edu.kit.store";
+    /**
+     * The value of the store property selecting the store outside of the heap.
+     */
+    public static final String OFF_HEAP_STORE = "offheap";
+    /**
+     * The system property setting the maximum number of most used documents per tag, which defaults to
+     * {@value #DEFAULT_TOP_DOCUMENTS}.
+     */
+    public static final String TOP_DOCUMENTS_PROPERTY = "edu.kit.topDocuments";
+    /**
+     * The default maximum number of most used documents per tag.
+     */
+    public static final int DEFAULT_TOP_DOCUMENTS = 10;
+    static final long OBJECT_BYTES = 16;
+    static final long REFERENCE_BYTES = 8;
+    static final long HASH_ENTRY_BYTES = 40;
+    static final long COLLECTION_BYTES = 64;
+    private static final long STRING_BYTES = 40;
+    private static final String SIGNATURE_SEPARATOR = ",";
+    private static final String SPILLED_MESSAGE = "The document set was spilled.";
+    private static final int TOP_DOCUMENTS_SLACK = 2;
+    private static final int MAXIMUM_TOP_DOCUMENTS = Math.max(1,
+            Integer.getInteger(TOP_DOCUMENTS_PROPERTY, DEFAULT_TOP_DOCUMENTS));
+    private final DocumentStore store;
+    private final List<DocumentGroup> groups;
+    private final long[] groupUses;
+    private final double[] groupUsesLog2Uses;
+    private final double[] groupUsesLog2UsesSum;
+    private final double[] groupUsesLog2UsesCompensation;
+    private long accumulatedAbsoluteUses;
+    private final Map<String, Integer> identifierIds;
+    private final List<List<String>> values;
+    private final List<Map<String, Integer>> valueIdsByValue;
+    private final int[][] valueIds;
+    private final List<List<int[]>> additionalValueIds;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long version;
+    private volatile long estimatedBytes = -1;
+    private volatile DocumentIndex index;
+    private final Map<Long, TopDocuments> topDocuments = new ConcurrentHashMap<>();
+    private UsageDecay decay;
+    private boolean spilled;
+
+    /**
+     * Constructs a new DocumentSet and groups the given documents by their tags.
+     *
+     * @param documents the documents of the set
+     * @throws ArithmeticException if the accumulated absolute uses of the documents exceed the range of a long
+     */
+    public DocumentSet(Set<Document> documents) {
+        this(documents, null);
+    }
+
+    /**
+     * Constructs a new DocumentSet and groups the given documents by the given signatures of their tags.
+     *
+     * @param documents the documents of the set
+     * @param signatures the signatures of the tags of the documents in iteration order or null to compute them
+     * @throws ArithmeticException if the accumulated absolute uses of the documents exceed the range of a long
+     */
+    DocumentSet(Set<Document> documents, String[] signatures) {
+        List<Document> documentList = new ArrayList<>(documents);
+        int[] groupOfDocument = new int[documentList.size()];
+        Map<String, DocumentGroup> groupsBySignature = new LinkedHashMap<>();
+        for (int index = 0; index < documentList.size(); index++) {
+            Document document = documentList.get(index);
+            String signature = signatures == null ? getSignature(document.getTags()) : signatures[index];
+            DocumentGroup group = groupsBySignature.computeIfAbsent(signature,
+                    newSignature -> new DocumentGroup(groupsBySignature.size(), document.getTags()));
+            group.addDocument(index);
+            groupOfDocument[index] = group.getIndex();
+        }
+        this.groups = Collections.unmodifiableList(new ArrayList<>(groupsBySignature.values()));
+
+        this.groupUses = new long[groups.size()];
+        this.groupUsesLog2Uses = new double[groups.size()];
+        this.groupUsesLog2UsesSum = new double[groups.size()];
+        this.groupUsesLog2UsesCompensation = new double[groups.size()];
+        for (int index = 0; index < documentList.size(); index++) {
+            long uses = documentList.get(index).getUses();
+            accumulatedAbsoluteUses = Math.addExact(accumulatedAbsoluteUses, Math.absExact(uses));
+            int group = groupOfDocument[index];
+            groupUses[group] += uses;
+            addUsesLog2Uses(group, Uncertainty.usesLog2Uses(uses));
+        }
+
+        this.identifierIds = new LinkedHashMap<>();
+        this.values = new ArrayList<>();
+        this.valueIdsByValue = new ArrayList<>();
+        for (DocumentGroup group : groups) {
+            for (Tag tag : group.getTags()) {
+                if (!identifierIds.containsKey(tag.getIdentifier())) {
+                    identifierIds.put(tag.getIdentifier(), identifierIds.size());
+                    values.add(new ArrayList<>(List.of(Tag.UNDEFINED_VALUE_REPRESENTATION)));
+                    valueIdsByValue.add(new HashMap<>());
+                }
+            }
+        }
+
+        this.valueIds = new int[identifierIds.size()][groups.size()];
+        this.additionalValueIds = new ArrayList<>();
+        for (int identifier = 0; identifier < identifierIds.size(); identifier++) {
+            additionalValueIds.add(new ArrayList<>());
+        }
+        for (DocumentGroup group : groups) {
+            for (Tag tag : group.getTags()) {
+                int identifier = identifierIds.get(tag.getIdentifier());
+                List<String> identifierValues = values.get(identifier);
+                int value = valueIdsByValue.get(identifier).computeIfAbsent(tag.getValue(), newValue -> {
+                    identifierValues.add(newValue);
+                    return identifierValues.size() - 1;
+                });
+                if (valueIds[identifier][group.getIndex()] == UNDEFINED_VALUE_ID) {
+                    valueIds[identifier][group.getIndex()] = value;
+                } else {
+                    additionalValueIds.get(identifier).add(new int[] {group.getIndex(), value});
+                }
+            }
+        }
+
+        this.store = OFF_HEAP_STORE.equalsIgnoreCase(System.getProperty(STORE_PROPERTY))
+                ? new OffHeapDocumentStore(documentList, groupOfDocument)
+                : new HeapDocumentStore(documentList, groupOfDocument);
+    }
+
+    /**
+     * Adds a u * log2(u) to the column of a group with compensated summation.
+     *
+     * @param group the index of the group
+     * @param usesLog2Uses the u * log2(u) to add
+     */
+    private void addUsesLog2Uses(int group, double usesLog2Uses) {
+        groupUsesLog2UsesCompensation[group] += Uncertainty.getSummationError(groupUsesLog2UsesSum[group], usesLog2Uses);
+        groupUsesLog2UsesSum[group] += usesLog2Uses;
+        groupUsesLog2Uses[group] = groupUsesLog2UsesSum[group] + groupUsesLog2UsesCompensation[group];
+    }
+
+    /**
+     * Restores the compensated u * log2(u) columns, the version and the decay of a set read from a file.
+     *
+     * @param usesLog2UsesSum the sums of the u * log2(u) of the groups
+     * @param usesLog2UsesCompensation the compensations of the sums of the u * log2(u) of the groups
+     * @param version the version of the set
+     * @param decay the decay of the uses or null if the set counts all uses
+     * @throws IllegalArgumentException if the columns do not match the groups of the set
+     */
+    void restore(double[] usesLog2UsesSum, double[] usesLog2UsesCompensation, long version, UsageDecay decay) {
+        if (usesLog2UsesSum.length != groups.size() || usesLog2UsesCompensation.length != groups.size()) {
+            throw new IllegalArgumentException();
+        }
+        for (int group = 0; group < groups.size(); group++) {
+            groupUsesLog2UsesSum[group] = usesLog2UsesSum[group];
+            groupUsesLog2UsesCompensation[group] = usesLog2UsesCompensation[group];
+            groupUsesLog2Uses[group] = usesLog2UsesSum[group] + usesLog2UsesCompensation[group];
+        }
+        this.version = version;
+        this.decay = decay;
+    }
+
+    /**
+     * Returns the column of the uncompensated sums of the u * log2(u) of every group.
+     *
+     * @return the sums of the u * log2(u) of the groups indexed by group
+     */
+    double[] getGroupUsesLog2UsesSum() {
+        return groupUsesLog2UsesSum;
+    }
+
+    /**
+     * Returns the column of the compensations of the sums of the u * log2(u) of every group.
+     *
+     * @return the compensations of the groups indexed by group
+     */
+    double[] getGroupUsesLog2UsesCompensation() {
+        return groupUsesLog2UsesCompensation;
+    }
+
+    /**
+     * Returns the normalized signature of the tags of a document.
+     *
+     * @param tags the tags of the document
+     * @return the signature of the tags
+     */
+    static String getSignature(Set<Tag> tags) {
+        return tags.stream()
+                .map(Tag::toString)
+                .sorted()
+                .collect(Collectors.joining(SIGNATURE_SEPARATOR));
+    }
+
+    /**
+     * Returns the number of documents of the set.
+     *
+     * @return the number of documents of the set
+     */
+    public int getDocumentCount() {
+        return store.size();
+    }
+
+    /**
+     * Returns the type of a document of the set.
+     *
+     * @param document the index of the document
+     * @return the type of the document
+     */
+    public DocumentType getDocumentType(int document) {
+        return store.getType(document);
+    }
+
+    /**
+     * Returns the path of a document of the set.
+     *
+     * @param document the index of the document
+     * @return the path of the document
+     */
+    public String getDocumentPath(int document) {
+        return store.getPath(document);
+    }
+
+    /**
+     * Returns the number of uses of a document of the set, decayed to the current time if the uses decay.
+     * The caller has to hold the read lock.
+     *
+     * @param document the index of the document
+     * @return the number of uses of the document
+     */
+    public long getDocumentUses(int document) {
+        long weight = store.getUses(document);
+        return decay == null ? weight : decay.toUses(weight, System.currentTimeMillis());
+    }
+
+    /**
+     * Returns the weight of a document of the set, which is its number of uses unless the uses decay.
+     * Documents are ranked by their weights, which are ordered like their decayed uses.
+     *
+     * @param document the index of the document
+     * @return the weight of the document
+     */
+    long getDocumentWeight(int document) {
+        return store.getUses(document);
+    }
+
+    /**
+     * Returns the index of the group of a document of the set, whose tags are the tags of the document.
+     *
+     * @param document the index of the document
+     * @return the index of the group of the document
+     */
+    public int getDocumentGroup(int document) {
+        return store.getGroup(document);
+    }
+
+    /**
+     * Returns the groups of documents with identical tags.
+     *
+     * @return the groups of the set
+     */
+    public List<DocumentGroup> getGroups() {
+        return groups;
+    }
+
+    /**
+     * Returns the indices of all groups of the set.
+     *
+     * @return the indices of all groups in ascending order
+     */
+    public int[] getAllGroups() {
+        int[] allGroups = new int[groups.size()];
+        for (int group = 0; group < allGroups.length; group++) {
+            allGroups[group] = group;
+        }
+        return allGroups;
+    }
+
+    /**
+     * Returns the column of the accumulated uses of every group, which are weights if the uses decay.
+     *
+     * @return the uses of the groups indexed by group
+     */
+    public long[] getGroupUses() {
+        return groupUses;
+    }
+
+    /**
+     * Returns the column of the accumulated u * log2(u) of the uses u of every group.
+     *
+     * @return the u * log2(u) of the groups indexed by group
+     */
+    public double[] getGroupUsesLog2Uses() {
+        return groupUsesLog2Uses;
+    }
+
+    /**
+     * Returns the number of distinct identifiers of the set.
+     *
+     * @return the number of identifiers, which are numbered from 0
+     */
+    int getIdentifierCount() {
+        return identifierIds.size();
+    }
+
+    /**
+     * Returns the id of an identifier.
+     *
+     * @param identifier the identifier
+     * @return the id of the identifier or -1 if no document of the set carries the identifier
+     */
+    public int getIdentifierId(String identifier) {
+        return identifierIds.getOrDefault(identifier, -1);
+    }
+
+    /**
+     * Returns the values of an identifier indexed by their value id.
+     * The value with the id {@link #UNDEFINED_VALUE_ID} represents the groups without the identifier.
+     *
+     * @param identifierId the id of the identifier
+     * @return the values of the identifier
+     */
+    public List<String> getValues(int identifierId) {
+        return Collections.unmodifiableList(values.get(identifierId));
+    }
+
+    /**
+     * Returns the id of a value of an identifier.
+     *
+     * @param identifierId the id of the identifier
+     * @param value the value
+     * @return the id of the value or -1 if no document of the set carries the value
+     */
+    public int getValueId(int identifierId, String value) {
+        return valueIdsByValue.get(identifierId).getOrDefault(value, -1);
+    }
+
+    /**
+     * Returns the column of the value ids of an identifier for every group.
+     * Groups carrying the identifier more than once hold their first value id in this column.
+     *
+     * @param identifierId the id of the identifier
+     * @return the value ids of the identifier indexed by group
+     */
+    public int[] getValueIds(int identifierId) {
+        return valueIds[identifierId];
+    }
+
+    /**
+     * Returns the further values of groups carrying an identifier more than once.
+     *
+     * @param identifierId the id of the identifier
+     * @return pairs of a group index and a value id
+     */
+    public List<int[]> getAdditionalValueIds(int identifierId) {
+        return Collections.unmodifiableList(additionalValueIds.get(identifierId));
+    }
+
+    /**
+     * Returns the inverted indexes of the set, which are built on the first call.
+     *
+     * @return the inverted indexes of the set
+     */
+    DocumentIndex getIndex() {
+        DocumentIndex documentIndex = index;
+        if (documentIndex == null) {
+            synchronized (this) {
+                documentIndex = index;
+                if (documentIndex == null) {
+                    documentIndex = new DocumentIndex(this);
+                    index = documentIndex;
+                }
+            }
+        }
+        return documentIndex;
+    }
+
+    /**
+     * Returns the maximum number of most used documents per tag, which is set by {@value #TOP_DOCUMENTS_PROPERTY}.
+     *
+     * @return the maximum number of most used documents per tag
+     */
+    public static int getMaximumTopDocuments() {
+        return MAXIMUM_TOP_DOCUMENTS;
+    }
+
+    /**
+     * Returns the most used documents carrying a tag, ordered like the documents of a leaf of the tree.
+     * The most used documents of a tag are selected on the first call for the tag and then kept up to date by
+     * every change of uses, so later calls do not scan the documents. The caller has to hold the read lock.
+     *
+     * @param identifier the identifier of the tag
+     * @param value the value of the tag, which must not be undefined
+     * @param count the maximum number of documents, at most {@link #getMaximumTopDocuments()}
+     * @return the indices of the documents, most used first
+     */
+    public int[] getTopDocuments(String identifier, String value, int count) {
+        int identifierId = getIdentifierId(identifier);
+        int valueId = identifierId < 0 ? -1 : getValueId(identifierId, value);
+        if (valueId < 0) {
+            return new int[0];
+        }
+        TopDocuments top = topDocuments.computeIfAbsent(getTagKey(identifierId, valueId),
+                key -> new TopDocuments(this, getIndex().getDocumentsWithValue(identifierId, valueId),
+                        TOP_DOCUMENTS_SLACK * MAXIMUM_TOP_DOCUMENTS));
+        return top.getTop(this, Math.min(count, MAXIMUM_TOP_DOCUMENTS));
+    }
+
+    /**
+     * Updates the most used documents of the tags of a changed document.
+     *
+     * @param document the index of the changed document
+     * @param uses the new uses of the document
+     */
+    private void updateTopDocuments(int document, long uses) {
+        for (Tag tag : groups.get(store.getGroup(document)).getTags()) {
+            int identifierId = identifierIds.get(tag.getIdentifier());
+            TopDocuments top = topDocuments.get(getTagKey(identifierId,
+                    valueIdsByValue.get(identifierId).get(tag.getValue())));
+            if (top != null) {
+                top.update(this, document, uses);
+            }
+        }
+    }
+
+    /**
+     * Removes the most used documents of the tags of a group, so that they are selected again on their next request.
+     *
+     * @param group the index of the group
+     */
+    private void removeTopDocuments(int group) {
+        for (Tag tag : groups.get(group).getTags()) {
+            int identifierId = identifierIds.get(tag.getIdentifier());
+            topDocuments.remove(getTagKey(identifierId, valueIdsByValue.get(identifierId).get(tag.getValue())));
+        }
+    }
+
+    /**
+     * Returns the key of a tag in the map of the most used documents.
+     *
+     * @param identifierId the id of the identifier
+     * @param valueId the id of the value
+     * @return the key of the tag
+     */
+    private static long getTagKey(int identifierId, int valueId) {
+        return (long) identifierId << Integer.SIZE | valueId;
+    }
+
+    /**
+     * Returns the read lock of the set, which has to be held while the columns or uses of the set are read.
+     *
+     * @return the read lock of the set
+     */
+    public Lock getReadLock() {
+        return lock.readLock();
+    }
+
+    /**
+     * Returns the version of the set, which is incremented by every change of uses.
+     *
+     * @return the version of the set
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the index of the document with the given path.
+     *
+     * @param path the path of the document
+     * @return the index of the document with the path or -1 if there is no such document
+     */
+    public int getDocumentIndex(String path) {
+        return store.indexOf(path);
+    }
+
+    /**
+     * Changes the number of uses of a document of the set and updates the columns of its group.
+     *
+     * @param document the index of the document to change
+     * @param uses the new number of uses of the document
+     * @return the previous number of uses of the document
+     * @throws ArithmeticException if the accumulated absolute uses of the set would exceed the range of a long
+     * @throws IllegalStateException if the set was spilled, so the change has to be applied to the set read back
+     */
+    public long changeUses(int document, long uses) {
+        lock.writeLock().lock();
+        try {
+            if (spilled) {
+                throw new IllegalStateException(SPILLED_MESSAGE);
+            }
+            long time = System.currentTimeMillis();
+            rebaseDecay(time);
+            long weight = toWeight(uses, time);
+            long oldWeight = store.getUses(document);
+            accumulatedAbsoluteUses = Math.addExact(accumulatedAbsoluteUses - Math.abs(oldWeight),
+                    Math.absExact(weight));
+            int group = store.getGroup(document);
+            groupUses[group] += weight - oldWeight;
+            addUsesLog2Uses(group, -Uncertainty.usesLog2Uses(oldWeight));
+            addUsesLog2Uses(group, Uncertainty.usesLog2Uses(weight));
+            store.setUses(document, weight);
+            if (!topDocuments.isEmpty()) {
+                updateTopDocuments(document, weight);
+            }
+            version++;
+            return decay == null ? oldWeight : decay.toUses(oldWeight, time);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Changes the numbers of uses of many documents of the set at once.
+     * Either all changes are applied or, if the accumulated absolute uses would exceed the range of a long,
+     * none. The version of the set is incremented once and the most used documents of the tags of the changed
+     * documents are selected again on their next request.
+     *
+     * @param documents the indices of the distinct documents to change
+     * @param uses the new number of uses of every document
+     * @throws ArithmeticException if the accumulated absolute uses of the set would exceed the range of a long
+     * @throws IllegalStateException if the set was spilled, so the changes have to be applied to the set read back
+     */
+    public void changeUses(int[] documents, long[] uses) {
+        changeUses(documents, uses, false);
+    }
+
+    /**
+     * Adds to the numbers of uses of many documents of the set at once, like {@link #changeUses(int[], long[])}.
+     * The increments are added under the write lock, so concurrent changes of the same documents are not lost.
+     *
+     * @param documents the indices of the distinct documents to change
+     * @param increments the number of uses to add to every document
+     * @throws ArithmeticException if the uses of a document or the accumulated absolute uses of the set would
+     *     exceed the range of a long
+     * @throws IllegalStateException if the set was spilled, so the changes have to be applied to the set read back
+     */
+    public void addUses(int[] documents, long[] increments) {
+        changeUses(documents, increments, true);
+    }
+
+    /**
+     * Changes the numbers of uses of many documents of the set at once.
+     *
+     * @param documents the indices of the distinct documents to change
+     * @param changes the new number of uses or the number of uses to add for every document
+     * @param increments whether the changes are added to the uses
+     * @throws ArithmeticException if the uses would exceed the range of a long
+     * @throws IllegalStateException if the set was spilled
+     */
+    private void changeUses(int[] documents, long[] changes, boolean increments) {
+        lock.writeLock().lock();
+        try {
+            if (spilled) {
+                throw new IllegalStateException(SPILLED_MESSAGE);
+            }
+            long time = System.currentTimeMillis();
+            rebaseDecay(time);
+            long[] uses = new long[documents.length];
+            long newAccumulatedAbsoluteUses = accumulatedAbsoluteUses;
+            for (int change = 0; change < documents.length; change++) {
+                long oldUses = store.getUses(documents[change]);
+                long weight = toWeight(changes[change], time);
+                uses[change] = increments ? Math.addExact(oldUses, weight) : weight;
+                newAccumulatedAbsoluteUses = Math.addExact(newAccumulatedAbsoluteUses - Math.abs(oldUses),
+                        Math.absExact(uses[change]));
+            }
+
+            accumulatedAbsoluteUses = newAccumulatedAbsoluteUses;
+            for (int change = 0; change < documents.length; change++) {
+                long oldUses = store.getUses(documents[change]);
+                int group = store.getGroup(documents[change]);
+                groupUses[group] += uses[change] - oldUses;
+                addUsesLog2Uses(group, -Uncertainty.usesLog2Uses(oldUses));
+                addUsesLog2Uses(group, Uncertainty.usesLog2Uses(uses[change]));
+                store.setUses(documents[change], uses[change]);
+                if (!topDocuments.isEmpty()) {
+                    removeTopDocuments(group);
+                }
+            }
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the half-life of the uses of the set.
+     *
+     * @return the half-life in milliseconds or 0 if the set counts all uses
+     */
+    public long getHalfLife() {
+        lock.readLock().lock();
+        try {
+            return decay == null ? 0 : decay.getHalfLife();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sets the half-life of the uses of the set, starting from the current uses of its documents.
+     * The weights of all documents are rewritten once and the version of the set is incremented.
+     *
+     * @param halfLife the half-life in milliseconds or 0 to count all uses from now on
+     * @throws ArithmeticException if the accumulated weights of the set would exceed the range of a long
+     * @throws IllegalStateException if the set was spilled, so the change has to be applied to the set read back
+     */
+    public void setHalfLife(long halfLife) {
+        lock.writeLock().lock();
+        try {
+            if (spilled) {
+                throw new IllegalStateException(SPILLED_MESSAGE);
+            }
+            long time = System.currentTimeMillis();
+            UsageDecay newDecay = halfLife > 0 ? new UsageDecay(halfLife, time) : null;
+            long[] weights = new long[getDocumentCount()];
+            for (int document = 0; document < weights.length; document++) {
+                long weight = store.getUses(document);
+                if (decay == null) {
+                    weights[document] = newDecay == null ? weight : newDecay.toWeight(weight, time);
+                } else {
+                    weights[document] = newDecay == null
+                            ? decay.toUses(weight, time) : decay.rebase(weight, time);
+                }
+            }
+            setWeights(weights);
+            decay = newDecay;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebases the weights to a new landmark if the landmark of the decay is too old to count uses at a time.
+     * The caller has to hold the write lock.
+     *
+     * @param time the time in milliseconds since the epoch
+     */
+    private void rebaseDecay(long time) {
+        if (decay == null || !decay.needsRebase(time)) {
+            return;
+        }
+        long[] weights = new long[getDocumentCount()];
+        for (int document = 0; document < weights.length; document++) {
+            weights[document] = decay.rebase(store.getUses(document), time);
+        }
+        setWeights(weights);
+        decay = new UsageDecay(decay.getHalfLife(), time);
+    }
+
+    /**
+     * Returns the weight of uses counted at a time.
+     *
+     * @param uses the uses
+     * @param time the time in milliseconds since the epoch
+     * @return the weight of the uses
+     * @throws ArithmeticException if the weight exceeds the range of a long
+     */
+    private long toWeight(long uses, long time) {
+        return decay == null ? uses : decay.toWeight(uses, time);
+    }
+
+    /**
+     * Replaces the weights of all documents and recomputes the columns of the groups.
+     * The caller has to hold the write lock. The most used documents are selected again on their next request.
+     *
+     * @param weights the new weight of every document
+     * @throws ArithmeticException if the accumulated absolute weights would exceed the range of a long
+     */
+    private void setWeights(long[] weights) {
+        long newAccumulatedAbsoluteUses = 0;
+        for (long weight : weights) {
+            newAccumulatedAbsoluteUses = Math.addExact(newAccumulatedAbsoluteUses, Math.absExact(weight));
+        }
+
+        accumulatedAbsoluteUses = newAccumulatedAbsoluteUses;
+        Arrays.fill(groupUses, 0);
+        Arrays.fill(groupUsesLog2UsesSum, 0);
+        Arrays.fill(groupUsesLog2UsesCompensation, 0);
+        for (int document = 0; document < weights.length; document++) {
+            int group = store.getGroup(document);
+            groupUses[group] += weights[document];
+            addUsesLog2Uses(group, Uncertainty.usesLog2Uses(weights[document]));
+            store.setUses(document, weights[document]);
+        }
+        topDocuments.clear();
+        version++;
+    }
+
+    /**
+     * Returns the decay of the uses of the set. The caller has to hold a lock of the set.
+     *
+     * @return the decay or null if the set counts all uses
+     */
+    UsageDecay getDecay() {
+        return decay;
+    }
+
+    /**
+     * Writes the set to a file and marks it as spilled, unless the set is locked by a reader or a change.
+     *
+     * @param file the file to write the set to
+     * @return true if the set was spilled, false if it is in use
+     * @throws IOException if the file cannot be written, the set is not spilled then
+     */
+    public boolean trySpill(Path file) throws IOException {
+        if (!lock.writeLock().tryLock()) {
+            return false;
+        }
+        try {
+            DocumentSetFile.write(this, file);
+            spilled = true;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the estimated number of heap bytes retained by the set.
+     * The estimate covers the documents with their paths and tags, the groups, the columns and the indices,
+     * assuming that no strings or tags are shared between documents. Documents stored outside of the heap
+     * are not included. It is computed once, since changes of uses do not change the size of the set.
+     *
+     * @return the estimated number of bytes of the set
+     */
+    public long getEstimatedBytes() {
+        long bytes = estimatedBytes;
+        if (bytes >= 0) {
+            return bytes;
+        }
+
+        bytes = OBJECT_BYTES + COLLECTION_BYTES * 4 + store.getHeapBytes();
+        for (DocumentGroup group : groups) {
+            bytes += OBJECT_BYTES + 2 * COLLECTION_BYTES + 4L * Double.BYTES
+                    + (long) group.getDocumentCount() * Integer.BYTES + group.getTags().size() * HASH_ENTRY_BYTES;
+        }
+        bytes += (long) valueIds.length * (OBJECT_BYTES + (long) groups.size() * Integer.BYTES);
+        for (int identifier = 0; identifier < values.size(); identifier++) {
+            bytes += 2 * COLLECTION_BYTES + values.get(identifier).size() * (HASH_ENTRY_BYTES + REFERENCE_BYTES);
+            bytes += additionalValueIds.get(identifier).size() * (OBJECT_BYTES + 2L * Integer.BYTES);
+        }
+        estimatedBytes = bytes;
+        return bytes;
+    }
+
+    /**
+     * Returns the number of bytes the documents of the set occupy outside of the heap.
+     *
+     * @return the number of off-heap bytes of the set
+     */
+    public long getOffHeapBytes() {
+        return store.getOffHeapBytes();
+    }
+
+    /**
+     * Returns the estimated number of heap bytes of a string with a one byte encoding.
+     *
+     * @param string the string
+     * @return the estimated number of bytes of the string
+     */
+    static long getStringBytes(String string) {
+        return STRING_BYTES + string.length();
+    }
+}
@@ -0,0 +1,177 @@
+package edu.kit.document;
+
+import edu.kit.document.implementations.AudioDocument;
+import edu.kit.document.implementations.ImageDocument;
+import edu.kit.document.implementations.ProgramDocument;
+import edu.kit.document.implementations.TextDocument;
+import edu.kit.document.implementations.VideoDocument;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class writes document sets to a compact binary file and reads them back.
+ * The distinct tags of the set are written once and referenced by their index from the documents.
+ * The documents keep their order and the tags of their group keep their iteration order, and the compensated
+ * u * log2(u) columns, the version of the set and the decay of its uses are restored exactly, so a set read back
+ * builds the same trees as the set that was written. The documents are written with their weights, which are
+ * their uses unless the uses decay.
+ *
+ * @author uqfdp
+ */
+public final class DocumentSetFile {
+    private static final int MAGIC_NUMBER = 0x46464653;
+    private static final int FORMAT_VERSION = 2;
+    private static final String INVALID_FILE_MESSAGE = "Not a document set file.";
+
+    /**
+     * Private constructor to prevent instantiation because this class is a utility class.
+     */
+    private DocumentSetFile() {
+    }
+
+    /**
+     * Writes a document set to a file, replacing its content.
+     * The caller has to hold a lock of the set, so that its uses do not change while it is written.
+     *
+     * @param documents the document set to write
+     * @param file the file to write the set to
+     * @throws IOException if the file cannot be written
+     */
+    static void write(DocumentSet documents, Path file) throws IOException {
+        Map<List<String>, Integer> tagIds = new LinkedHashMap<>();
+        for (DocumentGroup group : documents.getGroups()) {
+            for (Tag tag : group.getTags()) {
+                tagIds.putIfAbsent(getTagKey(tag), tagIds.size());
+            }
+        }
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            output.writeInt(MAGIC_NUMBER);
+            output.writeInt(FORMAT_VERSION);
+            output.writeLong(documents.getVersion());
+            UsageDecay decay = documents.getDecay();
+            output.writeLong(decay == null ? 0 : decay.getHalfLife());
+            output.writeLong(decay == null ? 0 : decay.getLandmark());
+            output.writeInt(tagIds.size());
+            for (List<String> tag : tagIds.keySet()) {
+                output.writeUTF(tag.get(0));
+                output.writeUTF(tag.get(1));
+            }
+
+            output.writeInt(documents.getDocumentCount());
+            for (int document = 0; document < documents.getDocumentCount(); document++) {
+                Set<Tag> tags = documents.getGroups().get(documents.getDocumentGroup(document)).getTags();
+                output.writeByte(documents.getDocumentType(document).ordinal());
+                output.writeUTF(documents.getDocumentPath(document));
+                output.writeLong(documents.getDocumentWeight(document));
+                output.writeInt(tags.size());
+                for (Tag tag : tags) {
+                    output.writeInt(tagIds.get(getTagKey(tag)));
+                }
+            }
+
+            double[] usesLog2UsesSum = documents.getGroupUsesLog2UsesSum();
+            double[] usesLog2UsesCompensation = documents.getGroupUsesLog2UsesCompensation();
+            output.writeInt(usesLog2UsesSum.length);
+            for (int group = 0; group < usesLog2UsesSum.length; group++) {
+                output.writeDouble(usesLog2UsesSum[group]);
+                output.writeDouble(usesLog2UsesCompensation[group]);
+            }
+        }
+    }
+
+    /**
+     * Reads a document set from a file written by this class.
+     *
+     * @param file the file to read the set from
+     * @return the document set
+     * @throws IOException if the file cannot be read or is not a document set file
+     */
+    public static DocumentSet read(Path file) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != MAGIC_NUMBER || input.readInt() != FORMAT_VERSION) {
+                throw new IOException(INVALID_FILE_MESSAGE);
+            }
+            long version = input.readLong();
+            long halfLife = input.readLong();
+            long landmark = input.readLong();
+            List<Tag> tags = new ArrayList<>();
+            int tagCount = input.readInt();
+            for (int tag = 0; tag < tagCount; tag++) {
+                tags.add(new Tag(input.readUTF(), input.readUTF()));
+            }
+
+            DocumentType[] types = DocumentType.values();
+            Set<Document> documents = new LinkedHashSet<>();
+            int documentCount = input.readInt();
+            for (int document = 0; document < documentCount; document++) {
+                DocumentType type = types[input.readUnsignedByte()];
+                String path = input.readUTF();
+                long uses = input.readLong();
+                Set<Tag> documentTags = new LinkedHashSet<>();
+                int documentTagCount = input.readInt();
+                for (int tag = 0; tag < documentTagCount; tag++) {
+                    documentTags.add(tags.get(input.readInt()));
+                }
+                documents.add(createDocument(type, path, documentTags, uses));
+            }
+
+            int groupCount = input.readInt();
+            double[] usesLog2UsesSum = new double[groupCount];
+            double[] usesLog2UsesCompensation = new double[groupCount];
+            for (int group = 0; group < groupCount; group++) {
+                usesLog2UsesSum[group] = input.readDouble();
+                usesLog2UsesCompensation[group] = input.readDouble();
+            }
+
+            DocumentSet documentSet = new DocumentSet(documents);
+            documentSet.restore(usesLog2UsesSum, usesLog2UsesCompensation, version,
+                    halfLife > 0 ? new UsageDecay(halfLife, landmark) : null);
+            return documentSet;
+        } catch (IndexOutOfBoundsException | IllegalArgumentException | ArithmeticException e) {
+            throw new IOException(INVALID_FILE_MESSAGE, e);
+        }
+    }
+
+    /**
+     * Returns the key of a tag in the tag dictionary of a file.
+     * Tags are keyed by their identifier and value, since distinct tags may share their hash code.
+     *
+     * @param tag the tag
+     * @return the identifier and the value of the tag
+     */
+    private static List<String> getTagKey(Tag tag) {
+        return List.of(tag.getIdentifier(), tag.getValue());
+    }
+
+    /**
+     * Creates a document from its already normalized tags.
+     *
+     * @param type the type of the document
+     * @param path the path of the document
+     * @param tags the normalized tags of the document
+     * @param uses the amount of uses of the document
+     * @return the created document
+     */
+    static Document createDocument(DocumentType type, String path, Set<Tag> tags, long uses) {
+        return switch (type) {
+            case AUDIO -> new AudioDocument(path, tags, uses);
+            case TEXT -> new TextDocument(path, tags, uses);
+            case IMAGE -> new ImageDocument(path, tags, uses);
+            case VIDEO -> new VideoDocument(path, tags, uses);
+            case PROGRAM -> new ProgramDocument(path, tags, uses);
+        };
+    }
+}
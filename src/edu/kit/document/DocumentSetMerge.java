@@ -0,0 +1,131 @@
+package edu.kit.document;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class merges loaded document sets into a new document set by a hash join on the paths of the documents.
+ * A document contained in several sets keeps the type and tags of the first set containing it, and its uses are
+ * combined by a {@link UsesMergePolicy}. The documents keep the order of the sets, followed by the documents
+ * first contained in later sets. The tags are already normalized, so the merged documents share the tag sets of
+ * the groups of their source sets instead of normalizing the tags again, and the signature grouping the tags of
+ * the merged set is computed once per group of a source set instead of once per document. Decaying uses are merged
+ * with their current value, and the merged set counts all uses.
+ *
+ * @author uqfdp
+ */
+public final class DocumentSetMerge {
+    private final UsesMergePolicy policy;
+    private String conflictingPath;
+
+    /**
+     * Constructs a new DocumentSetMerge.
+     *
+     * @param policy the policy combining the uses of documents contained in several sets
+     */
+    public DocumentSetMerge(UsesMergePolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Merges document sets into a new document set.
+     * Every source set is read under its own read lock.
+     *
+     * @param sources the document sets to merge
+     * @return the merged document set or null if the uses of a document conflict under {@link UsesMergePolicy#FAIL}
+     * @throws ArithmeticException if the merged uses exceed the range of a long
+     */
+    public DocumentSet merge(List<DocumentSet> sources) {
+        Map<String, MergedDocument> documentsByPath = new HashMap<>();
+        Map<Set<Tag>, String> signatures = new IdentityHashMap<>();
+        List<MergedDocument> mergedDocuments = new ArrayList<>();
+        for (DocumentSet source : sources) {
+            source.getReadLock().lock();
+            try {
+                for (int document = 0; document < source.getDocumentCount(); document++) {
+                    String path = source.getDocumentPath(document);
+                    long uses = source.getDocumentUses(document);
+                    MergedDocument merged = documentsByPath.get(path);
+                    if (merged == null) {
+                        Set<Tag> tags = source.getGroups().get(source.getDocumentGroup(document)).getTags();
+                        signatures.computeIfAbsent(tags, DocumentSet::getSignature);
+                        merged = new MergedDocument(source.getDocumentType(document), path, tags, uses);
+                        documentsByPath.put(path, merged);
+                        mergedDocuments.add(merged);
+                    } else if (!combineUses(merged, uses)) {
+                        conflictingPath = path;
+                        return null;
+                    }
+                }
+            } finally {
+                source.getReadLock().unlock();
+            }
+        }
+
+        Set<Document> documents = new LinkedHashSet<>();
+        String[] documentSignatures = new String[mergedDocuments.size()];
+        for (MergedDocument merged : mergedDocuments) {
+            documentSignatures[documents.size()] = signatures.get(merged.tags);
+            documents.add(DocumentSetFile.createDocument(merged.type, merged.path, merged.tags, merged.uses));
+        }
+        return new DocumentSet(documents, documentSignatures);
+    }
+
+    /**
+     * Combines the uses of a document already merged with its uses in a further set.
+     *
+     * @param merged the merged document
+     * @param uses the uses of the document in the further set
+     * @return true if the uses were combined, false if they conflict
+     * @throws ArithmeticException if the sum of the uses exceeds the range of a long
+     */
+    private boolean combineUses(MergedDocument merged, long uses) {
+        switch (policy) {
+            case SUM -> merged.uses = Math.addExact(merged.uses, uses);
+            case MAX -> merged.uses = Math.max(merged.uses, uses);
+            default -> {
+                return merged.uses == uses;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the path of the document whose uses conflicted in the last merge.
+     *
+     * @return the path of the conflicting document or null if there was no conflict
+     */
+    public String getConflictingPath() {
+        return conflictingPath;
+    }
+
+    /**
+     * A document of the merged set while the sets are joined.
+     */
+    private static final class MergedDocument {
+        private final DocumentType type;
+        private final String path;
+        private final Set<Tag> tags;
+        private long uses;
+
+        /**
+         * Constructs a new MergedDocument.
+         *
+         * @param type the type of the document
+         * @param path the path of the document
+         * @param tags the normalized tags of the document
+         * @param uses the uses of the document
+         */
+        private MergedDocument(DocumentType type, String path, Set<Tag> tags, long uses) {
+            this.type = type;
+            this.path = path;
+            this.tags = tags;
+            this.uses = uses;
+        }
+    }
+}
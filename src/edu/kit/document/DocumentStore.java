@@ -0,0 +1,79 @@
+package edu.kit.document;
+
+/**
+ * The storage of the documents of a document set, addressed by their index in the set.
+ * Every document belongs to the group of its tags, so the tags of a document are given by the tags of its group.
+ *
+ * @author uqfdp
+ */
+interface DocumentStore {
+
+    /**
+     * Returns the number of documents.
+     *
+     * @return the number of documents
+     */
+    int size();
+
+    /**
+     * Returns the type of a document.
+     *
+     * @param document the index of the document
+     * @return the type of the document
+     */
+    DocumentType getType(int document);
+
+    /**
+     * Returns the path of a document.
+     *
+     * @param document the index of the document
+     * @return the path of the document
+     */
+    String getPath(int document);
+
+    /**
+     * Returns the number of uses of a document.
+     *
+     * @param document the index of the document
+     * @return the number of uses of the document
+     */
+    long getUses(int document);
+
+    /**
+     * Sets the number of uses of a document.
+     *
+     * @param document the index of the document
+     * @param uses the new number of uses of the document
+     */
+    void setUses(int document, long uses);
+
+    /**
+     * Returns the index of the group of a document.
+     *
+     * @param document the index of the document
+     * @return the index of the group of the document
+     */
+    int getGroup(int document);
+
+    /**
+     * Returns the index of the document with a path.
+     *
+     * @param path the path of the document
+     * @return the index of the document or -1 if there is no such document
+     */
+    int indexOf(String path);
+
+    /**
+     * Returns the estimated number of heap bytes retained by the store.
+     *
+     * @return the estimated number of heap bytes
+     */
+    long getHeapBytes();
+
+    /**
+     * Returns the number of bytes the store allocated outside of the heap.
+     *
+     * @return the number of off-heap bytes
+     */
+    long getOffHeapBytes();
+}
@@ -0,0 +1,87 @@
+package edu.kit.document;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The document store keeping the documents as objects on the heap.
+ * The documents are found by their paths through a hash map.
+ *
+ * @author uqfdp
+ */
+class HeapDocumentStore implements DocumentStore {
+    private final List<Document> documents;
+    private final int[] groupOfDocument;
+    private final Map<String, Integer> documentsByPath;
+
+    /**
+     * Constructs a new HeapDocumentStore.
+     *
+     * @param documents the documents in the order of their indices
+     * @param groupOfDocument the index of the group of every document
+     */
+    HeapDocumentStore(List<Document> documents, int[] groupOfDocument) {
+        this.documents = documents;
+        this.groupOfDocument = groupOfDocument;
+        this.documentsByPath = new HashMap<>();
+        for (int document = 0; document < documents.size(); document++) {
+            documentsByPath.put(documents.get(document).getPath(), document);
+        }
+    }
+
+    @Override
+    public int size() {
+        return documents.size();
+    }
+
+    @Override
+    public DocumentType getType(int document) {
+        return documents.get(document).getType();
+    }
+
+    @Override
+    public String getPath(int document) {
+        return documents.get(document).getPath();
+    }
+
+    @Override
+    public long getUses(int document) {
+        return documents.get(document).getUses();
+    }
+
+    @Override
+    public void setUses(int document, long uses) {
+        documents.get(document).setUses(uses);
+    }
+
+    @Override
+    public int getGroup(int document) {
+        return groupOfDocument[document];
+    }
+
+    @Override
+    public int indexOf(String path) {
+        return documentsByPath.getOrDefault(path, -1);
+    }
+
+    @Override
+    public long getHeapBytes() {
+        long bytes = 2 * DocumentSet.COLLECTION_BYTES + (long) groupOfDocument.length * Integer.BYTES
+                + documents.size() * (DocumentSet.HASH_ENTRY_BYTES + DocumentSet.OBJECT_BYTES);
+        for (Document document : documents) {
+            bytes += DocumentSet.OBJECT_BYTES + 4 * DocumentSet.REFERENCE_BYTES
+                    + DocumentSet.getStringBytes(document.getPath()) + DocumentSet.COLLECTION_BYTES;
+            for (Tag tag : document.getTags()) {
+                bytes += DocumentSet.HASH_ENTRY_BYTES + DocumentSet.OBJECT_BYTES + 2 * DocumentSet.REFERENCE_BYTES
+                        + DocumentSet.getStringBytes(tag.getIdentifier()) + DocumentSet.getStringBytes(tag.getValue());
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public long getOffHeapBytes() {
+        return 0;
+    }
+}
@@ -0,0 +1,17 @@
+package edu.kit.document;
+
+/**
+ * The profile of one node of a structural tree.
+ * The times only cover the work of the node itself, the work of its children is profiled by their own nodes.
+ *
+ * @param tagPath the tag path of the node
+ * @param documentCount the number of documents of the node
+ * @param candidateCount the number of candidate identifiers whose information gain was evaluated
+ * @param gainNanoseconds the time spent computing and sorting the information gains
+ * @param subsetNanoseconds the time spent materializing the document groups of the children
+ * @param renderingNanoseconds the time spent formatting the information gains and the sorted documents
+ * @author uqfdp
+ */
+public record NodeProfile(String tagPath, int documentCount, int candidateCount, long gainNanoseconds,
+                          long subsetNanoseconds, long renderingNanoseconds) {
+}
@@ -0,0 +1,190 @@
+package edu.kit.document;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * The document store keeping the documents in direct buffers outside of the heap, so that the garbage collector
+ * does not have to trace an object per document, path and tag set.
+ * The paths are stored as concatenated UTF-8 bytes and only decoded when a path is requested.
+ * The tags of a document are stored as the index of its group, whose tags are kept once per group on the heap.
+ * The documents are found by their paths through an open addressing hash table of document indices, which is
+ * stored in a direct buffer as well and compares the encoded paths in place.
+ * The buffers are released by the garbage collector together with the store.
+ *
+ * @author uqfdp
+ */
+class OffHeapDocumentStore implements DocumentStore {
+    private static final long BUFFER_OBJECT_BYTES = 64;
+    private static final int BUFFER_COUNT = 6;
+    private static final int HASH_MULTIPLIER = 31;
+    private static final int EMPTY_SLOT = 0;
+    private static final String PATHS_TOO_LONG_MESSAGE = "The paths of the documents exceed the maximum buffer size.";
+    private final int size;
+    private final ByteBuffer types;
+    private final LongBuffer uses;
+    private final IntBuffer groups;
+    private final IntBuffer pathOffsets;
+    private final ByteBuffer paths;
+    private final IntBuffer documentsByPath;
+    private final long offHeapBytes;
+
+    /**
+     * Constructs a new OffHeapDocumentStore and copies the documents into direct buffers.
+     * The documents are not referenced by the store afterwards.
+     *
+     * @param documents the documents in the order of their indices
+     * @param groupOfDocument the index of the group of every document
+     * @throws ArithmeticException if the encoded paths exceed the maximum size of a buffer
+     */
+    OffHeapDocumentStore(List<Document> documents, int[] groupOfDocument) {
+        this.size = documents.size();
+        byte[][] encodedPaths = new byte[size][];
+        int pathBytes = 0;
+        for (int document = 0; document < size; document++) {
+            encodedPaths[document] = documents.get(document).getPath().getBytes(StandardCharsets.UTF_8);
+            try {
+                pathBytes = Math.addExact(pathBytes, encodedPaths[document].length);
+            } catch (ArithmeticException e) {
+                throw new ArithmeticException(PATHS_TOO_LONG_MESSAGE);
+            }
+        }
+
+        this.types = ByteBuffer.allocateDirect(size);
+        this.uses = allocate((long) size * Long.BYTES).asLongBuffer();
+        this.groups = allocate((long) size * Integer.BYTES).asIntBuffer();
+        this.pathOffsets = allocate((size + 1L) * Integer.BYTES).asIntBuffer();
+        this.paths = ByteBuffer.allocateDirect(pathBytes);
+        int pathOffset = 0;
+        for (int document = 0; document < size; document++) {
+            types.put(document, (byte) documents.get(document).getType().ordinal());
+            uses.put(document, documents.get(document).getUses());
+            groups.put(document, groupOfDocument[document]);
+            pathOffsets.put(document, pathOffset);
+            paths.put(pathOffset, encodedPaths[document]);
+            pathOffset += encodedPaths[document].length;
+        }
+        pathOffsets.put(size, pathOffset);
+
+        int slots = Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1;
+        this.documentsByPath = allocate((long) slots * Integer.BYTES).asIntBuffer();
+        for (int document = 0; document < size; document++) {
+            int slot = hash(encodedPaths[document]) & (slots - 1);
+            while (documentsByPath.get(slot) != EMPTY_SLOT) {
+                slot = (slot + 1) & (slots - 1);
+            }
+            documentsByPath.put(slot, document + 1);
+        }
+        this.offHeapBytes = size * (1L + Long.BYTES + 2L * Integer.BYTES) + Integer.BYTES + pathBytes
+                + (long) slots * Integer.BYTES;
+    }
+
+    /**
+     * Allocates a direct buffer in the native byte order.
+     *
+     * @param bytes the size of the buffer in bytes
+     * @return the buffer
+     * @throws ArithmeticException if the size exceeds the maximum size of a buffer
+     */
+    private static ByteBuffer allocate(long bytes) {
+        return ByteBuffer.allocateDirect(Math.toIntExact(bytes)).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Returns the hash of an encoded path.
+     *
+     * @param encodedPath the UTF-8 bytes of the path
+     * @return the hash, whose high bits are spread into the low bits
+     */
+    private static int hash(byte[] encodedPath) {
+        int hash = 0;
+        for (byte pathByte : encodedPath) {
+            hash = HASH_MULTIPLIER * hash + pathByte;
+        }
+        return hash ^ (hash >>> Short.SIZE);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public DocumentType getType(int document) {
+        return DocumentType.values()[types.get(document)];
+    }
+
+    @Override
+    public String getPath(int document) {
+        int offset = pathOffsets.get(document);
+        byte[] path = new byte[pathOffsets.get(document + 1) - offset];
+        paths.get(offset, path);
+        return new String(path, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public long getUses(int document) {
+        return uses.get(document);
+    }
+
+    @Override
+    public void setUses(int document, long uses) {
+        this.uses.put(document, uses);
+    }
+
+    @Override
+    public int getGroup(int document) {
+        return groups.get(document);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The path is encoded once and compared with the stored bytes, without decoding the stored paths.
+     */
+    @Override
+    public int indexOf(String path) {
+        byte[] encodedPath = path.getBytes(StandardCharsets.UTF_8);
+        int mask = documentsByPath.capacity() - 1;
+        for (int slot = hash(encodedPath) & mask; documentsByPath.get(slot) != EMPTY_SLOT; slot = (slot + 1) & mask) {
+            int document = documentsByPath.get(slot) - 1;
+            if (hasPath(document, encodedPath)) {
+                return document;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the stored path of a document with an encoded path.
+     *
+     * @param document the index of the document
+     * @param encodedPath the UTF-8 bytes of the path
+     * @return true if the document has the path, false otherwise
+     */
+    private boolean hasPath(int document, byte[] encodedPath) {
+        int offset = pathOffsets.get(document);
+        if (pathOffsets.get(document + 1) - offset != encodedPath.length) {
+            return false;
+        }
+        for (int index = 0; index < encodedPath.length; index++) {
+            if (paths.get(offset + index) != encodedPath[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long getHeapBytes() {
+        return BUFFER_COUNT * BUFFER_OBJECT_BYTES;
+    }
+
+    @Override
+    public long getOffHeapBytes() {
+        return offHeapBytes;
+    }
+}
@@ -8,73 +8,102 @@
 import java.util.ArrayList;
 import java.util.Locale;
 import java.util.LinkedHashSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
 
 
 /**
  * The StructuralTree class represents a structural tree.
  * It provides methods to build a tree and to get the initial documents, tags, tag path and children.
+ * Every node measures the time of its own gain computation, subset materialization and rendering,
+ * which is reported by {@link #getNodeProfiles()} and emitted as a flight recorder event per rendered node.
  *
  * @author uqfdp
  */
 public class StructuralTree {
+    static final String PATH_FORMAT = "%s/%s%n";
+    static final String TAG_REPRESENTATION_FORMAT = "%s=%.2f";
+    static final String TREE_FORMAT = "%s/\"%s\"%n";
     private static final double MINIMUM_INFORMATION_GAIN = 0.001;
-    private static final String PATH_FORMAT = "%s/%s%n";
-    private static final String TAG_REPRESENTATION_FORMAT = "%s=%.2f";
-    private static final String TREE_FORMAT = "%s/\"%s\"%n";
-    private final Set<Document> initialDocuments;
+    private static final double INFORMATION_GAIN_RESOLUTION = 1e9;
+    private static final String CANCELLED_MESSAGE = "Building the tree was cancelled.";
+    private final DocumentSet documents;
+    private final int[] initialGroups;
     private final DocumentHandler documentHandler;
     private final List<StructuralTree> children;
     private final String tagPath;
     private final List<Tag> tags;
+    private final Map<String, Double> informationGains;
+    private List<String> selectedIdentifiers;
+    private int candidateCount;
+    private long gainNanoseconds;
+    private long subsetNanoseconds;
+    private long renderingNanoseconds;
 
     /**
-     * Constructs a new StructuralTree with the given document handler and documents.
+     * Constructs a new StructuralTree with the given document handler and document set.
      *
      * @param documentHandler the document handler
-     * @param documents the documents
+     * @param documents the document set
      */
-    public StructuralTree(DocumentHandler documentHandler, Set<Document> documents) {
-        this(documentHandler, documents, "", new LinkedList<>());
+    public StructuralTree(DocumentHandler documentHandler, DocumentSet documents) {
+        this(documentHandler, documents, documents.getAllGroups(), "", new LinkedList<>());
     }
 
     /**
-     * Constructs a new StructuralTree with the given document handler, documents, tag path and tags.
+     * Constructs a new StructuralTree with the given document handler, document set, groups, tag path and tags.
      *
      * @param documentHandler the document handler
-     * @param documents the documents
+     * @param documents the document set
+     * @param groups the indices of the document groups of this node, in ascending order
      * @param tagPath the tag path
      * @param tags the tags
      */
-    private StructuralTree(DocumentHandler documentHandler, Set<Document> documents, String tagPath, List<Tag> tags) {
-        this.initialDocuments = documents;
+    private StructuralTree(DocumentHandler documentHandler, DocumentSet documents, int[] groups,
+                           String tagPath, List<Tag> tags) {
+        this.documents = documents;
+        this.initialGroups = groups;
         this.documentHandler = documentHandler;
         this.tagPath = tagPath;
         this.tags = tags;
         this.children = new ArrayList<>();
+        this.informationGains = new HashMap<>();
+        this.selectedIdentifiers = List.of();
     }
 
     /**
      * Builds the tree.
+     * Building stops between two nodes if the building thread is interrupted.
      *
      * @return returns a representation tags with the highest information gain
+     * @throws CancellationException if the building thread was interrupted
      */
     public String buildTree() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException(CANCELLED_MESSAGE);
+        }
+        documentHandler.getMetrics().countTreeNodeBuilt();
         StringBuilder tree = new StringBuilder();
 
-        List<String> sortedIdentifier = getSortedIdentifier(initialDocuments);
+        long gainStart = System.nanoTime();
+        List<String> sortedIdentifier = getSortedIdentifier(initialGroups);
+        candidateCount = sortedIdentifier.size();
         List<String> identifierToRemove = new ArrayList<>();
         sortedIdentifier.forEach(identifier -> {
-            double informationGain = documentHandler.getInformationGain(initialDocuments, identifier);
-            if (informationGain < MINIMUM_INFORMATION_GAIN) {
+            if (informationGains.get(identifier) < MINIMUM_INFORMATION_GAIN) {
                 identifierToRemove.add(identifier);
             }
         });
 
         sortedIdentifier.removeAll(identifierToRemove);
+        selectedIdentifiers = sortedIdentifier;
+        gainNanoseconds += System.nanoTime() - gainStart;
         if (sortedIdentifier.isEmpty()) {
             return tree.toString();
         }
 
+        long renderingStart = System.nanoTime();
         for (String identifier : sortedIdentifier) {
             tree.append(PATH_FORMAT.formatted(
                     tagPath,
@@ -82,22 +111,27 @@ public String buildTree() {
                             Locale.ROOT,
                             TAG_REPRESENTATION_FORMAT,
                             identifier,
-                            documentHandler.getInformationGain(initialDocuments, identifier))));
+                            informationGains.get(identifier))));
         }
+        renderingNanoseconds += System.nanoTime() - renderingStart;
 
+        long subsetStart = System.nanoTime();
         String bestIdentifier = sortedIdentifier.get(0);
-        Set<String> possibleValues = Tag.getPossibleTagValues(initialDocuments, bestIdentifier);
+        Set<String> possibleValues = Tag.getPossibleTagValues(documents, initialGroups, bestIdentifier);
         for (String value : possibleValues) {
             Tag tag = new Tag(bestIdentifier, value);
-            Set<Document> documentsWithValue = documentHandler.getDocumentsWithTag(initialDocuments, tag);
-            if (documentsWithValue.isEmpty()) {
+            int[] groupsWithValue = documentHandler.getDocumentsWithTag(documents, initialGroups, tag);
+            if (groupsWithValue.length == 0) {
                 continue;
             }
             List<Tag> copyTags = copyTags();
             copyTags.add(tag);
-            StructuralTree subTree = addChild(tagPath + "/" + tag, documentsWithValue, copyTags);
+            StructuralTree subTree = addChild(tagPath + "/" + tag, groupsWithValue, copyTags);
+            subsetNanoseconds += System.nanoTime() - subsetStart;
             tree.append(subTree.buildTree());
+            subsetStart = System.nanoTime();
         }
+        subsetNanoseconds += System.nanoTime() - subsetStart;
 
         return tree.toString();
     }
@@ -106,12 +140,12 @@ public String buildTree() {
      * Adds a child to the tree.
      *
      * @param path the path
-     * @param documents the documents
+     * @param groups the indices of the document groups
      * @param tags the tags
      * @return the child
      */
-    private StructuralTree addChild(String path, Set<Document> documents, List<Tag> tags) {
-        StructuralTree child = new StructuralTree(documentHandler, documents, path, tags);
+    private StructuralTree addChild(String path, int[] groups, List<Tag> tags) {
+        StructuralTree child = new StructuralTree(documentHandler, documents, groups, path, tags);
         children.add(child);
         return child;
     }
@@ -129,79 +163,204 @@ private List<Tag> copyTags() {
 
     /**
      * Returns a list of sorted identifiers.
-     * @param documents the documents
+     * The information gain of every identifier is computed once and kept for this node.
+     * The information gains are compared on a fixed resolution, so that mathematically equal gains
+     * are ordered by their identifier regardless of rounding errors of the uncertainty kernels.
+     * @param groups the indices of the document groups
      * @return the sorted identifiers
      */
-    private List<String> getSortedIdentifier(Set<Document> documents) {
+    private List<String> getSortedIdentifier(int[] groups) {
         Set<String> identifier = new LinkedHashSet<>();
-        documents.forEach(document -> document.getTags().forEach(tag -> identifier.add(tag.getIdentifier())));
-
+        for (int group : groups) {
+            documents.getGroups().get(group).getTags().forEach(tag -> identifier.add(tag.getIdentifier()));
+        }
 
         List<String> sortedTagList = new ArrayList<>(identifier);
+        double[] gains = documentHandler.getInformationGains(documents, groups, sortedTagList);
+        for (int i = 0; i < gains.length; i++) {
+            informationGains.put(sortedTagList.get(i), gains[i]);
+        }
+
         sortedTagList.sort((id1, id2) -> {
-            double informationGain1 = documentHandler.getInformationGain(documents, id1);
-            double informationGain2 = documentHandler.getInformationGain(documents, id2);
+            long informationGain1 = Math.round(informationGains.get(id1) * INFORMATION_GAIN_RESOLUTION);
+            long informationGain2 = Math.round(informationGains.get(id2) * INFORMATION_GAIN_RESOLUTION);
 
             if (informationGain1 == informationGain2) {
                 return id1.compareTo(id2);
             }
-            return Double.compare(informationGain2, informationGain1);
+            return Long.compare(informationGain2, informationGain1);
         });
         return sortedTagList;
     }
 
     /**
-     * Sorts the children.
+     * Returns the children in the order of the rendered tree.
+     * Since all children share the accumulated uses of this node, they are ordered by their own accumulated uses.
+     * @return the sorted children
      */
-    private void sortChildren() {
-        children.sort((child1, child2) -> {
-            double probability1 = documentHandler.getProbabilityOfTag(child1.getTags().get(child1.getTags().size() - 1), initialDocuments);
-            double probability2 = documentHandler.getProbabilityOfTag(child2.getTags().get(child2.getTags().size() - 1), initialDocuments);
+    List<StructuralTree> getSortedChildren() {
+        List<StructuralTree> sortedChildren = new ArrayList<>(children);
+        sortedChildren.sort((child1, child2) -> {
+            long uses1 = documentHandler.getAccumulatedUses(documents, child1.initialGroups);
+            long uses2 = documentHandler.getAccumulatedUses(documents, child2.initialGroups);
 
-            if (probability1 == probability2) {
+            if (uses1 == uses2) {
                 return child1.getTagPath().compareTo(child2.getTagPath());
             }
-            return Double.compare(probability2, probability1);
+            return Long.compare(uses2, uses1);
         });
+        return sortedChildren;
     }
 
     /**
      * Returns a string representation of the tree.
+     * A flight recorder event with the profile of every node is committed once the node is rendered.
      * @return the string representation of the tree
      */
     @Override
     public String toString() {
+        long renderingStart = System.nanoTime();
+        long childrenNanoseconds = 0;
         StringBuilder builder = new StringBuilder();
-        sortChildren();
-        for (StructuralTree child : children) {
-            builder.append(child.toString());
+        for (StructuralTree child : getSortedChildren()) {
+            long childStart = System.nanoTime();
+            String childString = child.toString();
+            childrenNanoseconds += System.nanoTime() - childStart;
+            builder.append(childString);
         }
         if (children.isEmpty()) {
-            List<Document> sortedDocuments = getSortedDocuments(initialDocuments);
-            for (Document document : sortedDocuments) {
-                builder.append(TREE_FORMAT.formatted(tagPath, document.getPath()));
+            for (int document : getSortedDocuments()) {
+                builder.append(TREE_FORMAT.formatted(tagPath, documents.getDocumentPath(document)));
             }
         }
-        return builder.toString();
+        String tree = builder.toString();
+        renderingNanoseconds += System.nanoTime() - renderingStart - childrenNanoseconds;
+
+        TreeNodeEvent event = new TreeNodeEvent();
+        if (event.shouldCommit()) {
+            event.tagPath = tagPath;
+            event.documentCount = getDocumentCount();
+            event.candidateCount = candidateCount;
+            event.gainDuration = gainNanoseconds;
+            event.subsetDuration = subsetNanoseconds;
+            event.renderingDuration = renderingNanoseconds;
+            event.commit();
+        }
+        return tree;
     }
 
     /**
-     * Returns a list of sorted documents.
-     * @param documents the documents to sort
-     * @return the sorted documents
+     * Returns the profiles of all nodes of the tree in the order of the rendered tree, starting with this node.
+     * The profiles are complete once the tree was built and rendered.
+     * @return the profiles of the nodes
      */
-    private List<Document> getSortedDocuments(Set<Document> documents) {
-        List<Document> sortedDocuments = new ArrayList<>(documents);
-        sortedDocuments.sort((doc1, doc2) -> {
-            double probability1 = documentHandler.getProbabilityOfDocument(doc1, documents);
-            double probability2 = documentHandler.getProbabilityOfDocument(doc2, documents);
+    public List<NodeProfile> getNodeProfiles() {
+        List<NodeProfile> profiles = new ArrayList<>();
+        addNodeProfiles(profiles);
+        return profiles;
+    }
 
-            if (probability1 == probability2) {
-                return doc1.getPath().compareTo(doc2.getPath());
+    /**
+     * Adds the profile of this node followed by the profiles of its descendants.
+     * @param profiles the profiles to add to
+     */
+    private void addNodeProfiles(List<NodeProfile> profiles) {
+        profiles.add(new NodeProfile(tagPath, getDocumentCount(), candidateCount,
+                gainNanoseconds, subsetNanoseconds, renderingNanoseconds));
+        for (StructuralTree child : getSortedChildren()) {
+            child.addNodeProfiles(profiles);
+        }
+    }
+
+    /**
+     * Returns the number of documents in the groups of this node.
+     * @return the number of documents
+     */
+    int getDocumentCount() {
+        int documentCount = 0;
+        for (int group : initialGroups) {
+            documentCount += documents.getGroups().get(group).getDocumentCount();
+        }
+        return documentCount;
+    }
+
+    /**
+     * Returns the sorted documents of this node.
+     * The documents of the groups are only expanded here, when rendering a leaf, and their paths are read
+     * from the document set once per document for sorting.
+     * Since all documents share the same accumulated uses, they are ordered by their uses directly.
+     * @return the indices of the sorted documents in the document set
+     */
+    int[] getSortedDocuments() {
+        int documentCount = getDocumentCount();
+        int[] documentIndices = new int[documentCount];
+        String[] paths = new String[documentCount];
+        long[] uses = new long[documentCount];
+        List<Integer> sortedDocuments = new ArrayList<>(documentCount);
+        for (int group : initialGroups) {
+            DocumentGroup documentGroup = documents.getGroups().get(group);
+            for (int position = 0; position < documentGroup.getDocumentCount(); position++) {
+                int document = documentGroup.getDocument(position);
+                documentIndices[sortedDocuments.size()] = document;
+                paths[sortedDocuments.size()] = documents.getDocumentPath(document);
+                uses[sortedDocuments.size()] = documents.getDocumentWeight(document);
+                sortedDocuments.add(sortedDocuments.size());
+            }
+        }
+        sortedDocuments.sort((doc1, doc2) -> {
+            if (uses[doc1] == uses[doc2]) {
+                return paths[doc1].compareTo(paths[doc2]);
             }
-            return Double.compare(probability2, probability1);
+            return Long.compare(uses[doc2], uses[doc1]);
         });
-        return sortedDocuments;
+
+        int[] sorted = new int[documentCount];
+        for (int position = 0; position < documentCount; position++) {
+            sorted[position] = documentIndices[sortedDocuments.get(position)];
+        }
+        return sorted;
+    }
+
+    /**
+     * Returns the children in the order they were built.
+     * @return the children
+     */
+    List<StructuralTree> getChildren() {
+        return children;
+    }
+
+    /**
+     * Returns the identifiers whose information gain is shown for this node, in descending order of their gain.
+     * The first identifier is the one this node is split by, if it has children.
+     * @return the shown identifiers, empty before the node was built
+     */
+    List<String> getSelectedIdentifiers() {
+        return selectedIdentifiers;
+    }
+
+    /**
+     * Returns the information gain of an identifier computed for this node.
+     * @param identifier the identifier
+     * @return the information gain of the identifier
+     */
+    double getInformationGain(String identifier) {
+        return informationGains.get(identifier);
+    }
+
+    /**
+     * Returns the accumulated uses of the documents of this node.
+     * @return the accumulated uses
+     */
+    long getAccumulatedUses() {
+        return documentHandler.getAccumulatedUses(documents, initialGroups);
+    }
+
+    /**
+     * Returns the document set of the tree.
+     * @return the document set
+     */
+    DocumentSet getDocuments() {
+        return documents;
     }
 
     /**
@@ -87,20 +87,31 @@ public static Set<Tag> getTagsFromArray(String[] rawTags) {
 
     /**
      * This method returns a set of possible tag values for a given identifier.
+     * The values keep their order of first occurrence, the undefined value occurring at the first tag of another
+     * identifier or at the first group without any tag. Once the undefined value occurred, the other tags are only
+     * compared with the identifier.
      *
-     * @param documents the documents to get the possible tag values from
+     * @param documents the document set the groups belong to
+     * @param groups the indices of the groups to get the possible tag values from
      * @param identifier the identifier to get the possible tag values from
      * @return the possible tag values
      */
-    public static Set<String> getPossibleTagValues(Set<Document> documents, String identifier) {
+    public static Set<String> getPossibleTagValues(DocumentSet documents, int[] groups, String identifier) {
         Set<String> possibleValues = new LinkedHashSet<>();
-        for (Document document : documents) {
-            for (Tag tag : document.getTags()) {
+        boolean undefinedOccurred = false;
+        for (int group : groups) {
+            Set<Tag> tags = documents.getGroups().get(group).getTags();
+            if (tags.isEmpty() && !undefinedOccurred) {
+                possibleValues.add(UNDEFINED_VALUE_REPRESENTATION);
+                undefinedOccurred = true;
+            }
+            for (Tag tag : tags) {
                 if (tag.getIdentifier().equals(identifier)) {
                     possibleValues.add(tag.getValue());
-                    continue;
+                } else if (!undefinedOccurred) {
+                    possibleValues.add(UNDEFINED_VALUE_REPRESENTATION);
+                    undefinedOccurred = true;
                 }
-                possibleValues.add(UNDEFINED_VALUE_REPRESENTATION);
             }
         }
         return possibleValues;
@@ -0,0 +1,363 @@
+package edu.kit.document;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * The TagNormalizer class normalizes the raw tags of a document type.
+ * The rules of a document type are compiled once into tables sorted by the identifier they apply to,
+ * so a tag is normalized by a binary search over the identifiers and, for bucketed tags,
+ * a binary search over the upper bounds of the buckets. Numeric values are parsed without exceptions.
+ * The loader normalizes into a reusable {@link Buffer}, so documents with the same normalized tags share one set.
+ *
+ * @author uqfdp
+ */
+public final class TagNormalizer {
+
+    private static final long NOT_A_NUMBER = Long.MIN_VALUE;
+    private static final int RADIX = 10;
+    private static final int HASH_MULTIPLIER = 31;
+    private final String[] sourceIdentifiers;
+    private final String[] targetIdentifiers;
+    private final int[][] bucketMaximums;
+    private final Tag[][] bucketTags;
+    private final Tag[] additionalTags;
+
+    /**
+     * Compiles a new TagNormalizer from the given rules and additional tags.
+     *
+     * @param rules the rules of the document type, at most one per identifier
+     * @param additionalTags the tags every document of the document type carries
+     */
+    public TagNormalizer(Rule[] rules, Tag... additionalTags) {
+        Rule[] sortedRules = rules.clone();
+        Arrays.sort(sortedRules, Comparator.comparing(rule -> rule.sourceIdentifier));
+        this.sourceIdentifiers = new String[sortedRules.length];
+        this.targetIdentifiers = new String[sortedRules.length];
+        this.bucketMaximums = new int[sortedRules.length][];
+        this.bucketTags = new Tag[sortedRules.length][];
+        for (int rule = 0; rule < sortedRules.length; rule++) {
+            sourceIdentifiers[rule] = sortedRules[rule].sourceIdentifier;
+            targetIdentifiers[rule] = sortedRules[rule].targetIdentifier;
+            bucketMaximums[rule] = sortedRules[rule].bucketMaximums;
+            bucketTags[rule] = sortedRules[rule].bucketTags;
+        }
+        this.additionalTags = additionalTags.clone();
+    }
+
+    /**
+     * Returns a rule that renames an identifier and keeps the value.
+     *
+     * @param sourceIdentifier the identifier of the raw tags
+     * @param targetIdentifier the identifier of the normalized tags
+     * @return the rule
+     */
+    public static Rule rename(String sourceIdentifier, String targetIdentifier) {
+        return new Rule(sourceIdentifier, targetIdentifier, null, null);
+    }
+
+    /**
+     * Returns a rule that replaces a numeric value by the first bucket it is smaller than.
+     * Values that are no integers keep their raw tag. The name of a bucket is its lowercase enum name.
+     *
+     * @param sourceIdentifier the identifier of the raw tags
+     * @param targetIdentifier the identifier of the normalized tags
+     * @param buckets the buckets in ascending order of their upper bounds
+     * @param maximum the exclusive upper bound of a bucket, the last bucket takes all larger values
+     * @param <E> the type of the buckets
+     * @return the rule
+     */
+    public static <E extends Enum<E>> Rule bucket(String sourceIdentifier, String targetIdentifier,
+                                                  E[] buckets, ToIntFunction<E> maximum) {
+        int[] bucketMaximums = new int[buckets.length];
+        Tag[] bucketTags = new Tag[buckets.length];
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            bucketMaximums[bucket] = maximum.applyAsInt(buckets[bucket]);
+            bucketTags[bucket] = new Tag(targetIdentifier, buckets[bucket].name().toLowerCase());
+        }
+        return new Rule(sourceIdentifier, targetIdentifier, bucketMaximums, bucketTags);
+    }
+
+    /**
+     * Normalizes the given raw tags.
+     * Tags without a rule are reused, the tags of the buckets are shared by all documents.
+     *
+     * @param tags the raw tags of a document
+     * @return the normalized tags
+     */
+    public Set<Tag> normalize(Set<Tag> tags) {
+        Set<Tag> normalizedTags;
+        if (sourceIdentifiers.length == 0) {
+            normalizedTags = new HashSet<>(tags);
+        } else {
+            normalizedTags = new HashSet<>();
+            for (Tag tag : tags) {
+                normalizedTags.add(normalize(tag));
+            }
+        }
+        Collections.addAll(normalizedTags, additionalTags);
+        return normalizedTags;
+    }
+
+    /**
+     * Normalizes the given raw tags into a buffer and returns the interned normalized tags.
+     * Only the first document with the normalized tags creates their set, all later documents share it.
+     *
+     * @param tags the raw tags of a document
+     * @param buffer the buffer of the loader or null to create a new set
+     * @return the normalized tags, shared with the earlier documents of the buffer that have the same tags
+     */
+    public Set<Tag> normalize(Set<Tag> tags, Buffer buffer) {
+        if (buffer == null) {
+            return normalize(tags);
+        }
+        buffer.clear();
+        for (Tag tag : tags) {
+            buffer.add(sourceIdentifiers.length == 0 ? tag : normalize(tag));
+        }
+        for (Tag tag : additionalTags) {
+            buffer.add(tag);
+        }
+
+        Set<Tag> normalizedTags = buffer.getInternedTags();
+        if (normalizedTags == null) {
+            normalizedTags = normalize(tags);
+            buffer.intern(normalizedTags);
+        }
+        return normalizedTags;
+    }
+
+    /**
+     * Normalizes a single raw tag.
+     *
+     * @param tag the raw tag
+     * @return the normalized tag
+     */
+    private Tag normalize(Tag tag) {
+        int rule = Arrays.binarySearch(sourceIdentifiers, tag.getIdentifier());
+        if (rule < 0) {
+            return tag;
+        }
+        if (bucketMaximums[rule] == null) {
+            return new Tag(targetIdentifiers[rule], tag.getValue());
+        }
+
+        long value = parseInteger(tag.getValue());
+        if (value == NOT_A_NUMBER) {
+            return tag;
+        }
+        return bucketTags[rule][getBucket(bucketMaximums[rule], (int) value)];
+    }
+
+    /**
+     * Returns the index of the first bucket whose upper bound is larger than the given value.
+     *
+     * @param bucketMaximums the ascending upper bounds of the buckets
+     * @param value the value to find the bucket of
+     * @return the index of the bucket, the last bucket if no upper bound is larger
+     */
+    private static int getBucket(int[] bucketMaximums, int value) {
+        int low = 0;
+        int high = bucketMaximums.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (value < bucketMaximums[middle]) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Parses a decimal integer with an optional sign, accepting exactly what {@link Integer#parseInt(String)} accepts.
+     *
+     * @param value the value to parse
+     * @return the parsed integer or {@link #NOT_A_NUMBER} if the value is no integer
+     */
+    private static long parseInteger(String value) {
+        if (value.isEmpty()) {
+            return NOT_A_NUMBER;
+        }
+        int index = 0;
+        boolean negative = false;
+        char first = value.charAt(0);
+        if (first < '0') {
+            if (first == '-') {
+                negative = true;
+            } else if (first != '+') {
+                return NOT_A_NUMBER;
+            }
+            if (value.length() == 1) {
+                return NOT_A_NUMBER;
+            }
+            index++;
+        }
+
+        long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long result = 0;
+        for (; index < value.length(); index++) {
+            int digit = Character.digit(value.charAt(index), RADIX);
+            if (digit < 0) {
+                return NOT_A_NUMBER;
+            }
+            result = result * RADIX + digit;
+            if (result > limit) {
+                return NOT_A_NUMBER;
+            }
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * A reusable buffer the normalized tags of the documents of one loaded file are written into.
+     * It interns the normalized tags of the documents, so equal tags are only held once per file.
+     * Tags are compared by their identifiers and values, since tags with equal hash codes are equal.
+     *
+     * @author uqfdp
+     */
+    public static final class Buffer {
+        private static final int INITIAL_CAPACITY = 8;
+        private final Map<TagKey, Set<Tag>> internedTags = new HashMap<>();
+        private final TagKey key = new TagKey(new Tag[INITIAL_CAPACITY], 0);
+
+        /**
+         * Removes the tags of the previous document from the buffer.
+         */
+        private void clear() {
+            key.size = 0;
+        }
+
+        /**
+         * Adds a normalized tag to the buffer unless an equal tag has been added before, like a set.
+         *
+         * @param tag the normalized tag
+         */
+        private void add(Tag tag) {
+            for (int index = 0; index < key.size; index++) {
+                if (key.tags[index].equals(tag)) {
+                    return;
+                }
+            }
+            if (key.size == key.tags.length) {
+                key.tags = Arrays.copyOf(key.tags, 2 * key.size);
+            }
+            key.tags[key.size++] = tag;
+        }
+
+        /**
+         * Returns the interned set of the tags in the buffer.
+         *
+         * @return the interned set or null if no document had these tags before
+         */
+        private Set<Tag> getInternedTags() {
+            return internedTags.get(key);
+        }
+
+        /**
+         * Interns a set as the set of the tags in the buffer.
+         *
+         * @param tags the set of the tags in the buffer
+         */
+        private void intern(Set<Tag> tags) {
+            internedTags.put(new TagKey(Arrays.copyOf(key.tags, key.size), key.size), tags);
+        }
+    }
+
+    /**
+     * The tags of a buffer as a key, comparing the tags by their identifiers and values regardless of their order.
+     *
+     * @author uqfdp
+     */
+    private static final class TagKey {
+        private Tag[] tags;
+        private int size;
+
+        /**
+         * Constructs a new TagKey.
+         *
+         * @param tags the tags, of which only the first ones are used
+         * @param size the number of tags used
+         */
+        private TagKey(Tag[] tags, int size) {
+            this.tags = tags;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof TagKey other) || other.size != size) {
+                return false;
+            }
+            for (int index = 0; index < size; index++) {
+                if (!other.contains(tags[index])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hashCode = 0;
+            for (int index = 0; index < size; index++) {
+                Tag tag = tags[index];
+                hashCode += tag.getIdentifier().hashCode() * HASH_MULTIPLIER + tag.getValue().hashCode();
+            }
+            return hashCode;
+        }
+
+        /**
+         * Returns whether the key contains a tag with the identifier and the value of a given tag.
+         *
+         * @param tag the tag
+         * @return true if the key contains the identifier and the value, false otherwise
+         */
+        private boolean contains(Tag tag) {
+            for (int index = 0; index < size; index++) {
+                if (tags[index].getIdentifier().equals(tag.getIdentifier())
+                        && tags[index].getValue().equals(tag.getValue())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A normalization rule for the tags with one identifier.
+     *
+     * @author uqfdp
+     */
+    public static final class Rule {
+        private final String sourceIdentifier;
+        private final String targetIdentifier;
+        private final int[] bucketMaximums;
+        private final Tag[] bucketTags;
+
+        /**
+         * Constructs a new Rule.
+         *
+         * @param sourceIdentifier the identifier of the raw tags
+         * @param targetIdentifier the identifier of the normalized tags
+         * @param bucketMaximums the upper bounds of the buckets or null if the value is kept
+         * @param bucketTags the normalized tags of the buckets or null if the value is kept
+         */
+        private Rule(String sourceIdentifier, String targetIdentifier, int[] bucketMaximums, Tag[] bucketTags) {
+            this.sourceIdentifier = sourceIdentifier;
+            this.targetIdentifier = targetIdentifier;
+            this.bucketMaximums = bucketMaximums;
+            this.bucketTags = bucketTags;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package edu.kit.document;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The most used documents carrying one value of one identifier, ordered like the documents of a leaf of the
+ * structural tree, by descending uses and then by path.
+ * At most a fixed capacity of documents is retained, and every document that is not retained ranks below all
+ * retained documents. Changes of uses keep this invariant: a retained document that drops to the end while
+ * other documents are not retained is dropped itself, since one of them may rank above it now, and a document
+ * that rises above the last retained document is retained. Once fewer documents are retained than requested
+ * although more carry the value, the documents are selected again from all documents with the value.
+ *
+ * @author uqfdp
+ */
+final class TopDocuments {
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::uses).reversed()
+            .thenComparing(Entry::path);
+    private final int capacity;
+    private final int[] documentsWithValue;
+    private final TreeSet<Entry> ranking;
+    private final Map<Integer, Entry> retained;
+
+    /**
+     * Constructs new TopDocuments and selects the retained documents.
+     *
+     * @param documents the document set
+     * @param documentsWithValue the indices of all documents carrying the value
+     * @param capacity the maximum number of retained documents
+     */
+    TopDocuments(DocumentSet documents, int[] documentsWithValue, int capacity) {
+        this.capacity = capacity;
+        this.documentsWithValue = documentsWithValue;
+        this.ranking = new TreeSet<>(RANKING);
+        this.retained = new HashMap<>();
+        select(documents);
+    }
+
+    /**
+     * Selects the retained documents from all documents carrying the value.
+     *
+     * @param documents the document set
+     */
+    private void select(DocumentSet documents) {
+        ranking.clear();
+        retained.clear();
+        for (int document : documentsWithValue) {
+            Entry entry = new Entry(documents.getDocumentWeight(document), documents.getDocumentPath(document),
+                    document);
+            if (ranking.size() == capacity) {
+                if (RANKING.compare(entry, ranking.last()) >= 0) {
+                    continue;
+                }
+                retained.remove(ranking.pollLast().document());
+            }
+            ranking.add(entry);
+            retained.put(document, entry);
+        }
+    }
+
+    /**
+     * Updates the retained documents after the uses of a document carrying the value changed.
+     * The caller has to hold the write lock of the document set.
+     *
+     * @param documents the document set
+     * @param document the index of the changed document
+     * @param uses the new uses of the document
+     */
+    synchronized void update(DocumentSet documents, int document, long uses) {
+        Entry oldEntry = retained.remove(document);
+        Entry entry = new Entry(uses, oldEntry == null ? documents.getDocumentPath(document) : oldEntry.path(),
+                document);
+        if (oldEntry != null) {
+            ranking.remove(oldEntry);
+        }
+        boolean othersOutside = ranking.size() + 1 < documentsWithValue.length;
+        boolean belowRetained = ranking.isEmpty() || RANKING.compare(entry, ranking.last()) > 0;
+        if (belowRetained && (othersOutside || ranking.size() == capacity)) {
+            return;
+        }
+        ranking.add(entry);
+        retained.put(document, entry);
+        if (ranking.size() > capacity) {
+            retained.remove(ranking.pollLast().document());
+        }
+    }
+
+    /**
+     * Returns the most used documents carrying the value.
+     * The caller has to hold the read lock of the document set.
+     *
+     * @param documents the document set
+     * @param count the maximum number of documents, at most the capacity
+     * @return the indices of the documents, most used first
+     */
+    synchronized int[] getTop(DocumentSet documents, int count) {
+        int topCount = Math.min(count, documentsWithValue.length);
+        if (ranking.size() < topCount) {
+            select(documents);
+        }
+        int[] top = new int[topCount];
+        Iterator<Entry> entries = ranking.iterator();
+        for (int position = 0; position < topCount; position++) {
+            top[position] = entries.next().document();
+        }
+        return top;
+    }
+
+    /**
+     * A retained document with the uses and the path it is ranked by.
+     *
+     * @param uses the uses of the document
+     * @param path the path of the document
+     * @param document the index of the document in the document set
+     */
+    private record Entry(long uses, String path, int document) {
+    }
+}
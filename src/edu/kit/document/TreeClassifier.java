@@ -0,0 +1,220 @@
+package edu.kit.document;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A structural tree compiled for placing new documents into its folders.
+ * The split identifiers and the values of the edges are replaced by dense ids when the classifier is compiled,
+ * so every node holds a lookup table from the value id of its split identifier to the child with that value.
+ * A document is classified by resolving the value ids of its normalized tags once and walking the lookup
+ * tables from the root, a document with a value the tree does not know stays in the node of the split.
+ * Documents that miss a split identifier follow the edge of the undefined value like in the tree.
+ *
+ * <p>A classifier is immutable and may be used by many threads at once.
+ *
+ * @author uqfdp
+ */
+public final class TreeClassifier {
+    private static final int NO_NODE = -1;
+    private static final int UNKNOWN_VALUE = -1;
+    private static final int UNDEFINED_VALUE = 0;
+    private final Map<String, Integer> identifierIds;
+    private final List<Map<String, Integer>> valueIds;
+    private final int[] splitIdentifiers;
+    private final int[][] childTables;
+    private final String[] tagPaths;
+
+    /**
+     * Compiles a new TreeClassifier from the nodes of a tree in pre-order.
+     *
+     * @param parents the parent of every node, -1 for the root
+     * @param edgeValues the value of the edge from the parent to every node, null for the root
+     * @param splitIdentifiers the identifier every node is split by, null for the leaves
+     */
+    private TreeClassifier(List<Integer> parents, List<String> edgeValues, List<String> splitIdentifiers) {
+        int nodeCount = parents.size();
+        this.identifierIds = new HashMap<>();
+        this.valueIds = new ArrayList<>();
+        this.splitIdentifiers = new int[nodeCount];
+        this.childTables = new int[nodeCount][];
+        this.tagPaths = new String[nodeCount];
+
+        for (int node = 0; node < nodeCount; node++) {
+            String splitIdentifier = splitIdentifiers.get(node);
+            this.splitIdentifiers[node] = splitIdentifier == null ? NO_NODE
+                    : identifierIds.computeIfAbsent(splitIdentifier, identifier -> addIdentifier());
+            int parent = parents.get(node);
+            if (parent == NO_NODE) {
+                tagPaths[node] = "";
+                continue;
+            }
+            Map<String, Integer> parentValueIds = valueIds.get(this.splitIdentifiers[parent]);
+            parentValueIds.computeIfAbsent(edgeValues.get(node), value -> parentValueIds.size());
+            tagPaths[node] = tagPaths[parent] + "/"
+                    + new Tag(splitIdentifiers.get(parent), edgeValues.get(node));
+        }
+
+        for (int node = 0; node < nodeCount; node++) {
+            int splitIdentifier = this.splitIdentifiers[node];
+            childTables[node] = new int[splitIdentifier == NO_NODE ? 0 : valueIds.get(splitIdentifier).size()];
+            Arrays.fill(childTables[node], NO_NODE);
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            int parent = parents.get(node);
+            if (parent != NO_NODE) {
+                childTables[parent][valueIds.get(this.splitIdentifiers[parent]).get(edgeValues.get(node))] = node;
+            }
+        }
+    }
+
+    /**
+     * Compiles a classifier from a built tree.
+     * The caller has to hold the read lock of the document set of the tree.
+     *
+     * @param tree the root of the built tree
+     * @return the classifier
+     */
+    public static TreeClassifier compile(StructuralTree tree) {
+        List<Integer> parents = new ArrayList<>();
+        List<String> edgeValues = new ArrayList<>();
+        List<String> splitIdentifiers = new ArrayList<>();
+        addNodes(tree, NO_NODE, parents, edgeValues, splitIdentifiers);
+        return new TreeClassifier(parents, edgeValues, splitIdentifiers);
+    }
+
+    /**
+     * Compiles a classifier from a tree snapshot.
+     *
+     * @param snapshot the tree snapshot
+     * @return the classifier
+     */
+    public static TreeClassifier compile(TreeSnapshot snapshot) {
+        int nodeCount = snapshot.getNodeCount();
+        List<Integer> parents = new ArrayList<>(nodeCount);
+        List<String> edgeValues = new ArrayList<>(nodeCount);
+        List<String> splitIdentifiers = new ArrayList<>(nodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            parents.add(snapshot.getParent(node));
+            edgeValues.add(snapshot.getEdgeValue(node));
+            splitIdentifiers.add(snapshot.getSplitIdentifier(node));
+        }
+        return new TreeClassifier(parents, edgeValues, splitIdentifiers);
+    }
+
+    /**
+     * Adds a node and its descendants in pre-order.
+     *
+     * @param node the node to add
+     * @param parent the id of the parent of the node
+     * @param parents the parents of the added nodes
+     * @param edgeValues the values of the edges to the added nodes
+     * @param splitIdentifiers the split identifiers of the added nodes
+     */
+    private static void addNodes(StructuralTree node, int parent, List<Integer> parents, List<String> edgeValues,
+                                 List<String> splitIdentifiers) {
+        int id = parents.size();
+        List<Tag> tags = node.getTags();
+        List<StructuralTree> children = node.getChildren();
+        parents.add(parent);
+        edgeValues.add(tags.isEmpty() ? null : tags.get(tags.size() - 1).getValue());
+        splitIdentifiers.add(children.isEmpty() ? null : node.getSelectedIdentifiers().get(0));
+        for (StructuralTree child : children) {
+            addNodes(child, id, parents, edgeValues, splitIdentifiers);
+        }
+    }
+
+    /**
+     * Adds the value ids of a new split identifier, the undefined value always having the id 0.
+     *
+     * @return the id of the new split identifier
+     */
+    private int addIdentifier() {
+        Map<String, Integer> identifierValueIds = new HashMap<>();
+        identifierValueIds.put(Tag.UNDEFINED_VALUE_REPRESENTATION, UNDEFINED_VALUE);
+        valueIds.add(identifierValueIds);
+        return valueIds.size() - 1;
+    }
+
+    /**
+     * Classifies a document.
+     *
+     * @param document the document with normalized tags
+     * @return the tag path of the folder of the document, empty for the root
+     */
+    public String classify(Document document) {
+        return tagPaths[classify(document, new int[valueIds.size()])];
+    }
+
+    /**
+     * Classifies a document given as a line of a document file.
+     * The tags are normalized like the tags of a loaded document of the same type.
+     *
+     * @param rawDocument the line of the document file
+     * @return the tag path of the folder of the document, empty for the root, or null if the line is invalid
+     */
+    public String classify(String rawDocument) {
+        Document document = DocumentLoader.parseDocument(rawDocument);
+        return document == null ? null : classify(document);
+    }
+
+    /**
+     * Classifies a batch of documents given as lines of a document file.
+     *
+     * @param rawDocuments the lines of the document file
+     * @return the tag paths of the folders of the documents in the order of the lines,
+     *     null for every invalid line
+     */
+    public String[] classifyAll(List<String> rawDocuments) {
+        String[] tagPathsOfDocuments = new String[rawDocuments.size()];
+        int[] documentValues = new int[valueIds.size()];
+        for (int line = 0; line < tagPathsOfDocuments.length; line++) {
+            Document document = DocumentLoader.parseDocument(rawDocuments.get(line));
+            tagPathsOfDocuments[line] = document == null ? null : tagPaths[classify(document, documentValues)];
+        }
+        return tagPathsOfDocuments;
+    }
+
+    /**
+     * Lazily classifies a stream of documents given as lines of a document file.
+     *
+     * @param rawDocuments the lines of the document file
+     * @return the tag paths of the folders of the documents in the order of the lines,
+     *     null for every invalid line
+     */
+    public Stream<String> classifyAll(Stream<String> rawDocuments) {
+        return rawDocuments.map(this::classify);
+    }
+
+    /**
+     * Walks the lookup tables from the root to the folder of a document.
+     *
+     * @param document the document with normalized tags
+     * @param documentValues the buffer for the value ids of the document, one per split identifier
+     * @return the node of the folder of the document
+     */
+    private int classify(Document document, int[] documentValues) {
+        Arrays.fill(documentValues, UNDEFINED_VALUE);
+        for (Tag tag : document.getTags()) {
+            Integer identifier = identifierIds.get(tag.getIdentifier());
+            if (identifier != null) {
+                documentValues[identifier] = valueIds.get(identifier).getOrDefault(tag.getValue(), UNKNOWN_VALUE);
+            }
+        }
+
+        int node = 0;
+        while (splitIdentifiers[node] != NO_NODE) {
+            int value = documentValues[splitIdentifiers[node]];
+            int child = value == UNKNOWN_VALUE ? NO_NODE : childTables[node][value];
+            if (child == NO_NODE) {
+                break;
+            }
+            node = child;
+        }
+        return node;
+    }
+}
@@ -0,0 +1,44 @@
+package edu.kit.document;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The flight recorder event of one rendered node of a structural tree.
+ * It carries the same values as the {@link NodeProfile} of the node, so slow trees can be analyzed
+ * in a flight recording without the EXPLAIN command.
+ *
+ * @author uqfdp
+ */
+@Name("edu.kit.TreeNode")
+@Label("Tree Node")
+@Category("FlawlessFileFacilitator")
+@Description("A node of a structural tree and the time spent on its own work")
+@StackTrace(false)
+class TreeNodeEvent extends Event {
+    @Label("Tag Path")
+    String tagPath;
+
+    @Label("Documents")
+    int documentCount;
+
+    @Label("Candidate Identifiers")
+    int candidateCount;
+
+    @Label("Gain Computation")
+    @Timespan(Timespan.NANOSECONDS)
+    long gainDuration;
+
+    @Label("Subset Materialization")
+    @Timespan(Timespan.NANOSECONDS)
+    long subsetDuration;
+
+    @Label("Rendering")
+    @Timespan(Timespan.NANOSECONDS)
+    long renderingDuration;
+}
@@ -0,0 +1,729 @@
+package edu.kit.document;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A built structural tree persisted in a compact binary file, which is read through a memory mapping.
+ * Opening a snapshot only maps the file and reads its header, the nodes, edges, gains and documents are read
+ * from the mapping on access, so several processes can share the same layout without building the tree.
+ *
+ * <p>The file starts with a header of ints: a magic number, the format version, the number of nodes, strings,
+ * gains and leaf documents and the offsets of the sections. The sections are the string table (the offsets
+ * of the UTF-8 encoded strings followed by their bytes), the node table with one fixed size record per node,
+ * the child edges in the order the tree was built, the child edges in the order of the rendered tree, the
+ * cached information gains as pairs of an identifier and a gain and the leaf documents as pairs of a path
+ * and the uses, which are the weights of a set with decaying uses. The nodes are numbered in pre-order of the
+ * built tree, the root being node 0.
+ *
+ * <p>The whole file is validated when it is opened: the sections have to follow each other without gaps up to
+ * the end of the file, the string offsets have to ascend, every node has to reference strings, edges, gains and
+ * leaf documents within their sections, the children of a node have to follow it in pre-order with the node as
+ * their parent, and every node but the root has to be the child of exactly one node in both edge orders.
+ * A damaged or foreign file is rejected with an {@link IOException}, so the accessors never read outside of it.
+ *
+ * @author uqfdp
+ */
+public final class TreeSnapshot {
+    private static final int MAGIC_NUMBER = 0x46464654;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_INTS = 13;
+    private static final int HEADER_BYTES = HEADER_INTS * Integer.BYTES;
+    private static final int NODE_INTS = 12;
+    private static final int NODE_BYTES = NODE_INTS * Integer.BYTES + Long.BYTES;
+    private static final int GAIN_BYTES = Integer.BYTES + Double.BYTES;
+    private static final int DOCUMENT_BYTES = Integer.BYTES + Long.BYTES;
+    private static final int PARENT = 0;
+    private static final int EDGE_IDENTIFIER = 1;
+    private static final int EDGE_VALUE = 2;
+    private static final int SPLIT_IDENTIFIER = 3;
+    private static final int FIRST_BUILD_CHILD = 4;
+    private static final int FIRST_RENDER_CHILD = 5;
+    private static final int CHILD_COUNT = 6;
+    private static final int FIRST_GAIN = 7;
+    private static final int GAIN_COUNT = 8;
+    private static final int FIRST_LEAF_DOCUMENT = 9;
+    private static final int LEAF_DOCUMENT_COUNT = 10;
+    private static final int DOCUMENT_COUNT = 11;
+    private static final int NO_NODE = -1;
+    private static final String INVALID_FILE_MESSAGE = "Not a tree snapshot file.";
+    private static final String FILE_TOO_LARGE_MESSAGE = "The tree snapshot exceeds the maximum mapping size.";
+    private final ByteBuffer snapshot;
+    private final int nodeCount;
+    private final int stringCount;
+    private final int gainCount;
+    private final int documentCount;
+    private final int stringOffsetsPosition;
+    private final int stringBytesPosition;
+    private final int nodesPosition;
+    private final int buildEdgesPosition;
+    private final int renderEdgesPosition;
+    private final int gainsPosition;
+    private final int documentsPosition;
+
+    /**
+     * Constructs a new TreeSnapshot on a mapped snapshot file and validates the file.
+     *
+     * @param snapshot the mapped snapshot file
+     * @throws IOException if the file is not a valid tree snapshot file
+     */
+    private TreeSnapshot(ByteBuffer snapshot) throws IOException {
+        if (snapshot.capacity() < HEADER_BYTES || snapshot.getInt(0) != MAGIC_NUMBER
+                || snapshot.getInt(Integer.BYTES) != FORMAT_VERSION) {
+            throw new IOException(INVALID_FILE_MESSAGE);
+        }
+        this.snapshot = snapshot;
+        this.nodeCount = getHeaderInt(2);
+        this.stringCount = getHeaderInt(3);
+        this.gainCount = getHeaderInt(4);
+        this.documentCount = getHeaderInt(5);
+        this.stringOffsetsPosition = getHeaderInt(6);
+        this.stringBytesPosition = getHeaderInt(7);
+        this.nodesPosition = getHeaderInt(8);
+        this.buildEdgesPosition = getHeaderInt(9);
+        this.renderEdgesPosition = getHeaderInt(10);
+        this.gainsPosition = getHeaderInt(11);
+        this.documentsPosition = getHeaderInt(12);
+        validateSections();
+        validateStrings();
+        validateNodes();
+        validateEdges(buildEdgesPosition, FIRST_BUILD_CHILD);
+        validateEdges(renderEdgesPosition, FIRST_RENDER_CHILD);
+        for (int gain = 0; gain < gainCount; gain++) {
+            validateStringId(snapshot.getInt(gainsPosition + gain * GAIN_BYTES), false);
+        }
+        for (int document = 0; document < documentCount; document++) {
+            validateStringId(snapshot.getInt(documentsPosition + document * DOCUMENT_BYTES), false);
+        }
+    }
+
+    /**
+     * Validates the counts of the header and that the sections follow each other up to the end of the file.
+     * The string bytes are validated with the string offsets.
+     *
+     * @throws IOException if a count is negative or a section is not where the previous section ends
+     */
+    private void validateSections() throws IOException {
+        if (nodeCount < 1 || stringCount < 0 || gainCount < 0 || documentCount < 0) {
+            throw new IOException(INVALID_FILE_MESSAGE);
+        }
+        validatePosition(HEADER_BYTES, stringOffsetsPosition);
+        validatePosition(stringOffsetsPosition + (stringCount + 1L) * Integer.BYTES, stringBytesPosition);
+        validatePosition(nodesPosition + (long) nodeCount * NODE_BYTES, buildEdgesPosition);
+        validatePosition(buildEdgesPosition + (nodeCount - 1L) * Integer.BYTES, renderEdgesPosition);
+        validatePosition(renderEdgesPosition + (nodeCount - 1L) * Integer.BYTES, gainsPosition);
+        validatePosition(gainsPosition + (long) gainCount * GAIN_BYTES, documentsPosition);
+        validatePosition(documentsPosition + (long) documentCount * DOCUMENT_BYTES, snapshot.capacity());
+    }
+
+    /**
+     * Validates that the string offsets start at 0, ascend and end where the node table starts.
+     *
+     * @throws IOException if an offset is out of order or outside of the string bytes
+     */
+    private void validateStrings() throws IOException {
+        if (nodesPosition < stringBytesPosition || snapshot.getInt(stringOffsetsPosition) != 0) {
+            throw new IOException(INVALID_FILE_MESSAGE);
+        }
+        for (int id = 0; id < stringCount; id++) {
+            if (snapshot.getInt(stringOffsetsPosition + (id + 1) * Integer.BYTES)
+                    < snapshot.getInt(stringOffsetsPosition + id * Integer.BYTES)) {
+                throw new IOException(INVALID_FILE_MESSAGE);
+            }
+        }
+        validatePosition(stringBytesPosition
+                + (long) snapshot.getInt(stringOffsetsPosition + stringCount * Integer.BYTES), nodesPosition);
+    }
+
+    /**
+     * Validates the record of every node: its parent precedes it, the root has no edge while every other node has
+     * the split identifier of its parent on its edge, only inner nodes are split and have no leaf documents, and
+     * the edges, gains and leaf documents of the node lie within their sections.
+     *
+     * @throws IOException if a record is invalid
+     */
+    private void validateNodes() throws IOException {
+        for (int node = 0; node < nodeCount; node++) {
+            int parent = getNodeInt(node, PARENT);
+            int childCount = getNodeInt(node, CHILD_COUNT);
+            int splitIdentifier = getNodeInt(node, SPLIT_IDENTIFIER);
+            boolean valid = node == 0 ? parent == NO_NODE && getNodeInt(node, EDGE_IDENTIFIER) == NO_NODE
+                    && getNodeInt(node, EDGE_VALUE) == NO_NODE
+                    : parent >= 0 && parent < node && getNodeInt(node, EDGE_VALUE) >= 0
+                    && getNodeInt(node, EDGE_IDENTIFIER) == getNodeInt(parent, SPLIT_IDENTIFIER);
+            valid &= (childCount == 0) == (splitIdentifier == NO_NODE) && getNodeInt(node, DOCUMENT_COUNT) >= 0
+                    && (childCount == 0 || getNodeInt(node, LEAF_DOCUMENT_COUNT) == 0);
+            if (!valid) {
+                throw new IOException(INVALID_FILE_MESSAGE);
+            }
+            validateStringId(getNodeInt(node, EDGE_VALUE), true);
+            validateStringId(splitIdentifier, true);
+            validateRange(getNodeInt(node, FIRST_BUILD_CHILD), childCount, nodeCount - 1);
+            validateRange(getNodeInt(node, FIRST_RENDER_CHILD), childCount, nodeCount - 1);
+            validateRange(getNodeInt(node, FIRST_GAIN), getNodeInt(node, GAIN_COUNT), gainCount);
+            validateRange(getNodeInt(node, FIRST_LEAF_DOCUMENT), getNodeInt(node, LEAF_DOCUMENT_COUNT), documentCount);
+        }
+    }
+
+    /**
+     * Validates the child edges in one order: every child follows its node and has it as its parent, and every node
+     * but the root is the child of exactly one edge.
+     *
+     * @param edgesPosition the position of the edges in the file
+     * @param firstChildField the field of the node records holding the first edge of a node in this order
+     * @throws IOException if an edge is invalid or a node is not reached exactly once
+     */
+    private void validateEdges(int edgesPosition, int firstChildField) throws IOException {
+        boolean[] reached = new boolean[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            int firstChild = getNodeInt(node, firstChildField);
+            for (int position = 0; position < getChildCount(node); position++) {
+                int child = snapshot.getInt(edgesPosition + (firstChild + position) * Integer.BYTES);
+                if (child <= node || child >= nodeCount || reached[child] || getNodeInt(child, PARENT) != node) {
+                    throw new IOException(INVALID_FILE_MESSAGE);
+                }
+                reached[child] = true;
+            }
+        }
+        for (int node = 1; node < nodeCount; node++) {
+            if (!reached[node]) {
+                throw new IOException(INVALID_FILE_MESSAGE);
+            }
+        }
+    }
+
+    /**
+     * Validates that a section starts where the previous section ends.
+     *
+     * @param end the end of the previous section
+     * @param position the position of the section
+     * @throws IOException if the section does not start at the end of the previous section
+     */
+    private static void validatePosition(long end, long position) throws IOException {
+        if (end != position) {
+            throw new IOException(INVALID_FILE_MESSAGE);
+        }
+    }
+
+    /**
+     * Validates that a range of entries lies within a section.
+     *
+     * @param first the first entry of the range
+     * @param count the number of entries of the range
+     * @param sectionCount the number of entries of the section
+     * @throws IOException if the range is not within the section
+     */
+    private static void validateRange(int first, int count, int sectionCount) throws IOException {
+        if (first < 0 || count < 0 || (long) first + count > sectionCount) {
+            throw new IOException(INVALID_FILE_MESSAGE);
+        }
+    }
+
+    /**
+     * Validates a string id, where -1 stands for no string.
+     *
+     * @param id the string id
+     * @param optional whether the id may be -1
+     * @throws IOException if the id is not the id of a string of the string table and not an allowed -1
+     */
+    private void validateStringId(int id, boolean optional) throws IOException {
+        if (id < (optional ? NO_NODE : 0) || id >= stringCount) {
+            throw new IOException(INVALID_FILE_MESSAGE);
+        }
+    }
+
+    /**
+     * Opens a tree snapshot by mapping its file into memory.
+     *
+     * @param file the snapshot file
+     * @return the opened snapshot
+     * @throws IOException if the file cannot be mapped or is not a tree snapshot file
+     */
+    public static TreeSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(FILE_TOO_LARGE_MESSAGE);
+            }
+            return new TreeSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes a built tree to a snapshot file, replacing its content.
+     * The caller has to hold the read lock of the document set of the tree.
+     *
+     * @param tree the root of the built tree
+     * @param file the file to write the snapshot to
+     * @return the number of nodes written
+     * @throws IOException if the file cannot be written or the snapshot would exceed the maximum mapping size
+     */
+    public static int write(StructuralTree tree, Path file) throws IOException {
+        List<StructuralTree> nodes = new ArrayList<>();
+        List<Integer> parents = new ArrayList<>();
+        addNodes(tree, NO_NODE, nodes, parents);
+        Map<StructuralTree, Integer> nodeIds = new IdentityHashMap<>();
+        for (int node = 0; node < nodes.size(); node++) {
+            nodeIds.put(nodes.get(node), node);
+        }
+
+        Map<String, Integer> stringIds = new LinkedHashMap<>();
+        int[][] nodeRecords = new int[nodes.size()][NODE_INTS];
+        long[] accumulatedUses = new long[nodes.size()];
+        List<Integer> buildEdges = new ArrayList<>();
+        List<Integer> renderEdges = new ArrayList<>();
+        List<Integer> gainIdentifiers = new ArrayList<>();
+        List<Double> gains = new ArrayList<>();
+        List<Integer> documentPaths = new ArrayList<>();
+        List<Long> documentUses = new ArrayList<>();
+        for (int node = 0; node < nodes.size(); node++) {
+            StructuralTree treeNode = nodes.get(node);
+            int[] nodeRecord = nodeRecords[node];
+            nodeRecord[PARENT] = parents.get(node);
+            nodeRecord[EDGE_IDENTIFIER] = NO_NODE;
+            nodeRecord[EDGE_VALUE] = NO_NODE;
+            if (!treeNode.getTags().isEmpty()) {
+                Tag edge = treeNode.getTags().get(treeNode.getTags().size() - 1);
+                nodeRecord[EDGE_IDENTIFIER] = getStringId(stringIds, edge.getIdentifier());
+                nodeRecord[EDGE_VALUE] = getStringId(stringIds, edge.getValue());
+            }
+
+            List<StructuralTree> children = treeNode.getChildren();
+            nodeRecord[SPLIT_IDENTIFIER] = children.isEmpty()
+                    ? NO_NODE : getStringId(stringIds, treeNode.getSelectedIdentifiers().get(0));
+            nodeRecord[FIRST_BUILD_CHILD] = buildEdges.size();
+            nodeRecord[FIRST_RENDER_CHILD] = renderEdges.size();
+            nodeRecord[CHILD_COUNT] = children.size();
+            children.forEach(child -> buildEdges.add(nodeIds.get(child)));
+            treeNode.getSortedChildren().forEach(child -> renderEdges.add(nodeIds.get(child)));
+
+            nodeRecord[FIRST_GAIN] = gains.size();
+            nodeRecord[GAIN_COUNT] = treeNode.getSelectedIdentifiers().size();
+            for (String identifier : treeNode.getSelectedIdentifiers()) {
+                gainIdentifiers.add(getStringId(stringIds, identifier));
+                gains.add(treeNode.getInformationGain(identifier));
+            }
+
+            nodeRecord[FIRST_LEAF_DOCUMENT] = documentPaths.size();
+            if (children.isEmpty()) {
+                DocumentSet documents = treeNode.getDocuments();
+                for (int document : treeNode.getSortedDocuments()) {
+                    documentPaths.add(getStringId(stringIds, documents.getDocumentPath(document)));
+                    documentUses.add(documents.getDocumentWeight(document));
+                }
+            }
+            nodeRecord[LEAF_DOCUMENT_COUNT] = documentPaths.size() - nodeRecord[FIRST_LEAF_DOCUMENT];
+            nodeRecord[DOCUMENT_COUNT] = treeNode.getDocumentCount();
+            accumulatedUses[node] = treeNode.getAccumulatedUses();
+        }
+
+        List<byte[]> strings = new ArrayList<>();
+        long stringBytes = 0;
+        for (String string : stringIds.keySet()) {
+            byte[] encoded = string.getBytes(StandardCharsets.UTF_8);
+            strings.add(encoded);
+            stringBytes += encoded.length;
+        }
+        long stringOffsetsPosition = (long) HEADER_INTS * Integer.BYTES;
+        long stringBytesPosition = stringOffsetsPosition + (strings.size() + 1L) * Integer.BYTES;
+        long nodesPosition = stringBytesPosition + stringBytes;
+        long buildEdgesPosition = nodesPosition + (long) nodes.size() * NODE_BYTES;
+        long renderEdgesPosition = buildEdgesPosition + (long) buildEdges.size() * Integer.BYTES;
+        long gainsPosition = renderEdgesPosition + (long) renderEdges.size() * Integer.BYTES;
+        long documentsPosition = gainsPosition + (long) gains.size() * GAIN_BYTES;
+        if (documentsPosition + (long) documentPaths.size() * DOCUMENT_BYTES > Integer.MAX_VALUE) {
+            throw new IOException(FILE_TOO_LARGE_MESSAGE);
+        }
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (long headerValue : new long[] {MAGIC_NUMBER, FORMAT_VERSION, nodes.size(), strings.size(),
+                    gains.size(), documentPaths.size(), stringOffsetsPosition, stringBytesPosition, nodesPosition,
+                    buildEdgesPosition, renderEdgesPosition, gainsPosition, documentsPosition}) {
+                output.writeInt((int) headerValue);
+            }
+            int stringOffset = 0;
+            for (byte[] string : strings) {
+                output.writeInt(stringOffset);
+                stringOffset += string.length;
+            }
+            output.writeInt(stringOffset);
+            for (byte[] string : strings) {
+                output.write(string);
+            }
+            for (int node = 0; node < nodes.size(); node++) {
+                for (int value : nodeRecords[node]) {
+                    output.writeInt(value);
+                }
+                output.writeLong(accumulatedUses[node]);
+            }
+            for (int child : buildEdges) {
+                output.writeInt(child);
+            }
+            for (int child : renderEdges) {
+                output.writeInt(child);
+            }
+            for (int gain = 0; gain < gains.size(); gain++) {
+                output.writeInt(gainIdentifiers.get(gain));
+                output.writeDouble(gains.get(gain));
+            }
+            for (int document = 0; document < documentPaths.size(); document++) {
+                output.writeInt(documentPaths.get(document));
+                output.writeLong(documentUses.get(document));
+            }
+        }
+        return nodes.size();
+    }
+
+    /**
+     * Adds a node and its descendants in pre-order of the built tree.
+     *
+     * @param node the node to add
+     * @param parent the id of the parent of the node
+     * @param nodes the nodes to add to
+     * @param parents the ids of the parents of the nodes
+     */
+    private static void addNodes(StructuralTree node, int parent, List<StructuralTree> nodes, List<Integer> parents) {
+        int id = nodes.size();
+        nodes.add(node);
+        parents.add(parent);
+        for (StructuralTree child : node.getChildren()) {
+            addNodes(child, id, nodes, parents);
+        }
+    }
+
+    /**
+     * Returns the id of a string in the string table, adding the string if it is new.
+     *
+     * @param stringIds the ids of the strings
+     * @param string the string
+     * @return the id of the string
+     */
+    private static int getStringId(Map<String, Integer> stringIds, String string) {
+        return stringIds.computeIfAbsent(string, newString -> stringIds.size());
+    }
+
+    /**
+     * Returns the number of nodes of the tree.
+     *
+     * @return the number of nodes
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the parent of a node.
+     *
+     * @param node the node
+     * @return the parent of the node or -1 for the root
+     */
+    public int getParent(int node) {
+        return getNodeInt(node, PARENT);
+    }
+
+    /**
+     * Returns the identifier of the tag on the edge from the parent to a node.
+     *
+     * @param node the node
+     * @return the identifier of the edge or null for the root
+     */
+    public String getEdgeIdentifier(int node) {
+        return getString(getNodeInt(node, EDGE_IDENTIFIER));
+    }
+
+    /**
+     * Returns the value of the tag on the edge from the parent to a node.
+     *
+     * @param node the node
+     * @return the value of the edge or null for the root
+     */
+    public String getEdgeValue(int node) {
+        return getString(getNodeInt(node, EDGE_VALUE));
+    }
+
+    /**
+     * Returns the tag path of a node, which is the path of the folder of the node.
+     *
+     * @param node the node
+     * @return the tag path of the node, empty for the root
+     */
+    public String getTagPath(int node) {
+        List<String> edges = new ArrayList<>();
+        for (int ancestor = node; getParent(ancestor) != NO_NODE; ancestor = getParent(ancestor)) {
+            edges.add(new Tag(getEdgeIdentifier(ancestor), getEdgeValue(ancestor)).toString());
+        }
+        StringBuilder tagPath = new StringBuilder();
+        for (int edge = edges.size() - 1; edge >= 0; edge--) {
+            tagPath.append('/').append(edges.get(edge));
+        }
+        return tagPath.toString();
+    }
+
+    /**
+     * Returns the identifier a node is split by.
+     *
+     * @param node the node
+     * @return the split identifier or null for a leaf
+     */
+    public String getSplitIdentifier(int node) {
+        return getString(getNodeInt(node, SPLIT_IDENTIFIER));
+    }
+
+    /**
+     * Returns the number of children of a node.
+     *
+     * @param node the node
+     * @return the number of children
+     */
+    public int getChildCount(int node) {
+        return getNodeInt(node, CHILD_COUNT);
+    }
+
+    /**
+     * Returns a child of a node in the order of the rendered tree.
+     *
+     * @param node the node
+     * @param position the position of the child
+     * @return the child
+     */
+    public int getChild(int node, int position) {
+        return snapshot.getInt(renderEdgesPosition + (getNodeInt(node, FIRST_RENDER_CHILD) + position) * Integer.BYTES);
+    }
+
+    /**
+     * Returns a child of a node in the order the tree was built.
+     *
+     * @param node the node
+     * @param position the position of the child
+     * @return the child
+     */
+    public int getBuildChild(int node, int position) {
+        return snapshot.getInt(buildEdgesPosition + (getNodeInt(node, FIRST_BUILD_CHILD) + position) * Integer.BYTES);
+    }
+
+    /**
+     * Returns the number of cached information gains of a node.
+     *
+     * @param node the node
+     * @return the number of gains
+     */
+    public int getGainCount(int node) {
+        return getNodeInt(node, GAIN_COUNT);
+    }
+
+    /**
+     * Returns the identifier of a cached information gain of a node, in descending order of the gains.
+     *
+     * @param node the node
+     * @param position the position of the gain
+     * @return the identifier of the gain
+     */
+    public String getGainIdentifier(int node, int position) {
+        return getString(snapshot.getInt(getGainPosition(node, position)));
+    }
+
+    /**
+     * Returns a cached information gain of a node, in descending order of the gains.
+     *
+     * @param node the node
+     * @param position the position of the gain
+     * @return the information gain
+     */
+    public double getGain(int node, int position) {
+        return snapshot.getDouble(getGainPosition(node, position) + Integer.BYTES);
+    }
+
+    /**
+     * Returns the number of documents of a node.
+     *
+     * @param node the node
+     * @return the number of documents
+     */
+    public int getDocumentCount(int node) {
+        return getNodeInt(node, DOCUMENT_COUNT);
+    }
+
+    /**
+     * Returns the accumulated uses of the documents of a node.
+     *
+     * @param node the node
+     * @return the accumulated uses
+     */
+    public long getAccumulatedUses(int node) {
+        return snapshot.getLong(nodesPosition + node * NODE_BYTES + NODE_INTS * Integer.BYTES);
+    }
+
+    /**
+     * Returns the number of documents listed in a leaf, 0 for inner nodes.
+     *
+     * @param node the node
+     * @return the number of leaf documents
+     */
+    public int getLeafDocumentCount(int node) {
+        return getNodeInt(node, LEAF_DOCUMENT_COUNT);
+    }
+
+    /**
+     * Returns the path of a document of a leaf, in the order of the rendered tree.
+     *
+     * @param node the leaf
+     * @param position the position of the document
+     * @return the path of the document
+     */
+    public String getLeafDocumentPath(int node, int position) {
+        return getString(snapshot.getInt(getLeafDocumentPosition(node, position)));
+    }
+
+    /**
+     * Returns the uses of a document of a leaf, in the order of the rendered tree.
+     *
+     * @param node the leaf
+     * @param position the position of the document
+     * @return the uses of the document
+     */
+    public long getLeafDocumentUses(int node, int position) {
+        return snapshot.getLong(getLeafDocumentPosition(node, position) + Integer.BYTES);
+    }
+
+    /**
+     * Renders the information gains of the tree like {@link StructuralTree#buildTree()}.
+     *
+     * @return the information gains of every node in pre-order of the built tree
+     */
+    public String renderGains() {
+        StringBuilder gains = new StringBuilder();
+        appendGains(gains, 0, "");
+        return gains.toString();
+    }
+
+    /**
+     * Renders the tree like {@link StructuralTree#toString()}.
+     *
+     * @return the sorted documents of every leaf in the order of the rendered tree
+     */
+    public String renderTree() {
+        StringBuilder tree = new StringBuilder();
+        appendTree(tree, 0, "");
+        return tree.toString();
+    }
+
+    /**
+     * Appends the information gains of a node and its descendants.
+     *
+     * @param gains the rendered gains to append to
+     * @param node the node
+     * @param tagPath the tag path of the node
+     */
+    private void appendGains(StringBuilder gains, int node, String tagPath) {
+        for (int gain = 0; gain < getGainCount(node); gain++) {
+            gains.append(StructuralTree.PATH_FORMAT.formatted(tagPath, String.format(Locale.ROOT,
+                    StructuralTree.TAG_REPRESENTATION_FORMAT, getGainIdentifier(node, gain), getGain(node, gain))));
+        }
+        for (int child = 0; child < getChildCount(node); child++) {
+            int childNode = getBuildChild(node, child);
+            appendGains(gains, childNode, getChildTagPath(tagPath, childNode));
+        }
+    }
+
+    /**
+     * Appends the sorted documents of the leaves of a node.
+     *
+     * @param tree the rendered tree to append to
+     * @param node the node
+     * @param tagPath the tag path of the node
+     */
+    private void appendTree(StringBuilder tree, int node, String tagPath) {
+        for (int child = 0; child < getChildCount(node); child++) {
+            int childNode = getChild(node, child);
+            appendTree(tree, childNode, getChildTagPath(tagPath, childNode));
+        }
+        for (int document = 0; document < getLeafDocumentCount(node); document++) {
+            tree.append(StructuralTree.TREE_FORMAT.formatted(tagPath, getLeafDocumentPath(node, document)));
+        }
+    }
+
+    /**
+     * Returns the tag path of a child.
+     *
+     * @param tagPath the tag path of the parent
+     * @param child the child
+     * @return the tag path of the child
+     */
+    private String getChildTagPath(String tagPath, int child) {
+        return tagPath + "/" + new Tag(getEdgeIdentifier(child), getEdgeValue(child));
+    }
+
+    /**
+     * Returns an int of the header.
+     *
+     * @param index the index of the int in the header
+     * @return the int
+     */
+    private int getHeaderInt(int index) {
+        return snapshot.getInt(index * Integer.BYTES);
+    }
+
+    /**
+     * Returns an int of the record of a node.
+     *
+     * @param node the node
+     * @param field the index of the int in the record
+     * @return the int
+     */
+    private int getNodeInt(int node, int field) {
+        return snapshot.getInt(nodesPosition + node * NODE_BYTES + field * Integer.BYTES);
+    }
+
+    /**
+     * Returns the position of a cached information gain of a node.
+     *
+     * @param node the node
+     * @param position the position of the gain in the node
+     * @return the position of the gain in the file
+     */
+    private int getGainPosition(int node, int position) {
+        return gainsPosition + (getNodeInt(node, FIRST_GAIN) + position) * GAIN_BYTES;
+    }
+
+    /**
+     * Returns the position of a document of a leaf.
+     *
+     * @param node the leaf
+     * @param position the position of the document in the leaf
+     * @return the position of the document in the file
+     */
+    private int getLeafDocumentPosition(int node, int position) {
+        return documentsPosition + (getNodeInt(node, FIRST_LEAF_DOCUMENT) + position) * DOCUMENT_BYTES;
+    }
+
+    /**
+     * Decodes a string of the string table.
+     *
+     * @param id the id of the string
+     * @return the string or null if the id is -1
+     */
+    private String getString(int id) {
+        if (id == NO_NODE) {
+            return null;
+        }
+        if (id < 0 || id >= stringCount) {
+            throw new IndexOutOfBoundsException(id);
+        }
+        int offset = snapshot.getInt(stringOffsetsPosition + id * Integer.BYTES);
+        byte[] string = new byte[snapshot.getInt(stringOffsetsPosition + (id + 1) * Integer.BYTES) - offset];
+        snapshot.get(stringBytesPosition + offset, string);
+        return new String(string, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,111 @@
+package edu.kit.document;
+
+/**
+ * The exponential decay of the uses of a document set with a fixed half-life.
+ * The decay is applied lazily by forward decay: a use counted at time t is stored as a weight of
+ * 2^((t - l) / h) units relative to a landmark time l, so stored weights never change when time passes.
+ * The decayed uses at time t are the weights scaled by the global factor 2^(-(t - l) / h), which is applied
+ * when uses are read. Since the uncertainty of a distribution does not change when all its uses are scaled by
+ * the same factor, structural trees are built from the weights directly.
+ * Weights grow with the time since the landmark, so the weights are rebased to a new landmark once the
+ * landmark is {@value #REBASE_HALF_LIVES} half-lives old.
+ *
+ * @author uqfdp
+ */
+final class UsageDecay {
+    /**
+     * The weight of one use counted at the landmark.
+     */
+    static final long WEIGHT_UNIT = 1L << 10;
+    private static final int REBASE_HALF_LIVES = 8;
+    private static final double MAXIMUM_WEIGHT = 0x1p63;
+    private final long halfLife;
+    private final long landmark;
+
+    /**
+     * Constructs a new UsageDecay.
+     *
+     * @param halfLife the half-life of the uses in milliseconds
+     * @param landmark the landmark time of the weights in milliseconds since the epoch
+     */
+    UsageDecay(long halfLife, long landmark) {
+        this.halfLife = halfLife;
+        this.landmark = landmark;
+    }
+
+    /**
+     * Returns the half-life of the uses.
+     *
+     * @return the half-life in milliseconds
+     */
+    long getHalfLife() {
+        return halfLife;
+    }
+
+    /**
+     * Returns the landmark time of the weights.
+     *
+     * @return the landmark time in milliseconds since the epoch
+     */
+    long getLandmark() {
+        return landmark;
+    }
+
+    /**
+     * Returns whether the weights have to be rebased to a new landmark before uses are counted at a time.
+     *
+     * @param time the time in milliseconds since the epoch
+     * @return true if the landmark is too old, false otherwise
+     */
+    boolean needsRebase(long time) {
+        return time - landmark >= REBASE_HALF_LIVES * halfLife;
+    }
+
+    /**
+     * Returns the factor by which the weight of one use grew from the landmark to a time.
+     *
+     * @param time the time in milliseconds since the epoch
+     * @return the growth of the weights
+     */
+    private double getGrowth(long time) {
+        return Math.pow(2, (double) (time - landmark) / halfLife);
+    }
+
+    /**
+     * Returns the weight of uses counted at a time.
+     *
+     * @param uses the uses
+     * @param time the time in milliseconds since the epoch
+     * @return the weight of the uses
+     * @throws ArithmeticException if the weight exceeds the range of a long
+     */
+    long toWeight(long uses, long time) {
+        double weight = (double) uses * WEIGHT_UNIT * getGrowth(time);
+        if (Math.abs(weight) >= MAXIMUM_WEIGHT) {
+            throw new ArithmeticException();
+        }
+        return Math.round(weight);
+    }
+
+    /**
+     * Returns the decayed uses of a weight at a time, rounded to whole uses.
+     *
+     * @param weight the weight
+     * @param time the time in milliseconds since the epoch
+     * @return the decayed uses
+     */
+    long toUses(long weight, long time) {
+        return Math.round(weight / (WEIGHT_UNIT * getGrowth(time)));
+    }
+
+    /**
+     * Returns a weight relative to the landmark of this decay relative to a later landmark.
+     *
+     * @param weight the weight
+     * @param newLandmark the later landmark in milliseconds since the epoch
+     * @return the weight relative to the later landmark
+     */
+    long rebase(long weight, long newLandmark) {
+        return Math.round(weight / getGrowth(newLandmark));
+    }
+}
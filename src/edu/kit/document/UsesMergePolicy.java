@@ -0,0 +1,38 @@
+package edu.kit.document;
+
+/**
+ * This enum represents how the uses of a document contained in several merged document sets are combined.
+ *
+ * @author uqfdp
+ */
+public enum UsesMergePolicy {
+    /**
+     * Adds the uses of the document in all sets.
+     */
+    SUM,
+
+    /**
+     * Keeps the largest uses of the document in any set.
+     */
+    MAX,
+
+    /**
+     * Rejects the merge if the uses of the document differ between the sets.
+     */
+    FAIL;
+
+    /**
+     * Returns the UsesMergePolicy that corresponds to the given string.
+     *
+     * @param policy the string to convert
+     * @return the UsesMergePolicy that corresponds to the given string or null if there is none
+     */
+    public static UsesMergePolicy fromString(String policy) {
+        for (UsesMergePolicy usesMergePolicy : UsesMergePolicy.values()) {
+            if (usesMergePolicy.name().equalsIgnoreCase(policy)) {
+                return usesMergePolicy;
+            }
+        }
+        return null;
+    }
+}
@@ -3,9 +3,9 @@
 import edu.kit.document.Document;
 import edu.kit.document.DocumentType;
 import edu.kit.document.Tag;
+import edu.kit.document.TagNormalizer;
 import edu.kit.util.AudioLength;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -19,63 +19,25 @@ public class AudioDocument extends Document {
     private static final String GENERIC_GENRE_TAG_IDENTIFIER = "genre";
     private static final String AUDIO_GENRE_TAG_IDENTIFIER = "audiogenre";
 
+    /**
+     * The normalizer of the tags of audio documents:
+     * the generic genre and length tags are renamed, the length is bucketed into audio lengths.
+     */
+    public static final TagNormalizer TAG_NORMALIZER = new TagNormalizer(new TagNormalizer.Rule[] {
+        TagNormalizer.rename(GENERIC_GENRE_TAG_IDENTIFIER, AUDIO_GENRE_TAG_IDENTIFIER),
+        TagNormalizer.bucket(GENERIC_LENGTH_TAG_IDENTIFIER, AUDIO_LENGTH_TAG_IDENTIFIER,
+            AudioLength.values(), AudioLength::getMaxLength)
+    });
+
     /**
      * Constructs a new AudioDocument with the given path, tags and number of uses.
      *
      * @param path the path of the audio document
-     * @param tags the tags of the audio document
+     * @param tags the tags of the audio document, normalized by {@link #TAG_NORMALIZER}
      * @param uses the number of uses of the audio document
      */
-    public AudioDocument(String path, Set<Tag> tags, int uses) {
+    public AudioDocument(String path, Set<Tag> tags, long uses) {
         super(DocumentType.AUDIO, path, uses);
-        super.setTags(createAudioTags(tags));
-    }
-
-    /**
-     * Creates the tags for the audio document.
-     *
-     * @param tags the tags of the audio document
-     * @return the tags for the audio document
-     */
-    private Set<Tag> createAudioTags(Set<Tag> tags) {
-        Set<Tag> audioTags = new HashSet<>();
-        for (Tag tag : tags) {
-            switch (tag.getIdentifier()) {
-                case GENERIC_GENRE_TAG_IDENTIFIER:
-                    audioTags.add(new Tag(AUDIO_GENRE_TAG_IDENTIFIER, tag.getValue()));
-                    break;
-                case GENERIC_LENGTH_TAG_IDENTIFIER:
-                    try {
-                        int size = Integer.parseInt(tag.getValue());
-                        AudioLength audioLength = getAudioLengthFromLengthTag(size);
-                        audioTags.add(new Tag(AUDIO_LENGTH_TAG_IDENTIFIER, audioLength.name().toLowerCase()));
-                    } catch (NumberFormatException e) {
-                        audioTags.add(new Tag(tag.getIdentifier(), tag.getValue()));
-                    }
-                    break;
-                default:
-                    audioTags.add(new Tag(tag.getIdentifier(), tag.getValue()));
-            }
-        }
-
-        return audioTags;
-    }
-
-    /**
-     * Returns the audio length from the given length.
-     *
-     * @param length the length tag
-     * @return the audio length from the given length
-     */
-    private AudioLength getAudioLengthFromLengthTag(int length) {
-        if (length < AudioLength.SAMPLE.getMaxLength()) {
-            return AudioLength.SAMPLE;
-        } else if (length < AudioLength.SHORT.getMaxLength()) {
-            return AudioLength.SHORT;
-        } else if (length < AudioLength.NORMAL.getMaxLength()) {
-            return AudioLength.NORMAL;
-        } else {
-            return AudioLength.LONG;
-        }
+        setTags(tags);
     }
 }
@@ -3,8 +3,8 @@
 import edu.kit.document.Document;
 import edu.kit.document.DocumentType;
 import edu.kit.document.Tag;
+import edu.kit.document.TagNormalizer;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -15,27 +15,21 @@
 public class ProgramDocument extends Document {
     private static final String EXECUTABLE_TAG_IDENTIFIER = "executable";
 
+    /**
+     * The normalizer of the tags of program documents: the tags are kept and every program is executable.
+     */
+    public static final TagNormalizer TAG_NORMALIZER =
+        new TagNormalizer(new TagNormalizer.Rule[0], new Tag(EXECUTABLE_TAG_IDENTIFIER));
+
     /**
      * Constructs a new ProgramDocument with the given path, tags and number of uses.
      *
      * @param path the path of the program document
-     * @param tags the tags of the program document
+     * @param tags the tags of the program document, normalized by {@link #TAG_NORMALIZER}
      * @param uses the number of uses of the program document
      */
-    public ProgramDocument(String path, Set<Tag> tags, int uses) {
+    public ProgramDocument(String path, Set<Tag> tags, long uses) {
         super(DocumentType.PROGRAM, path, uses);
-        setTags(createProgramTags(tags));
-    }
-
-    /**
-     * Creates the tags for the program document.
-     *
-     * @param tags the tags of the program document
-     * @return the tags for the program document
-     */
-    private Set<Tag> createProgramTags(Set<Tag> tags) {
-        Set<Tag> videoTags = new HashSet<>(tags);
-        videoTags.add(new Tag(EXECUTABLE_TAG_IDENTIFIER));
-        return videoTags;
+        setTags(tags);
     }
 }
@@ -3,9 +3,9 @@
 import edu.kit.document.Document;
 import edu.kit.document.DocumentType;
 import edu.kit.document.Tag;
+import edu.kit.document.TagNormalizer;
 import edu.kit.util.TextLength;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -19,62 +19,25 @@ public class TextDocument extends Document {
     private static final String GENERIC_GENRE_TAG_IDENTIFIER = "genre";
     private static final String TEXT_GENRE_TAG_IDENTIFIER = "textgenre";
 
+    /**
+     * The normalizer of the tags of text documents:
+     * the generic genre and words tags are renamed, the words are bucketed into text lengths.
+     */
+    public static final TagNormalizer TAG_NORMALIZER = new TagNormalizer(new TagNormalizer.Rule[] {
+        TagNormalizer.rename(GENERIC_GENRE_TAG_IDENTIFIER, TEXT_GENRE_TAG_IDENTIFIER),
+        TagNormalizer.bucket(GENERIC_WORDS_TAG_IDENTIFIER, TEXT_LENGTH_TAG_IDENTIFIER,
+            TextLength.values(), TextLength::getMaxWords)
+    });
+
     /**
      * Constructs a new TextDocument with the given path, tags and number of uses.
      *
      * @param path the path of the text document
-     * @param tags the tags of the text document
+     * @param tags the tags of the text document, normalized by {@link #TAG_NORMALIZER}
      * @param uses the number of uses of the text document
      */
-    public TextDocument(String path, Set<Tag> tags, int uses) {
+    public TextDocument(String path, Set<Tag> tags, long uses) {
         super(DocumentType.TEXT, path, uses);
-        super.setTags(createTextTags(tags));
+        setTags(tags);
     }
-
-    /**
-     * Creates the tags for the text document.
-     *
-     * @param tags the tags of the text document
-     * @return the tags for the text document
-     */
-    private Set<Tag> createTextTags(Set<Tag> tags) {
-        Set<Tag> textTags = new HashSet<>();
-        for (Tag tag : tags) {
-            switch (tag.getIdentifier()) {
-                case GENERIC_GENRE_TAG_IDENTIFIER:
-                    textTags.add(new Tag(TEXT_GENRE_TAG_IDENTIFIER, tag.getValue()));
-                    break;
-                case GENERIC_WORDS_TAG_IDENTIFIER:
-                    try {
-                        int words = Integer.parseInt(tag.getValue());
-                        TextLength videoLength = getTextLengthFromWordsTag(words);
-                        textTags.add(new Tag(TEXT_LENGTH_TAG_IDENTIFIER, videoLength.name().toLowerCase()));
-                    } catch (NumberFormatException e) {
-                        textTags.add(new Tag(tag.getIdentifier(), tag.getValue()));
-                    }
-                    break;
-                default:
-                    textTags.add(new Tag(tag.getIdentifier(), tag.getValue()));
-            }
-        }
-
-        return textTags;
-    }
-
-    /**
-     * Returns the text length from the given words.
-     *
-     * @param words the words
-     * @return the text length from the given words
-     */
-    private TextLength getTextLengthFromWordsTag(int words) {
-        if (words < TextLength.SHORT.getMaxWords()) {
-            return TextLength.SHORT;
-        } else if (words < TextLength.MEDIUM.getMaxWords()) {
-            return TextLength.MEDIUM;
-        } else {
-            return TextLength.LONG;
-        }
-    }
-
 }
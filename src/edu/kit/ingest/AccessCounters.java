@@ -0,0 +1,111 @@
+package edu.kit.ingest;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The access counters of the documents of one loaded document set.
+ * Every accessed document gets its own striped adder on its first access, so concurrent ingestion threads
+ * counting the same document do not contend on one memory location. The counters are never reset: a fold
+ * takes the difference between the current sum and the sum folded before, so accesses counted while a fold
+ * reads the counters are folded by the next fold instead of being lost.
+ *
+ * @author uqfdp
+ */
+final class AccessCounters {
+    private final AtomicReferenceArray<LongAdder> counters;
+    private final Queue<Integer> newlyAccessedDocuments;
+    private int[] accessedDocuments;
+    private long[] foldedAccesses;
+    private int accessedDocumentCount;
+
+    /**
+     * Constructs new AccessCounters for a document set.
+     *
+     * @param documentCount the number of documents of the set
+     */
+    AccessCounters(int documentCount) {
+        this.counters = new AtomicReferenceArray<>(documentCount);
+        this.newlyAccessedDocuments = new ConcurrentLinkedQueue<>();
+        this.accessedDocuments = new int[1];
+        this.foldedAccesses = new long[1];
+    }
+
+    /**
+     * Counts one access of a document.
+     *
+     * @param document the index of the document
+     */
+    void count(int document) {
+        LongAdder counter = counters.get(document);
+        if (counter == null) {
+            LongAdder newCounter = new LongAdder();
+            if (counters.compareAndSet(document, null, newCounter)) {
+                newlyAccessedDocuments.add(document);
+                counter = newCounter;
+            } else {
+                counter = counters.get(document);
+            }
+        }
+        counter.increment();
+    }
+
+    /**
+     * Returns the accesses counted since the last completed fold.
+     * Only one thread may fold the counters at a time.
+     *
+     * @return the indices of the documents with new accesses and the number of their new accesses
+     */
+    Accesses getUnfoldedAccesses() {
+        for (Integer document = newlyAccessedDocuments.poll(); document != null;
+             document = newlyAccessedDocuments.poll()) {
+            if (accessedDocumentCount == accessedDocuments.length) {
+                accessedDocuments = Arrays.copyOf(accessedDocuments, 2 * accessedDocumentCount);
+                foldedAccesses = Arrays.copyOf(foldedAccesses, 2 * accessedDocumentCount);
+            }
+            accessedDocuments[accessedDocumentCount++] = document;
+        }
+
+        int[] documents = new int[accessedDocumentCount];
+        long[] sums = new long[accessedDocumentCount];
+        long[] increments = new long[accessedDocumentCount];
+        int[] positions = new int[accessedDocumentCount];
+        int count = 0;
+        for (int position = 0; position < accessedDocumentCount; position++) {
+            long sum = counters.get(accessedDocuments[position]).sum();
+            if (sum != foldedAccesses[position]) {
+                documents[count] = accessedDocuments[position];
+                sums[count] = sum;
+                increments[count] = sum - foldedAccesses[position];
+                positions[count++] = position;
+            }
+        }
+        return new Accesses(Arrays.copyOf(documents, count), Arrays.copyOf(increments, count),
+                Arrays.copyOf(sums, count), Arrays.copyOf(positions, count));
+    }
+
+    /**
+     * Marks accesses as folded into the uses of the documents.
+     *
+     * @param accesses the accesses returned by {@link #getUnfoldedAccesses()}
+     */
+    void markFolded(Accesses accesses) {
+        for (int document = 0; document < accesses.documents().length; document++) {
+            foldedAccesses[accesses.positions()[document]] = accesses.sums()[document];
+        }
+    }
+
+    /**
+     * The accesses of documents that were not folded yet.
+     *
+     * @param documents the indices of the documents
+     * @param increments the number of new accesses of every document
+     * @param sums the number of all accesses of every document
+     * @param positions the positions of the documents among the accessed documents
+     */
+    record Accesses(int[] documents, long[] increments, long[] sums, int[] positions) {
+    }
+}
@@ -0,0 +1,244 @@
+package edu.kit.ingest;
+
+import edu.kit.DocumentHandler;
+import edu.kit.document.DocumentSet;
+import edu.kit.util.LocalSockets;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class ingests streams of access events and folds them into the uses of the loaded document sets.
+ * An access event is a line holding the path of an accessed document. The events are read from a file or a
+ * named pipe until its end, or from the clients of a local socket, each on its own thread, and counted by the
+ * {@link AccessCounters} of the set without taking its lock. The counters are folded into the uses of the set
+ * every {@value #FOLD_INTERVAL_PROPERTY} milliseconds, defaulting to {@value #DEFAULT_FOLD_INTERVAL}, by one
+ * change of the set under its write lock, so a run always sees the uses of a completed fold.
+ * Events of unknown paths are dropped.
+ *
+ * @author uqfdp
+ */
+public final class AccessIngestor {
+    /**
+     * The system property giving the interval between two folds in milliseconds.
+     */
+    public static final String FOLD_INTERVAL_PROPERTY = "edu.kit.foldInterval";
+    /**
+     * The default interval between two folds in milliseconds.
+     */
+    public static final long DEFAULT_FOLD_INTERVAL = 1000;
+    private static final String PORT_PATTERN = "\\d{1,5}";
+    private static final String INGESTION_THREAD_NAME_FORMAT = "ingestion-%d";
+    private static final String FOLD_THREAD_NAME = "ingestion-fold";
+    private static final int MAXIMUM_FOLD_ATTEMPTS = 3;
+    private static final int EVENT_BATCH_SIZE = 1024;
+    private final DocumentHandler documentHandler;
+    private final Map<Integer, AccessCounters> counters;
+    private final long foldInterval;
+    private final AtomicInteger nextThreadId;
+    private ScheduledExecutorService foldExecutor;
+
+    /**
+     * Creates a new AccessIngestor with the fold interval of the system property {@value #FOLD_INTERVAL_PROPERTY}.
+     *
+     * @param documentHandler the document handler of the document sets
+     */
+    public AccessIngestor(DocumentHandler documentHandler) {
+        this.documentHandler = documentHandler;
+        this.counters = new ConcurrentHashMap<>();
+        this.foldInterval = Math.max(1, Long.getLong(FOLD_INTERVAL_PROPERTY, DEFAULT_FOLD_INTERVAL));
+        this.nextThreadId = new AtomicInteger();
+    }
+
+    /**
+     * Starts to ingest the access events of a source into a document set in the background.
+     * The source is either a TCP port on the loopback interface, {@code unix:} followed by the path of a Unix
+     * domain socket, or the path of a file or named pipe. A stale file of the Unix domain socket is replaced.
+     *
+     * @param index the index of the document set
+     * @param source the source of the access events
+     * @return true if the ingestion was started, false if there is no such document set
+     * @throws IOException if the source cannot be opened
+     * @throws IllegalArgumentException if the port is out of range
+     */
+    public boolean ingest(int index, String source) throws IOException {
+        DocumentSet documents = documentHandler.getDocumentSet(index);
+        if (documents == null) {
+            return false;
+        }
+        AccessCounters setCounters = counters.computeIfAbsent(index,
+                newIndex -> new AccessCounters(documents.getDocumentCount()));
+
+        if (LocalSockets.isUnixSocket(source) || source.matches(PORT_PATTERN)) {
+            ServerSocketChannel server = LocalSockets.openServer(source);
+            startThread(() -> acceptClients(server, index, setCounters));
+        } else {
+            BufferedReader reader = Files.newBufferedReader(Path.of(source), Charset.defaultCharset());
+            startThread(() -> {
+                readEvents(reader, index, setCounters);
+                fold(index);
+            });
+        }
+        startFolding();
+        return true;
+    }
+
+    /**
+     * Accepts clients of a server socket and ingests the events of every client on its own thread.
+     *
+     * @param server the server socket
+     * @param index the index of the document set
+     * @param setCounters the access counters of the document set
+     */
+    private void acceptClients(ServerSocketChannel server, int index, AccessCounters setCounters) {
+        try {
+            while (counters.get(index) == setCounters) {
+                SocketChannel client = server.accept();
+                startThread(() -> readEvents(new BufferedReader(Channels.newReader(client, StandardCharsets.UTF_8)),
+                        index, setCounters));
+            }
+        } catch (IOException e) {
+            // the server socket failed, which ends the ingestion of its clients
+        } finally {
+            LocalSockets.closeServer(server);
+        }
+    }
+
+    /**
+     * Counts the access events of a reader until its end or until the document set is unloaded.
+     * The events are read in batches, which end early when no further input is buffered. The paths of a batch
+     * are resolved through the hash index of the set currently registered under the index, whose document
+     * indices stay valid when the set is spilled and read back. The set is not held between batches, so a
+     * spilled set is not kept in memory while the source is idle.
+     *
+     * @param reader the reader of the events, which is closed afterwards
+     * @param index the index of the document set
+     * @param setCounters the access counters of the document set
+     */
+    private void readEvents(BufferedReader reader, int index, AccessCounters setCounters) {
+        try (reader) {
+            List<String> paths = new ArrayList<>(EVENT_BATCH_SIZE);
+            String path;
+            while ((path = reader.readLine()) != null) {
+                paths.add(path);
+                if ((paths.size() == EVENT_BATCH_SIZE || !reader.ready()) && !countEvents(paths, index, setCounters)) {
+                    return;
+                }
+            }
+            countEvents(paths, index, setCounters);
+        } catch (IOException e) {
+            // the source failed or the client disconnected, which ends the ingestion of this source
+        }
+    }
+
+    /**
+     * Counts a batch of access events and clears it.
+     *
+     * @param paths the paths of the accessed documents
+     * @param index the index of the document set
+     * @param setCounters the access counters of the document set
+     * @return true if the ingestion continues, false if the document set was unloaded
+     */
+    private boolean countEvents(List<String> paths, int index, AccessCounters setCounters) {
+        DocumentSet documents = counters.get(index) == setCounters ? documentHandler.getDocumentSet(index) : null;
+        if (documents == null) {
+            return false;
+        }
+        for (String path : paths) {
+            int document = documents.getDocumentIndex(path);
+            if (document < 0) {
+                documentHandler.getMetrics().countAccessEventDropped();
+                continue;
+            }
+            setCounters.count(document);
+            documentHandler.getMetrics().countAccessEventIngested();
+        }
+        paths.clear();
+        return true;
+    }
+
+    /**
+     * Starts a daemon thread.
+     *
+     * @param task the task of the thread
+     */
+    private void startThread(Runnable task) {
+        Thread thread = new Thread(task, INGESTION_THREAD_NAME_FORMAT.formatted(nextThreadId.getAndIncrement()));
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Starts folding the counters periodically unless it already started.
+     */
+    private synchronized void startFolding() {
+        if (foldExecutor != null) {
+            return;
+        }
+        foldExecutor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, FOLD_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        foldExecutor.scheduleWithFixedDelay(this::foldAll, foldInterval, foldInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Folds the counters of all document sets into their uses.
+     */
+    private void foldAll() {
+        for (int index : counters.keySet()) {
+            fold(index);
+        }
+    }
+
+    /**
+     * Folds the counters of a document set into its uses by one change of the set.
+     * The counters of an unloaded set are discarded. If the uses would overflow, the accesses stay unfolded.
+     *
+     * @param index the index of the document set
+     */
+    public void fold(int index) {
+        AccessCounters setCounters = counters.get(index);
+        if (setCounters == null) {
+            return;
+        }
+        synchronized (setCounters) {
+            AccessCounters.Accesses accesses = setCounters.getUnfoldedAccesses();
+            if (accesses.documents().length == 0) {
+                return;
+            }
+            for (int attempt = 0; attempt < MAXIMUM_FOLD_ATTEMPTS; attempt++) {
+                DocumentSet documents = documentHandler.getDocumentSet(index);
+                if (documents == null) {
+                    counters.remove(index, setCounters);
+                    return;
+                }
+                try {
+                    documents.addUses(accesses.documents(), accesses.increments());
+                    setCounters.markFolded(accesses);
+                    return;
+                } catch (ArithmeticException e) {
+                    return;
+                } catch (IllegalStateException e) {
+                    // the set was spilled while it was read, the fold is repeated on the set read back
+                }
+            }
+        }
+    }
+}
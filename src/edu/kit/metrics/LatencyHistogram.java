@@ -0,0 +1,84 @@
+package edu.kit.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies with fixed, exponentially growing buckets.
+ * Latencies can be recorded concurrently without locking.
+ *
+ * @author uqfdp
+ */
+public class LatencyHistogram {
+    private static final long[] BUCKET_BOUNDS_NANOSECONDS = {
+        100_000L, 500_000L, 1_000_000L, 5_000_000L, 10_000_000L, 50_000_000L, 100_000_000L, 500_000_000L,
+        1_000_000_000L, 5_000_000_000L, 10_000_000_000L, 60_000_000_000L
+    };
+    private final AtomicLongArray bucketCounts;
+    private final LongAdder count;
+    private final LongAdder sumNanoseconds;
+
+    /**
+     * Constructs a new empty LatencyHistogram.
+     */
+    public LatencyHistogram() {
+        this.bucketCounts = new AtomicLongArray(BUCKET_BOUNDS_NANOSECONDS.length + 1);
+        this.count = new LongAdder();
+        this.sumNanoseconds = new LongAdder();
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanoseconds the latency in nanoseconds
+     */
+    public void record(long nanoseconds) {
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_NANOSECONDS.length && nanoseconds > BUCKET_BOUNDS_NANOSECONDS[bucket]) {
+            bucket++;
+        }
+        bucketCounts.incrementAndGet(bucket);
+        count.increment();
+        sumNanoseconds.add(nanoseconds);
+    }
+
+    /**
+     * Returns the inclusive upper bounds of the buckets, the last bucket without bound is not included.
+     *
+     * @return the upper bounds of the buckets in nanoseconds
+     */
+    public static long[] getBucketBounds() {
+        return BUCKET_BOUNDS_NANOSECONDS.clone();
+    }
+
+    /**
+     * Returns the number of latencies per bucket, including the last bucket without upper bound.
+     *
+     * @return the number of latencies per bucket
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[bucketCounts.length()];
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            counts[bucket] = bucketCounts.get(bucket);
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the number of recorded latencies
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of the recorded latencies.
+     *
+     * @return the sum of the recorded latencies in nanoseconds
+     */
+    public long getSumNanoseconds() {
+        return sumNanoseconds.sum();
+    }
+}
@@ -0,0 +1,287 @@
+package edu.kit.metrics;
+
+import edu.kit.command.CommandResult;
+import edu.kit.command.CommandType;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * The Metrics class collects the runtime metrics of the application.
+ * It counts the parsed documents, the evaluated information gains, the built tree nodes and the echoed bytes,
+ * and records the latency and the allocated bytes of every executed command per command type.
+ * All metrics can be updated concurrently without locking and are rendered either as a readable report
+ * or in the Prometheus text exposition format.
+ *
+ * @author uqfdp
+ */
+public final class Metrics {
+    private static final String METRIC_PREFIX = "fff_";
+    private static final String COUNTER_FORMAT = "# HELP %1$s%2$s %3$s%n# TYPE %1$s%2$s counter%n%1$s%2$s %4$d%n";
+    private static final String HISTOGRAM_HEADER_FORMAT = "# HELP %1$s%2$s %3$s%n# TYPE %1$s%2$s histogram%n";
+    private static final String BUCKET_FORMAT = "%s%s_bucket{command=\"%s\",le=\"%s\"} %d%n";
+    private static final String HISTOGRAM_SUM_FORMAT = "%s%s_sum{command=\"%s\"} %.9f%n";
+    private static final String HISTOGRAM_COUNT_FORMAT = "%s%s_count{command=\"%s\"} %d%n";
+    private static final String LABELED_COUNTER_HEADER_FORMAT = "# HELP %1$s%2$s %3$s%n# TYPE %1$s%2$s counter%n";
+    private static final String LABELED_COUNTER_FORMAT = "%s%s{command=\"%s\"} %d%n";
+    private static final String INFINITE_BOUND = "+Inf";
+    private static final String REPORT_COUNTER_FORMAT = "%s: %d%n";
+    private static final String REPORT_COMMAND_FORMAT = "%s: %d commands, %.3f ms total, %d bytes allocated%n";
+    private static final String REPORT_BUCKET_FORMAT = "  <= %s ms: %d%n";
+    private static final String REPORT_INFINITE_BUCKET_FORMAT = "  > %s ms: %d%n";
+    private static final double NANOSECONDS_PER_SECOND = 1e9;
+    private static final double NANOSECONDS_PER_MILLISECOND = 1e6;
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = getThreadMXBean();
+    private final LongAdder documentsParsed;
+    private final LongAdder gainEvaluations;
+    private final LongAdder treeNodesBuilt;
+    private final LongAdder bytesEchoed;
+    private final LongAdder accessEventsIngested;
+    private final LongAdder accessEventsDropped;
+    private final Map<CommandType, LatencyHistogram> latencies;
+    private final Map<CommandType, LongAdder> allocatedBytes;
+
+    /**
+     * Constructs a new Metrics instance with all metrics at zero.
+     */
+    public Metrics() {
+        this.documentsParsed = new LongAdder();
+        this.gainEvaluations = new LongAdder();
+        this.treeNodesBuilt = new LongAdder();
+        this.bytesEchoed = new LongAdder();
+        this.accessEventsIngested = new LongAdder();
+        this.accessEventsDropped = new LongAdder();
+        Map<CommandType, LatencyHistogram> commandLatencies = new EnumMap<>(CommandType.class);
+        Map<CommandType, LongAdder> commandAllocatedBytes = new EnumMap<>(CommandType.class);
+        for (CommandType type : CommandType.values()) {
+            commandLatencies.put(type, new LatencyHistogram());
+            commandAllocatedBytes.put(type, new LongAdder());
+        }
+        this.latencies = Collections.unmodifiableMap(commandLatencies);
+        this.allocatedBytes = Collections.unmodifiableMap(commandAllocatedBytes);
+    }
+
+    /**
+     * Counts parsed documents.
+     *
+     * @param count the number of parsed documents
+     */
+    public void countDocumentsParsed(long count) {
+        documentsParsed.add(count);
+    }
+
+    /**
+     * Counts one evaluation of the expected remaining uncertainty of an identifier in a node.
+     */
+    public void countGainEvaluation() {
+        gainEvaluations.increment();
+    }
+
+    /**
+     * Counts one built node of a structural tree.
+     */
+    public void countTreeNodeBuilt() {
+        treeNodesBuilt.increment();
+    }
+
+    /**
+     * Counts one ingested access event.
+     */
+    public void countAccessEventIngested() {
+        accessEventsIngested.increment();
+    }
+
+    /**
+     * Counts one access event dropped because of an unknown path.
+     */
+    public void countAccessEventDropped() {
+        accessEventsDropped.increment();
+    }
+
+    /**
+     * Counts the bytes of an output echoed to the user, encoded in UTF-8.
+     *
+     * @param output the echoed output
+     */
+    public void countBytesEchoed(String output) {
+        long bytes = 0;
+        for (int index = 0; index < output.length(); index++) {
+            char character = output.charAt(index);
+            if (character < 0x80) {
+                bytes++;
+            } else if (character < 0x800) {
+                bytes += 2;
+            } else if (Character.isSurrogate(character)) {
+                // both halves of a surrogate pair together make up one four byte sequence
+                bytes += 2;
+            } else {
+                bytes += 3;
+            }
+        }
+        bytesEchoed.add(bytes);
+    }
+
+    /**
+     * Executes a command and records its latency and the bytes it allocated on the calling thread.
+     * Allocations of other threads, like the workers of a parallel evaluation, are not attributed to the command.
+     *
+     * @param commandType the type of the command
+     * @param command the execution of the command
+     * @return the result of the command
+     */
+    public CommandResult record(CommandType commandType, Supplier<CommandResult> command) {
+        long allocatedBefore = getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        try {
+            return command.get();
+        } finally {
+            latencies.get(commandType).record(System.nanoTime() - start);
+            long allocatedAfter = getCurrentThreadAllocatedBytes();
+            if (allocatedBefore >= 0 && allocatedAfter >= allocatedBefore) {
+                allocatedBytes.get(commandType).add(allocatedAfter - allocatedBefore);
+            }
+        }
+    }
+
+    /**
+     * Returns a readable report of the metrics.
+     * Only the command types that were executed at least once are listed.
+     *
+     * @return the report of the metrics
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, REPORT_COUNTER_FORMAT, "Documents parsed", documentsParsed.sum()));
+        report.append(String.format(Locale.ROOT, REPORT_COUNTER_FORMAT, "Gain evaluations", gainEvaluations.sum()));
+        report.append(String.format(Locale.ROOT, REPORT_COUNTER_FORMAT, "Tree nodes built", treeNodesBuilt.sum()));
+        report.append(String.format(Locale.ROOT, REPORT_COUNTER_FORMAT, "Bytes echoed", bytesEchoed.sum()));
+        report.append(String.format(Locale.ROOT, REPORT_COUNTER_FORMAT,
+            "Access events ingested", accessEventsIngested.sum()));
+        report.append(String.format(Locale.ROOT, REPORT_COUNTER_FORMAT,
+            "Access events dropped", accessEventsDropped.sum()));
+
+        long[] bounds = LatencyHistogram.getBucketBounds();
+        for (CommandType type : CommandType.values()) {
+            LatencyHistogram histogram = latencies.get(type);
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            report.append(String.format(Locale.ROOT, REPORT_COMMAND_FORMAT, type, histogram.getCount(),
+                histogram.getSumNanoseconds() / NANOSECONDS_PER_MILLISECOND, allocatedBytes.get(type).sum()));
+            long[] counts = histogram.getBucketCounts();
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                if (counts[bucket] == 0) {
+                    continue;
+                }
+                report.append(bucket < bounds.length
+                    ? String.format(Locale.ROOT, REPORT_BUCKET_FORMAT,
+                        formatBound(bounds[bucket] / NANOSECONDS_PER_MILLISECOND), counts[bucket])
+                    : String.format(Locale.ROOT, REPORT_INFINITE_BUCKET_FORMAT,
+                        formatBound(bounds[bounds.length - 1] / NANOSECONDS_PER_MILLISECOND), counts[bucket]));
+            }
+        }
+        return report.toString().stripTrailing();
+    }
+
+    /**
+     * Returns the metrics in the Prometheus text exposition format.
+     * The buckets of the latency histograms are cumulative and their bounds are given in seconds.
+     *
+     * @return the metrics in the Prometheus text exposition format
+     */
+    public String toPrometheusText() {
+        StringBuilder text = new StringBuilder();
+        appendCounter(text, "documents_parsed_total", "Documents parsed by the LOAD command.", documentsParsed);
+        appendCounter(text, "gain_evaluations_total", "Evaluations of the information gain of an identifier.",
+            gainEvaluations);
+        appendCounter(text, "tree_nodes_built_total", "Nodes of structural trees built.", treeNodesBuilt);
+        appendCounter(text, "bytes_echoed_total", "Bytes of command output echoed to the user.", bytesEchoed);
+        appendCounter(text, "access_events_ingested_total", "Access events counted by the ingestion.",
+            accessEventsIngested);
+        appendCounter(text, "access_events_dropped_total", "Access events of unknown paths.", accessEventsDropped);
+
+        String latencyName = "command_latency_seconds";
+        text.append(String.format(Locale.ROOT, HISTOGRAM_HEADER_FORMAT, METRIC_PREFIX, latencyName,
+            "Latency of the executed commands."));
+        long[] bounds = LatencyHistogram.getBucketBounds();
+        for (CommandType type : CommandType.values()) {
+            String command = type.name().toLowerCase(Locale.ROOT);
+            LatencyHistogram histogram = latencies.get(type);
+            long[] counts = histogram.getBucketCounts();
+            long cumulativeCount = 0;
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                cumulativeCount += counts[bucket];
+                String bound = bucket < bounds.length
+                    ? formatBound(bounds[bucket] / NANOSECONDS_PER_SECOND) : INFINITE_BOUND;
+                text.append(String.format(Locale.ROOT, BUCKET_FORMAT, METRIC_PREFIX, latencyName,
+                    command, bound, cumulativeCount));
+            }
+            text.append(String.format(Locale.ROOT, HISTOGRAM_SUM_FORMAT, METRIC_PREFIX, latencyName,
+                command, histogram.getSumNanoseconds() / NANOSECONDS_PER_SECOND));
+            text.append(String.format(Locale.ROOT, HISTOGRAM_COUNT_FORMAT, METRIC_PREFIX, latencyName,
+                command, cumulativeCount));
+        }
+
+        String allocatedName = "command_allocated_bytes_total";
+        text.append(String.format(Locale.ROOT, LABELED_COUNTER_HEADER_FORMAT, METRIC_PREFIX, allocatedName,
+            "Bytes allocated by the executed commands on their own thread."));
+        for (CommandType type : CommandType.values()) {
+            text.append(String.format(Locale.ROOT, LABELED_COUNTER_FORMAT, METRIC_PREFIX, allocatedName,
+                type.name().toLowerCase(Locale.ROOT), allocatedBytes.get(type).sum()));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Appends a counter without labels in the Prometheus text exposition format.
+     *
+     * @param text the text to append to
+     * @param name the name of the counter without prefix
+     * @param help the description of the counter
+     * @param counter the counter
+     */
+    private static void appendCounter(StringBuilder text, String name, String help, LongAdder counter) {
+        text.append(String.format(Locale.ROOT, COUNTER_FORMAT, METRIC_PREFIX, name, help, counter.sum()));
+    }
+
+    /**
+     * Formats a bucket bound without trailing zeros.
+     *
+     * @param bound the bound
+     * @return the formatted bound
+     */
+    private static String formatBound(double bound) {
+        return BigDecimal.valueOf(bound).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Returns the number of bytes allocated by the calling thread so far.
+     *
+     * @return the allocated bytes or -1 if the measurement is not supported
+     */
+    private static long getCurrentThreadAllocatedBytes() {
+        return THREAD_MX_BEAN == null ? -1 : THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Returns the thread bean measuring the allocated bytes per thread and enables the measurement.
+     *
+     * @return the thread bean or null if the measurement is not supported by this virtual machine
+     */
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean)
+                || !threadMXBean.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        if (!threadMXBean.isThreadAllocatedMemoryEnabled()) {
+            threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return threadMXBean;
+    }
+}
@@ -0,0 +1,143 @@
+package edu.kit.metrics;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The MetricsExporter class exports metrics in the Prometheus text exposition format.
+ * The metrics are either written once to a file or served over HTTP on a port of the loopback interface,
+ * where every request receives the current metrics, regardless of its path.
+ * An exporter serves on at most one port: serving on another port replaces the current server once the new port
+ * is bound, and closing the exporter stops serving. A client that does not finish its request within the read
+ * timeout is dropped, so it cannot block the clients after it.
+ *
+ * @author uqfdp
+ */
+public final class MetricsExporter {
+    private static final String THREAD_NAME_FORMAT = "metrics-exporter-%d";
+    private static final String RESPONSE_HEADER_FORMAT = "HTTP/1.1 200 OK\r\n"
+        + "Content-Type: text/plain; version=0.0.4; charset=utf-8\r\n"
+        + "Content-Length: %d\r\n"
+        + "Connection: close\r\n\r\n";
+    private static final int READ_TIMEOUT_MILLIS = 5_000;
+    private final Metrics metrics;
+    private ServerSocket server;
+
+    /**
+     * Constructs a new MetricsExporter.
+     *
+     * @param metrics the metrics to export
+     */
+    public MetricsExporter(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Writes the current metrics to a file, replacing its content.
+     *
+     * @param file the file to write the metrics to
+     * @throws IOException if the file cannot be written
+     */
+    public void writeFile(Path file) throws IOException {
+        Files.writeString(file, metrics.toPrometheusText(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Starts serving the metrics over HTTP on a port of the loopback interface.
+     * The requests are answered one after another on a daemon thread, so the endpoint does not keep
+     * the application alive after it quit. If the exporter already serves on another port, that server is closed
+     * after the new port is bound, and it keeps serving if the new port cannot be bound.
+     *
+     * @param port the port to serve the metrics on or 0 for an ephemeral port
+     * @return the port the metrics are served on
+     * @throws IOException if the port cannot be bound
+     */
+    public synchronized int serve(int port) throws IOException {
+        if (server != null && server.getLocalPort() == port) {
+            return port;
+        }
+
+        ServerSocket newServer = new ServerSocket();
+        try {
+            newServer.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        } catch (IOException e) {
+            newServer.close();
+            throw e;
+        }
+        close();
+        server = newServer;
+        int boundPort = newServer.getLocalPort();
+        Thread thread = new Thread(() -> acceptRequests(newServer), THREAD_NAME_FORMAT.formatted(boundPort));
+        thread.setDaemon(true);
+        thread.start();
+        return boundPort;
+    }
+
+    /**
+     * Stops serving the metrics. The thread answering the requests ends once its current request is answered.
+     */
+    public synchronized void close() {
+        if (server == null) {
+            return;
+        }
+        try {
+            server.close();
+        } catch (IOException e) {
+            // the server socket could not be closed, it is released with the process
+        }
+        server = null;
+    }
+
+    /**
+     * Answers the requests on a server socket until it is closed or fails.
+     *
+     * @param server the bound server socket
+     */
+    private void acceptRequests(ServerSocket server) {
+        try (server) {
+            while (true) {
+                try (Socket client = server.accept()) {
+                    client.setSoTimeout(READ_TIMEOUT_MILLIS);
+                    answerRequest(client);
+                } catch (IOException e) {
+                    // a failing client only loses its own response
+                    if (server.isClosed()) {
+                        return;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // the server socket could not be closed, it is released with the process
+        }
+    }
+
+    /**
+     * Reads the header of a request and answers it with the current metrics.
+     *
+     * @param client the connection to the client
+     * @throws IOException if the request cannot be read within the read timeout or the response cannot be written
+     */
+    private void answerRequest(Socket client) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(client.getInputStream(),
+            StandardCharsets.ISO_8859_1));
+        String line;
+        while ((line = reader.readLine()) != null && !line.isEmpty()) {
+            // the request is answered the same way for any method and path
+        }
+
+        byte[] body = metrics.toPrometheusText().getBytes(StandardCharsets.UTF_8);
+        OutputStream output = client.getOutputStream();
+        output.write(RESPONSE_HEADER_FORMAT.formatted(body.length).getBytes(StandardCharsets.ISO_8859_1));
+        output.write(body);
+        output.flush();
+    }
+}
@@ -0,0 +1,120 @@
+package edu.kit.util;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * This class opens and closes the server sockets of local clients.
+ * An address is either a TCP port on the loopback interface or {@code unix:} followed by the path of a Unix
+ * domain socket. The file of a Unix domain socket outlives its server, so a stale file left behind by a server
+ * that was killed is removed before binding, and the file is removed again when the server is closed or the
+ * virtual machine exits.
+ *
+ * @author uqfdp
+ */
+public final class LocalSockets {
+    private static final String UNIX_SOCKET_PREFIX = "unix:";
+
+    /**
+     * Private constructor to prevent instantiation because this class is a utility class.
+     */
+    private LocalSockets() {
+    }
+
+    /**
+     * Returns whether an address is the address of a Unix domain socket.
+     *
+     * @param address the address
+     * @return true if the address starts with {@code unix:}, false otherwise
+     */
+    public static boolean isUnixSocket(String address) {
+        return address.startsWith(UNIX_SOCKET_PREFIX);
+    }
+
+    /**
+     * Opens a server socket bound to a local address.
+     *
+     * @param address the port or {@code unix:} followed by the path of the socket
+     * @return the bound server socket
+     * @throws IOException if the socket cannot be opened or bound
+     * @throws IllegalArgumentException if the address is neither a valid port nor a Unix domain socket
+     */
+    public static ServerSocketChannel openServer(String address) throws IOException {
+        SocketAddress socketAddress;
+        StandardProtocolFamily protocolFamily;
+        if (isUnixSocket(address)) {
+            UnixDomainSocketAddress unixAddress = UnixDomainSocketAddress.of(
+                    address.substring(UNIX_SOCKET_PREFIX.length()));
+            removeStaleSocket(unixAddress);
+            socketAddress = unixAddress;
+            protocolFamily = StandardProtocolFamily.UNIX;
+        } else {
+            InetAddress loopbackAddress = InetAddress.getLoopbackAddress();
+            socketAddress = new InetSocketAddress(loopbackAddress, Integer.parseInt(address));
+            protocolFamily = loopbackAddress.getAddress().length == 4
+                ? StandardProtocolFamily.INET : StandardProtocolFamily.INET6;
+        }
+
+        ServerSocketChannel server = ServerSocketChannel.open(protocolFamily);
+        try {
+            server.bind(socketAddress);
+        } catch (IOException e) {
+            server.close();
+            throw e;
+        }
+        if (socketAddress instanceof UnixDomainSocketAddress unixAddress) {
+            unixAddress.getPath().toFile().deleteOnExit();
+        }
+        return server;
+    }
+
+    /**
+     * Closes a server socket opened by {@link #openServer(String)} and removes the file of a Unix domain socket.
+     * Failures are ignored, since the server is of no further use.
+     *
+     * @param server the server socket
+     */
+    public static void closeServer(ServerSocketChannel server) {
+        try {
+            SocketAddress socketAddress = server.getLocalAddress();
+            server.close();
+            if (socketAddress instanceof UnixDomainSocketAddress unixAddress) {
+                Files.deleteIfExists(unixAddress.getPath());
+            }
+        } catch (IOException e) {
+            // the socket is closed or its file is gone already
+        }
+    }
+
+    /**
+     * Removes the file of a Unix domain socket that no server accepts connections on anymore.
+     * Other files and sockets of running servers are kept, so binding fails for them.
+     *
+     * @param address the address of the socket
+     */
+    private static void removeStaleSocket(UnixDomainSocketAddress address) {
+        Path path = address.getPath();
+        if (!Files.exists(path) || Files.isRegularFile(path) || Files.isDirectory(path)) {
+            return;
+        }
+        try {
+            SocketChannel.open(address).close();
+            return;
+        } catch (IOException e) {
+            // no server accepts connections on the socket, so its file is stale
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // binding reports that the file is still in use
+        }
+    }
+}
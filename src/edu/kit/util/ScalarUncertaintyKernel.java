@@ -0,0 +1,110 @@
+package edu.kit.util;
+
+import edu.kit.document.DocumentSet;
+
+/**
+ * This class implements the uncertainty kernels with plain loops.
+ * It is the default kernel and the fallback if the vector kernel is not available.
+ * The u * log2(u) are accumulated with a blocked compensated summation: the i-th of the given groups is added to
+ * the lane i mod {@value #LANES} by the compensated summation of Neumaier, and the lanes are combined in a fixed
+ * order at the end. The vector kernel sums the lanes of full blocks with vectors, so both kernels produce
+ * bit-identical results.
+ *
+ * @author uqfdp
+ */
+public class ScalarUncertaintyKernel implements UncertaintyKernel {
+    /**
+     * The number of lanes of the blocked compensated summation.
+     */
+    static final int LANES = 8;
+
+    @Override
+    public long accumulateUses(long[] uses, int[] groups) {
+        long sum = 0;
+        for (int group : groups) {
+            sum += uses[group];
+        }
+        return sum;
+    }
+
+    @Override
+    public double accumulateUsesLog2Uses(double[] usesLog2Uses, int[] groups) {
+        double[] sums = new double[LANES];
+        double[] compensations = new double[LANES];
+        accumulateLanes(usesLog2Uses, groups, 0, sums, compensations);
+        return combineLanes(sums, compensations, 0);
+    }
+
+    @Override
+    public void accumulatePartitions(int[] valueIds, long[] uses, double[] usesLog2Uses, int[] groups,
+                                     long[] usesPerValue, double[] usesLog2UsesPerValue) {
+        double[] sums = new double[usesPerValue.length * LANES];
+        double[] compensations = new double[usesPerValue.length * LANES];
+        accumulatePartitionLanes(valueIds, uses, usesLog2Uses, groups, 0, usesPerValue, sums, compensations);
+        for (int value = 0; value < usesPerValue.length; value++) {
+            usesLog2UsesPerValue[value] += combineLanes(sums, compensations, value * LANES);
+        }
+    }
+
+    /**
+     * Adds the uses and the u * log2(u) of the given groups from a position on to their values,
+     * the u * log2(u) to the lanes of their values. Groups with the undefined value id are skipped.
+     *
+     * @param valueIds the column of the value ids indexed by group
+     * @param uses the column of the uses indexed by group
+     * @param usesLog2Uses the column of the u * log2(u) indexed by group
+     * @param groups the indices of the groups to accumulate
+     * @param start the position in the groups to start at
+     * @param usesPerValue the accumulated uses indexed by value id
+     * @param sums the sums of the lanes, {@value #LANES} per value id
+     * @param compensations the accumulated rounding errors of the lanes, {@value #LANES} per value id
+     */
+    static void accumulatePartitionLanes(int[] valueIds, long[] uses, double[] usesLog2Uses, int[] groups, int start,
+                                         long[] usesPerValue, double[] sums, double[] compensations) {
+        for (int i = start; i < groups.length; i++) {
+            int group = groups[i];
+            int value = valueIds[group];
+            if (value != DocumentSet.UNDEFINED_VALUE_ID) {
+                usesPerValue[value] += uses[group];
+                int lane = value * LANES + (i & (LANES - 1));
+                compensations[lane] += Uncertainty.getSummationError(sums[lane], usesLog2Uses[group]);
+                sums[lane] += usesLog2Uses[group];
+            }
+        }
+    }
+
+    /**
+     * Adds the values of the given groups from a position on to their lanes.
+     *
+     * @param values the column of the values indexed by group
+     * @param groups the indices of the groups to accumulate
+     * @param start the position in the groups to start at
+     * @param sums the sums of the lanes
+     * @param compensations the accumulated rounding errors of the lanes
+     */
+    static void accumulateLanes(double[] values, int[] groups, int start, double[] sums, double[] compensations) {
+        for (int i = start; i < groups.length; i++) {
+            int lane = i & (LANES - 1);
+            compensations[lane] += Uncertainty.getSummationError(sums[lane], values[groups[i]]);
+            sums[lane] += values[groups[i]];
+        }
+    }
+
+    /**
+     * Combines the lanes of a blocked compensated summation in ascending order of the lanes.
+     *
+     * @param sums the sums of the lanes
+     * @param compensations the accumulated rounding errors of the lanes
+     * @param offset the index of the first lane
+     * @return the compensated sum of all lanes
+     */
+    static double combineLanes(double[] sums, double[] compensations, int offset) {
+        double sum = 0;
+        double compensation = 0;
+        for (int lane = offset; lane < offset + LANES; lane++) {
+            compensation += Uncertainty.getSummationError(sum, sums[lane]) + compensations[lane];
+            sum += sums[lane];
+        }
+        return sum + compensation;
+    }
+}
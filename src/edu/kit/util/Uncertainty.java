@@ -0,0 +1,120 @@
+package edu.kit.util;
+
+/**
+ * This class provides the kernels to calculate the uncertainty of documents from their integer uses.
+ * The uncertainty of documents with the uses u and the accumulated uses T is calculated as
+ * log2(T) - (1/T) * sum(u * log2(u)), so the probabilities of the documents are never materialized.
+ * It also selects the kernel reducing the columns of document sets: the vector kernel is used if the system property
+ * {@value #KERNEL_PROPERTY} is set to {@value #VECTOR_KERNEL} and the module jdk.incubator.vector is available,
+ * otherwise the scalar kernel is used.
+ *
+ * @author uqfdp
+ */
+public final class Uncertainty {
+    /**
+     * The system property selecting the kernel.
+     */
+    public static final String KERNEL_PROPERTY = "edu.kit.kernel";
+    /**
+     * The value of the kernel property selecting the vector kernel.
+     */
+    public static final String VECTOR_KERNEL = "vector";
+    private static final String VECTOR_KERNEL_CLASS = "edu.kit.util.VectorUncertaintyKernel";
+    private static final int TABLE_SIZE = 1 << 12;
+    private static final double INVERSE_LN_2 = 1 / Math.log(2);
+    private static final double[] USES_LOG2_USES = new double[TABLE_SIZE];
+    private static final UncertaintyKernel KERNEL = createKernel();
+
+    static {
+        for (int uses = 1; uses < TABLE_SIZE; uses++) {
+            USES_LOG2_USES[uses] = uses * Math.log(uses) * INVERSE_LN_2;
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation because this class is a utility class.
+     */
+    private Uncertainty() {
+    }
+
+    /**
+     * Returns the kernel selected for this process.
+     *
+     * @return the uncertainty kernel
+     */
+    public static UncertaintyKernel getKernel() {
+        return KERNEL;
+    }
+
+    /**
+     * Creates the vector kernel if it is requested and available, otherwise the scalar kernel.
+     * The vector kernel is loaded reflectively, so that a missing incubator module falls back to the scalar kernel.
+     *
+     * @return the created kernel
+     */
+    private static UncertaintyKernel createKernel() {
+        if (!VECTOR_KERNEL.equalsIgnoreCase(System.getProperty(KERNEL_PROPERTY))) {
+            return new ScalarUncertaintyKernel();
+        }
+        try {
+            return (UncertaintyKernel) Class.forName(VECTOR_KERNEL_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            return new ScalarUncertaintyKernel();
+        }
+    }
+
+    /**
+     * Returns u * log2(u) for the given uses, where 0 * log2(0) is defined as 0.
+     * Small uses are looked up in a precomputed table.
+     *
+     * @param uses the uses u
+     * @return u * log2(u)
+     */
+    public static double usesLog2Uses(long uses) {
+        if (uses < TABLE_SIZE) {
+            return uses <= 0 ? 0 : USES_LOG2_USES[(int) uses];
+        }
+        return uses * log2(uses);
+    }
+
+    /**
+     * Returns the rounding error of adding a value to a sum, following the compensated summation of Neumaier.
+     * Accumulating these errors separately and adding them to the sum at the end corrects the sum.
+     *
+     * @param sum the sum before the addition
+     * @param value the value to add
+     * @return the rounding error of sum + value
+     */
+    public static double getSummationError(double sum, double value) {
+        double newSum = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            return (sum - newSum) + value;
+        }
+        return (value - newSum) + sum;
+    }
+
+    /**
+     * Returns the binary logarithm of the given uses.
+     *
+     * @param uses the uses, must be positive
+     * @return log2 of the uses
+     */
+    public static double log2(long uses) {
+        return Math.log(uses) * INVERSE_LN_2;
+    }
+
+    /**
+     * Returns the uncertainty of documents with the given accumulated uses.
+     * Rounding errors that would result in a negative uncertainty are cut off at 0.
+     *
+     * @param accumulatedUses the accumulated uses T of the documents
+     * @param accumulatedUsesLog2Uses the accumulated u * log2(u) of the documents
+     * @return the uncertainty of the documents or 0 if the documents are not used at all
+     */
+    public static double of(long accumulatedUses, double accumulatedUsesLog2Uses) {
+        if (accumulatedUses <= 0) {
+            return 0;
+        }
+        return Math.max(0, log2(accumulatedUses) - accumulatedUsesLog2Uses / accumulatedUses);
+    }
+}
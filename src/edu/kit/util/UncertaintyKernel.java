@@ -0,0 +1,45 @@
+package edu.kit.util;
+
+/**
+ * This interface represents the kernels reducing the primitive columns of a document set,
+ * which are the inner loops of the information gain computation.
+ * All kernels only visit the groups given by their indices.
+ * Uses are summed with wrapping long arithmetic, which is exact as long as the result fits into a long.
+ * Every kernel has to produce the same result for the same input, independent of the calling thread.
+ *
+ * @author uqfdp
+ */
+public interface UncertaintyKernel {
+
+    /**
+     * Returns the accumulated uses of the given groups.
+     *
+     * @param uses the column of the uses indexed by group
+     * @param groups the indices of the groups to accumulate
+     * @return the accumulated uses
+     */
+    long accumulateUses(long[] uses, int[] groups);
+
+    /**
+     * Returns the accumulated u * log2(u) of the given groups.
+     *
+     * @param usesLog2Uses the column of the u * log2(u) indexed by group
+     * @param groups the indices of the groups to accumulate
+     * @return the accumulated u * log2(u)
+     */
+    double accumulateUsesLog2Uses(double[] usesLog2Uses, int[] groups);
+
+    /**
+     * Accumulates the uses and the u * log2(u) of the given groups per value id, which is the contingency
+     * of an identifier. Groups with the undefined value id are skipped.
+     *
+     * @param valueIds the column of the value ids indexed by group
+     * @param uses the column of the uses indexed by group
+     * @param usesLog2Uses the column of the u * log2(u) indexed by group
+     * @param groups the indices of the groups to accumulate
+     * @param usesPerValue the accumulated uses indexed by value id
+     * @param usesLog2UsesPerValue the accumulated u * log2(u) indexed by value id
+     */
+    void accumulatePartitions(int[] valueIds, long[] uses, double[] usesLog2Uses, int[] groups,
+                              long[] usesPerValue, double[] usesLog2UsesPerValue);
+}
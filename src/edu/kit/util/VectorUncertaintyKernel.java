@@ -0,0 +1,158 @@
+package edu.kit.util;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * This class implements the uncertainty kernels with the incubating Vector API.
+ * Only nodes whose groups form a contiguous range of indices, like the root of a tree, are vectorized,
+ * since they can be read with contiguous loads. Gathering scattered groups is not faster than the scalar loop,
+ * so all other nodes and contingencies of identifiers with many values are delegated to the scalar kernel.
+ * The u * log2(u) are accumulated by the blocked compensated summation of the scalar kernel: every block of
+ * {@value ScalarUncertaintyKernel#LANES} groups is held by two vectors of four lanes, which apply the compensated
+ * summation of Neumaier lane by lane. The remaining groups and the combination of the lanes are left to the
+ * scalar kernel, so both kernels produce bit-identical information gains and choose the same identifiers.
+ * It requires the module jdk.incubator.vector at runtime and is only created through {@link Uncertainty#getKernel()}.
+ *
+ * @author uqfdp
+ */
+final class VectorUncertaintyKernel implements UncertaintyKernel {
+    private static final int MAXIMUM_VECTORIZED_VALUES = 8;
+    private static final int LANES = ScalarUncertaintyKernel.LANES;
+    private static final VectorSpecies<Double> DOUBLE_SPECIES = DoubleVector.SPECIES_256;
+    private static final VectorSpecies<Long> LONG_SPECIES = LongVector.SPECIES_256;
+    private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_128;
+    private static final int HALF = DOUBLE_SPECIES.length();
+    private final UncertaintyKernel scalarKernel = new ScalarUncertaintyKernel();
+
+    @Override
+    public long accumulateUses(long[] uses, int[] groups) {
+        if (!isContiguous(groups)) {
+            return scalarKernel.accumulateUses(uses, groups);
+        }
+
+        int first = groups[0];
+        int bound = LONG_SPECIES.loopBound(groups.length);
+        LongVector sum = LongVector.zero(LONG_SPECIES);
+        int i = 0;
+        for (; i < bound; i += LONG_SPECIES.length()) {
+            sum = sum.add(LongVector.fromArray(LONG_SPECIES, uses, first + i));
+        }
+
+        long result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < groups.length; i++) {
+            result += uses[first + i];
+        }
+        return result;
+    }
+
+    @Override
+    public double accumulateUsesLog2Uses(double[] usesLog2Uses, int[] groups) {
+        if (!isContiguous(groups)) {
+            return scalarKernel.accumulateUsesLog2Uses(usesLog2Uses, groups);
+        }
+
+        int first = groups[0];
+        int bound = groups.length - groups.length % LANES;
+        DoubleVector lowSum = DoubleVector.zero(DOUBLE_SPECIES);
+        DoubleVector lowCompensation = DoubleVector.zero(DOUBLE_SPECIES);
+        DoubleVector highSum = DoubleVector.zero(DOUBLE_SPECIES);
+        DoubleVector highCompensation = DoubleVector.zero(DOUBLE_SPECIES);
+        for (int i = 0; i < bound; i += LANES) {
+            DoubleVector low = DoubleVector.fromArray(DOUBLE_SPECIES, usesLog2Uses, first + i);
+            DoubleVector high = DoubleVector.fromArray(DOUBLE_SPECIES, usesLog2Uses, first + i + HALF);
+            lowCompensation = lowCompensation.add(getSummationError(lowSum, low));
+            lowSum = lowSum.add(low);
+            highCompensation = highCompensation.add(getSummationError(highSum, high));
+            highSum = highSum.add(high);
+        }
+
+        double[] sums = new double[LANES];
+        double[] compensations = new double[LANES];
+        lowSum.intoArray(sums, 0);
+        highSum.intoArray(sums, HALF);
+        lowCompensation.intoArray(compensations, 0);
+        highCompensation.intoArray(compensations, HALF);
+        ScalarUncertaintyKernel.accumulateLanes(usesLog2Uses, groups, bound, sums, compensations);
+        return ScalarUncertaintyKernel.combineLanes(sums, compensations, 0);
+    }
+
+    @Override
+    public void accumulatePartitions(int[] valueIds, long[] uses, double[] usesLog2Uses, int[] groups,
+                                     long[] usesPerValue, double[] usesLog2UsesPerValue) {
+        if (usesPerValue.length > MAXIMUM_VECTORIZED_VALUES || !isContiguous(groups)) {
+            scalarKernel.accumulatePartitions(valueIds, uses, usesLog2Uses, groups, usesPerValue, usesLog2UsesPerValue);
+            return;
+        }
+
+        int first = groups[0];
+        int bound = groups.length - groups.length % LANES;
+        double[] sums = new double[usesPerValue.length * LANES];
+        double[] compensations = new double[usesPerValue.length * LANES];
+        for (int value = 1; value < usesPerValue.length; value++) {
+            LongVector lowUses = LongVector.zero(LONG_SPECIES);
+            LongVector highUses = LongVector.zero(LONG_SPECIES);
+            DoubleVector lowSum = DoubleVector.zero(DOUBLE_SPECIES);
+            DoubleVector lowCompensation = DoubleVector.zero(DOUBLE_SPECIES);
+            DoubleVector highSum = DoubleVector.zero(DOUBLE_SPECIES);
+            DoubleVector highCompensation = DoubleVector.zero(DOUBLE_SPECIES);
+            for (int i = 0; i < bound; i += LANES) {
+                VectorMask<Long> lowHasValue = IntVector.fromArray(INT_SPECIES, valueIds, first + i)
+                        .convertShape(VectorOperators.I2L, LONG_SPECIES, 0).compare(VectorOperators.EQ, value);
+                VectorMask<Long> highHasValue = IntVector.fromArray(INT_SPECIES, valueIds, first + i + HALF)
+                        .convertShape(VectorOperators.I2L, LONG_SPECIES, 0).compare(VectorOperators.EQ, value);
+                lowUses = lowUses.add(LongVector.fromArray(LONG_SPECIES, uses, first + i), lowHasValue);
+                highUses = highUses.add(LongVector.fromArray(LONG_SPECIES, uses, first + i + HALF), highHasValue);
+
+                VectorMask<Double> lowMask = lowHasValue.cast(DOUBLE_SPECIES);
+                VectorMask<Double> highMask = highHasValue.cast(DOUBLE_SPECIES);
+                DoubleVector low = DoubleVector.fromArray(DOUBLE_SPECIES, usesLog2Uses, first + i);
+                DoubleVector high = DoubleVector.fromArray(DOUBLE_SPECIES, usesLog2Uses, first + i + HALF);
+                lowCompensation = lowCompensation.add(getSummationError(lowSum, low), lowMask);
+                lowSum = lowSum.add(low, lowMask);
+                highCompensation = highCompensation.add(getSummationError(highSum, high), highMask);
+                highSum = highSum.add(high, highMask);
+            }
+
+            usesPerValue[value] += lowUses.add(highUses).reduceLanes(VectorOperators.ADD);
+            lowSum.intoArray(sums, value * LANES);
+            highSum.intoArray(sums, value * LANES + HALF);
+            lowCompensation.intoArray(compensations, value * LANES);
+            highCompensation.intoArray(compensations, value * LANES + HALF);
+        }
+
+        ScalarUncertaintyKernel.accumulatePartitionLanes(valueIds, uses, usesLog2Uses, groups, bound, usesPerValue,
+                sums, compensations);
+        for (int value = 0; value < usesPerValue.length; value++) {
+            usesLog2UsesPerValue[value] += ScalarUncertaintyKernel.combineLanes(sums, compensations, value * LANES);
+        }
+    }
+
+    /**
+     * Returns the rounding errors of adding values to sums lane by lane, like
+     * {@link Uncertainty#getSummationError(double, double)}.
+     *
+     * @param sum the sums before the addition
+     * @param value the values to add
+     * @return the rounding errors of sum + value
+     */
+    private static DoubleVector getSummationError(DoubleVector sum, DoubleVector value) {
+        DoubleVector newSum = sum.add(value);
+        VectorMask<Double> sumIsLarger = sum.abs().compare(VectorOperators.GE, value.abs());
+        return value.sub(newSum).add(sum).blend(sum.sub(newSum).add(value), sumIsLarger);
+    }
+
+    /**
+     * Returns whether the given ascending group indices form a contiguous range.
+     *
+     * @param groups the indices of the groups in ascending order
+     * @return true if the groups form a contiguous, non-empty range
+     */
+    private static boolean isContiguous(int[] groups) {
+        return groups.length > 0 && groups[groups.length - 1] - groups[0] == groups.length - 1;
+    }
+}
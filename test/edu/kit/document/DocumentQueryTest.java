@@ -0,0 +1,160 @@
+package edu.kit.document;
+
+import edu.kit.DocumentHandler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests the grammar of the predicates of document queries and the order of the documents they find.
+ *
+ * @author uqfdp
+ */
+class DocumentQueryTest {
+    private static final long SEED = 45L;
+    private static final int SETS = 300;
+    private static final int MAXIMUM_DOCUMENTS = 80;
+    private static final int MAXIMUM_USES = 6;
+    private static final List<String> IDENTIFIERS = List.of("author", "mood");
+
+    @Test
+    void tagsMatchByValueOrIdentifier() {
+        DocumentSet documents = createCatalog();
+
+        assertEquals(List.of("a.txt", "e.txt"), find(documents, "author=alice"));
+        assertEquals(List.of("c.txt", "a.txt", "e.txt"), find(documents, "mood"));
+        assertEquals(List.of(), find(documents, "author=Alice"));
+        assertEquals(List.of("a.txt", "e.txt"), find(documents, "AUTHOR=alice"));
+    }
+
+    @Test
+    void undefinedValueMatchesDocumentsWithoutTheIdentifier() {
+        DocumentSet documents = createCatalog();
+
+        assertEquals(List.of("b.txt", "d.txt"), find(documents, "mood=" + Tag.UNDEFINED_VALUE_REPRESENTATION));
+        assertEquals(find(documents, "NOT mood"), find(documents, "mood=" + Tag.UNDEFINED_VALUE_REPRESENTATION));
+    }
+
+    @Test
+    void typeFilterIgnoresTheCase() {
+        DocumentSet documents = createCatalog();
+
+        assertEquals(List.of("c.txt", "e.txt"), find(documents, "type:audio"));
+        assertEquals(List.of("c.txt", "e.txt"), find(documents, "TYPE:Audio"));
+    }
+
+    @Test
+    void operatorsBindLikeTheGrammar() {
+        DocumentSet documents = createCatalog();
+
+        assertEquals(List.of("c.txt", "d.txt"), find(documents, "NOT author"));
+        assertEquals(List.of("c.txt", "a.txt", "e.txt"), find(documents, "author=alice", "OR", "mood=sad"));
+        assertEquals(List.of("c.txt", "a.txt"), find(documents, "mood=happy or mood=sad and not author"));
+        assertEquals(List.of("c.txt"), find(documents, "(mood=happy OR mood=sad) AND NOT author"));
+        assertEquals(List.of("b.txt"), find(documents, "not (author=alice or mood=sad) and type:text"));
+        assertEquals(List.of("c.txt"), find(documents, "((mood=sad) AND (NOT (author=alice)))"));
+        assertEquals(List.of("c.txt", "a.txt", "e.txt"), find(documents, "NOT NOT mood"));
+    }
+
+    @Test
+    void invalidPredicatesAreRejected() {
+        for (String predicate : List.of("", "(", ")", "()", "author AND", "OR author", "author OR OR mood",
+                "author=", "=alice", "author=a=b", "type:nothing", "(author", "author)", "NOT", "author mood",
+                "NOT AND author", "(author) (mood)")) {
+            assertNull(DocumentQuery.parse(predicate), predicate);
+        }
+    }
+
+    @Test
+    void matchesAreOrderedByDescendingUsesAndPath() {
+        Random random = new Random(SEED);
+        for (int set = 0; set < SETS; set++) {
+            DocumentSet documents = generateDocumentSet(random);
+            for (String identifier : IDENTIFIERS) {
+                List<String> expected = new ArrayList<>();
+                List<Integer> matches = new ArrayList<>();
+                for (int document = 0; document < documents.getDocumentCount(); document++) {
+                    for (Tag tag : documents.getGroups().get(documents.getDocumentGroup(document)).getTags()) {
+                        if (tag.getIdentifier().equals(identifier)) {
+                            matches.add(document);
+                        }
+                    }
+                }
+                matches.sort(Comparator.<Integer>comparingLong(documents::getDocumentWeight).reversed()
+                        .thenComparing(documents::getDocumentPath));
+                matches.forEach(document -> expected.add(documents.getDocumentPath(document)));
+
+                assertEquals(expected, find(documents, identifier), "set " + set + ", " + identifier);
+            }
+        }
+    }
+
+    /**
+     * Finds the paths of the documents matching a predicate, holding the read lock like the FIND command.
+     *
+     * @param documents the document set
+     * @param predicate the parts of the predicate
+     * @return the paths of the matching documents in the order they were found
+     */
+    private static List<String> find(DocumentSet documents, String... predicate) {
+        DocumentQuery query = DocumentQuery.parse(predicate);
+        List<String> paths = new ArrayList<>();
+        documents.getReadLock().lock();
+        try {
+            for (int document : query.find(documents)) {
+                paths.add(documents.getDocumentPath(document));
+            }
+        } finally {
+            documents.getReadLock().unlock();
+        }
+        return paths;
+    }
+
+    /**
+     * Creates a small catalog of documents of three types, some of them missing an identifier.
+     *
+     * @return the document set of the catalog
+     */
+    private static DocumentSet createCatalog() {
+        Set<Document> documents = new LinkedHashSet<>();
+        documents.add(DocumentHandler.createDocument(DocumentType.TEXT, "a.txt",
+                Set.of(new Tag("author", "alice"), new Tag("mood", "happy")), 5));
+        documents.add(DocumentHandler.createDocument(DocumentType.TEXT, "b.txt", Set.of(new Tag("author", "bob")), 5));
+        documents.add(DocumentHandler.createDocument(DocumentType.AUDIO, "c.txt", Set.of(new Tag("mood", "sad")), 9));
+        documents.add(DocumentHandler.createDocument(DocumentType.IMAGE, "d.txt", Set.of(), 1));
+        documents.add(DocumentHandler.createDocument(DocumentType.AUDIO, "e.txt",
+                Set.of(new Tag("author", "alice"), new Tag("mood", "sad")), 5));
+        return new DocumentSet(documents);
+    }
+
+    /**
+     * Generates a document set of text documents with few distinct uses, so that many documents tie in their uses.
+     *
+     * @param random the source of randomness
+     * @return the document set
+     */
+    private static DocumentSet generateDocumentSet(Random random) {
+        int documentCount = random.nextInt(MAXIMUM_DOCUMENTS);
+        Set<Document> documents = new LinkedHashSet<>();
+        for (int document = 0; document < documentCount; document++) {
+            Set<Tag> tags = new HashSet<>();
+            for (String identifier : IDENTIFIERS) {
+                if (random.nextBoolean()) {
+                    tags.add(new Tag(identifier, "v" + random.nextInt(3)));
+                }
+            }
+            documents.add(DocumentHandler.createDocument(DocumentType.TEXT, random.nextInt(1_000) + "-" + document
+                    + ".txt", tags, random.nextInt(MAXIMUM_USES) * (random.nextBoolean() ? 1 : 1_000_000_000_000L)));
+        }
+        return new DocumentSet(documents);
+    }
+}
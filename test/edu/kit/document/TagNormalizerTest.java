@@ -0,0 +1,53 @@
+package edu.kit.document;
+
+import edu.kit.document.implementations.TextDocument;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests the normalization of tags into the buffer of a loader.
+ *
+ * @author uqfdp
+ */
+class TagNormalizerTest {
+
+    @Test
+    void documentsWithEqualTagsShareTheirSet() {
+        TagNormalizer.Buffer buffer = new TagNormalizer.Buffer();
+        Set<Tag> tags = TextDocument.TAG_NORMALIZER.normalize(
+                createTags(new Tag("genre", "news"), new Tag("words", "120")), buffer);
+        Set<Tag> sameTags = TextDocument.TAG_NORMALIZER.normalize(
+                createTags(new Tag("words", "150"), new Tag("genre", "news")), buffer);
+
+        assertSame(tags, sameTags);
+        assertEquals(TextDocument.TAG_NORMALIZER.normalize(
+                createTags(new Tag("genre", "news"), new Tag("words", "120"))), tags);
+    }
+
+    @Test
+    void tagsWithEqualHashCodesAreNotShared() {
+        TagNormalizer.Buffer buffer = new TagNormalizer.Buffer();
+        Set<Tag> tags = TextDocument.TAG_NORMALIZER.normalize(createTags(new Tag("a", "b")), buffer);
+        Set<Tag> swappedTags = TextDocument.TAG_NORMALIZER.normalize(createTags(new Tag("b", "a")), buffer);
+
+        assertNotSame(tags, swappedTags);
+        assertEquals("b", List.copyOf(swappedTags).get(0).getIdentifier());
+    }
+
+    /**
+     * Creates raw tags in the given order.
+     *
+     * @param tags the raw tags
+     * @return the raw tags as a set
+     */
+    private static Set<Tag> createTags(Tag... tags) {
+        return new LinkedHashSet<>(List.of(tags));
+    }
+}
@@ -0,0 +1,84 @@
+package edu.kit.document;
+
+import edu.kit.DocumentHandler;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the possible values of an identifier and the folders of documents without any tag.
+ *
+ * @author uqfdp
+ */
+class TagTest {
+    private static final String IDENTIFIER = "mood";
+
+    @Test
+    void undefinedValueOccursAtFirstTagOfAnotherIdentifier() {
+        DocumentSet documents = createDocumentSet(
+                Set.of(new Tag(IDENTIFIER, "happy")),
+                Set.of(new Tag("topic", "news")),
+                Set.of(new Tag(IDENTIFIER, "sad")));
+
+        assertEquals(List.of("happy", Tag.UNDEFINED_VALUE_REPRESENTATION, "sad"),
+                List.copyOf(Tag.getPossibleTagValues(documents, documents.getAllGroups(), IDENTIFIER)));
+    }
+
+    @Test
+    void undefinedValueOccursAtFirstGroupWithoutTags() {
+        DocumentSet documents = createDocumentSet(
+                Set.of(new Tag(IDENTIFIER, "happy")),
+                Set.of(),
+                Set.of(new Tag(IDENTIFIER, "sad")));
+
+        assertEquals(List.of("happy", Tag.UNDEFINED_VALUE_REPRESENTATION, "sad"),
+                List.copyOf(Tag.getPossibleTagValues(documents, documents.getAllGroups(), IDENTIFIER)));
+    }
+
+    @Test
+    void undefinedValueIsMissingIfEveryGroupCarriesOnlyTheIdentifier() {
+        DocumentSet documents = createDocumentSet(
+                Set.of(new Tag(IDENTIFIER, "happy")),
+                Set.of(new Tag(IDENTIFIER, "sad")));
+
+        assertEquals(List.of("happy", "sad"),
+                List.copyOf(Tag.getPossibleTagValues(documents, documents.getAllGroups(), IDENTIFIER)));
+    }
+
+    @Test
+    void documentsWithoutTagsAreKeptInTheTree() {
+        DocumentSet documents = createDocumentSet(
+                Set.of(new Tag(IDENTIFIER, "happy")),
+                Set.of(),
+                Set.of(new Tag(IDENTIFIER, "sad")));
+        StructuralTree tree = new StructuralTree(new DocumentHandler(0), documents);
+        tree.buildTree();
+
+        String renderedTree = tree.toString();
+        for (int document = 0; document < documents.getDocumentCount(); document++) {
+            assertTrue(renderedTree.contains("\"" + documents.getDocumentPath(document) + "\""), renderedTree);
+        }
+        assertTrue(renderedTree.contains("/" + IDENTIFIER + "=" + Tag.UNDEFINED_VALUE_REPRESENTATION + "/\"1.txt\""),
+                renderedTree);
+    }
+
+    /**
+     * Creates a document set with one text document per tag set, the i-th document having the path i.txt.
+     *
+     * @param tagSets the tags of the documents
+     * @return the document set
+     */
+    @SafeVarargs
+    private static DocumentSet createDocumentSet(Set<Tag>... tagSets) {
+        Set<Document> documents = new LinkedHashSet<>();
+        for (int document = 0; document < tagSets.length; document++) {
+            documents.add(DocumentHandler.createDocument(DocumentType.TEXT, document + ".txt", tagSets[document], 1));
+        }
+        return new DocumentSet(documents);
+    }
+}
@@ -0,0 +1,109 @@
+package edu.kit.document;
+
+import edu.kit.DocumentHandler;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Compares the most used documents of every tag, which are kept up to date by the changes of uses, with the
+ * documents found by a query for the tag after every step of a random sequence of single and batched changes.
+ * The documents have few distinct uses, so that many of them tie and are ranked by their paths, and every tag is
+ * carried by more documents than are retained for it.
+ *
+ * @author uqfdp
+ */
+class TopDocumentsTest {
+    private static final long SEED = 46L;
+    private static final int DOCUMENTS = 200;
+    private static final int STEPS = 400;
+    private static final int MAXIMUM_BATCH = 30;
+    private static final int MAXIMUM_USES = 8;
+    private static final List<String> IDENTIFIERS = List.of("author", "mood");
+    private static final int VALUES = 3;
+
+    @Test
+    void topDocumentsMatchFoundDocumentsAfterEveryChange() {
+        Random random = new Random(SEED);
+        DocumentSet documents = generateDocumentSet(random);
+        for (int step = 0; step < STEPS; step++) {
+            if (random.nextInt(4) == 0) {
+                int[] changedDocuments = random.ints(0, DOCUMENTS).distinct().limit(1 + random.nextInt(MAXIMUM_BATCH))
+                        .toArray();
+                long[] changedUses = new long[changedDocuments.length];
+                Arrays.setAll(changedUses, change -> generateUses(random));
+                documents.changeUses(changedDocuments, changedUses);
+            } else {
+                documents.changeUses(random.nextInt(DOCUMENTS), generateUses(random));
+            }
+
+            for (String identifier : IDENTIFIERS) {
+                for (int value = 0; value < VALUES; value++) {
+                    int count = 1 + random.nextInt(DocumentSet.getMaximumTopDocuments());
+                    assertTopDocuments(documents, identifier, "v" + value, count, "step " + step);
+                }
+            }
+        }
+    }
+
+    /**
+     * Asserts that the most used documents of a tag are the first documents found by a query for the tag.
+     *
+     * @param documents the document set
+     * @param identifier the identifier of the tag
+     * @param value the value of the tag
+     * @param count the number of most used documents
+     * @param message the message of a failed assertion
+     */
+    private static void assertTopDocuments(DocumentSet documents, String identifier, String value, int count,
+                                           String message) {
+        documents.getReadLock().lock();
+        try {
+            int[] found = DocumentQuery.parse(identifier + "=" + value).find(documents);
+            assertArrayEquals(Arrays.copyOf(found, Math.min(count, found.length)),
+                    documents.getTopDocuments(identifier, value, count),
+                    message + ", " + identifier + "=" + value + ", top " + count);
+        } finally {
+            documents.getReadLock().unlock();
+        }
+    }
+
+    /**
+     * Generates a document set of text documents carrying each identifier with a random value or not at all.
+     *
+     * @param random the source of randomness
+     * @return the document set
+     */
+    private static DocumentSet generateDocumentSet(Random random) {
+        Set<Document> documents = new LinkedHashSet<>();
+        for (int document = 0; document < DOCUMENTS; document++) {
+            Set<Tag> tags = new HashSet<>();
+            for (String identifier : IDENTIFIERS) {
+                int value = random.nextInt(VALUES + 1);
+                if (value < VALUES) {
+                    tags.add(new Tag(identifier, "v" + value));
+                }
+            }
+            documents.add(DocumentHandler.createDocument(DocumentType.TEXT, random.nextInt(DOCUMENTS) + "-"
+                    + document + ".txt", tags, generateUses(random)));
+        }
+        return new DocumentSet(documents);
+    }
+
+    /**
+     * Generates the uses of a document from a few distinct values.
+     *
+     * @param random the source of randomness
+     * @return the uses
+     */
+    private static long generateUses(Random random) {
+        return random.nextInt(MAXIMUM_USES);
+    }
+}
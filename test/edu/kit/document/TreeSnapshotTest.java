@@ -0,0 +1,132 @@
+package edu.kit.document;
+
+import edu.kit.DocumentHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that tree snapshots render like the trees they were saved from and that damaged snapshot files are
+ * rejected when they are opened instead of failing on access.
+ *
+ * @author uqfdp
+ */
+class TreeSnapshotTest {
+    private static final long SEED = 43L;
+    private static final int TREES = 200;
+    private static final int CORRUPTIONS = 5_000;
+    private static final int MAXIMUM_DOCUMENTS = 40;
+    private static final List<String> IDENTIFIERS = List.of("author", "mood", "topic", "year");
+    private static final int MAXIMUM_VALUES = 4;
+    private static final int MAXIMUM_USES = 1_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void snapshotRendersLikeTheSavedTree() throws IOException {
+        Random random = new Random(SEED);
+        Path file = directory.resolve("tree.bin");
+        for (int tree = 0; tree < TREES; tree++) {
+            StructuralTree structuralTree = new StructuralTree(new DocumentHandler(0), generateDocumentSet(random));
+            String gains = structuralTree.buildTree();
+            int nodeCount = TreeSnapshot.write(structuralTree, file);
+
+            TreeSnapshot snapshot = TreeSnapshot.open(file);
+            assertEquals(nodeCount, snapshot.getNodeCount(), "tree " + tree);
+            assertEquals(gains, snapshot.renderGains(), "tree " + tree);
+            assertEquals(structuralTree.toString(), snapshot.renderTree(), "tree " + tree);
+        }
+    }
+
+    @Test
+    void damagedSnapshotIsRejectedOrReadable() throws IOException {
+        Random random = new Random(SEED);
+        Path file = directory.resolve("tree.bin");
+        StructuralTree tree = new StructuralTree(new DocumentHandler(0), generateDocumentSet(random));
+        tree.buildTree();
+        TreeSnapshot.write(tree, file);
+        byte[] snapshot = Files.readAllBytes(file);
+
+        int rejected = 0;
+        for (int corruption = 0; corruption < CORRUPTIONS; corruption++) {
+            byte[] damaged = snapshot.clone();
+            damaged[random.nextInt(damaged.length)] = (byte) random.nextInt();
+            Files.write(file, damaged);
+            try {
+                readCompletely(TreeSnapshot.open(file));
+            } catch (IOException e) {
+                rejected++;
+            }
+        }
+        assertTrue(rejected > 0);
+    }
+
+    @Test
+    void truncatedSnapshotIsRejected() throws IOException {
+        Path file = directory.resolve("tree.bin");
+        StructuralTree tree = new StructuralTree(new DocumentHandler(0), generateDocumentSet(new Random(SEED)));
+        tree.buildTree();
+        TreeSnapshot.write(tree, file);
+        byte[] snapshot = Files.readAllBytes(file);
+
+        for (int length = 0; length < snapshot.length; length++) {
+            Files.write(file, Arrays.copyOf(snapshot, length));
+            assertThrows(IOException.class, () -> TreeSnapshot.open(file), "length " + length);
+        }
+    }
+
+    /**
+     * Reads everything a snapshot offers, like the VIEW and CLASSIFY commands.
+     *
+     * @param snapshot the opened snapshot
+     */
+    private static void readCompletely(TreeSnapshot snapshot) {
+        snapshot.renderGains();
+        snapshot.renderTree();
+        TreeClassifier.compile(snapshot);
+        for (int node = 0; node < snapshot.getNodeCount(); node++) {
+            snapshot.getTagPath(node);
+            snapshot.getAccumulatedUses(node);
+            for (int document = 0; document < snapshot.getLeafDocumentCount(node); document++) {
+                snapshot.getLeafDocumentUses(node, document);
+            }
+        }
+    }
+
+    /**
+     * Generates a document set of text documents carrying each identifier with a random value or not at all.
+     *
+     * @param random the source of randomness
+     * @return the document set
+     */
+    private static DocumentSet generateDocumentSet(Random random) {
+        int documentCount = 1 + random.nextInt(MAXIMUM_DOCUMENTS);
+        Set<Document> documents = new LinkedHashSet<>();
+        for (int document = 0; document < documentCount; document++) {
+            Set<Tag> tags = new HashSet<>();
+            for (String identifier : IDENTIFIERS) {
+                int value = random.nextInt(MAXIMUM_VALUES + 1);
+                if (value < MAXIMUM_VALUES) {
+                    tags.add(new Tag(identifier, "v" + value));
+                }
+            }
+            documents.add(DocumentHandler.createDocument(DocumentType.TEXT, document + ".txt", tags,
+                    random.nextInt(MAXIMUM_USES)));
+        }
+        return new DocumentSet(documents);
+    }
+}
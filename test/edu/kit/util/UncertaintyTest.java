@@ -0,0 +1,302 @@
+package edu.kit.util;
+
+import edu.kit.DocumentHandler;
+import edu.kit.document.Document;
+import edu.kit.document.DocumentSet;
+import edu.kit.document.DocumentType;
+import edu.kit.document.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the uncertainty and the information gains of the document handler, which are calculated from integer
+ * uses, with the former formula summing -p * log2(p) over the probabilities of the documents.
+ * The document sets are built from randomly generated catalogs. Every value is compared within a tolerance, and
+ * the information gains are also compared the way a structural tree prints them: gains below the minimum are left
+ * out, and the other gains are printed with two decimals.
+ * The vector kernel is compared bit for bit with the scalar kernel on columns of random lengths, which are mostly
+ * not a multiple of the lanes, read by contiguous groups like the root and by scattered groups like inner nodes.
+ *
+ * @author uqfdp
+ */
+class UncertaintyTest {
+    private static final long SEED = 20_000L;
+    private static final int CATALOGS = 5_000;
+    private static final int MAXIMUM_DOCUMENTS = 64;
+    private static final List<String> IDENTIFIERS = List.of("author", "mood", "topic");
+    private static final int MAXIMUM_VALUES = 6;
+    private static final int MAXIMUM_SMALL_USES = 100;
+    private static final int MAXIMUM_LARGE_USES = 100_000;
+    private static final double TOLERANCE = 1e-9;
+    private static final double MINIMUM_INFORMATION_GAIN = 0.001;
+    private static final String INFORMATION_GAIN_FORMAT = "%.2f";
+    private static final int COLUMNS = 2_000;
+    private static final int MAXIMUM_GROUPS = 300;
+    private static final int MAXIMUM_VALUE_IDS = 12;
+
+    @Test
+    void documentHandlerMatchesFormerFormula() {
+        DocumentHandler documentHandler = new DocumentHandler(0);
+        Random random = new Random(SEED);
+        for (int catalog = 0; catalog < CATALOGS; catalog++) {
+            DocumentSet documents = generateDocumentSet(random);
+            int[] groups = random.nextBoolean() ? documents.getAllGroups() : selectGroups(documents, random);
+            if (groups.length == 0) {
+                continue;
+            }
+
+            boolean[] node = getDocumentsOfNode(documents, groups);
+            String message = "catalog " + catalog;
+            assertEquals(getFormerUncertainty(documents, node, null, null),
+                    documentHandler.getUncertaintyOfDocuments(documents, groups), TOLERANCE, message);
+            for (String identifier : IDENTIFIERS) {
+                double formerInformationGain = getFormerInformationGain(documents, node, identifier);
+                double informationGain = documentHandler.getInformationGain(documents, groups, identifier);
+                assertEquals(formerInformationGain, informationGain, TOLERANCE, message + ", " + identifier);
+                assertEquals(print(formerInformationGain), print(informationGain), message + ", " + identifier);
+            }
+        }
+    }
+
+    @Test
+    void vectorKernelMatchesScalarKernel() {
+        UncertaintyKernel scalarKernel = new ScalarUncertaintyKernel();
+        UncertaintyKernel vectorKernel = new VectorUncertaintyKernel();
+        Random random = new Random(SEED);
+        for (int column = 0; column < COLUMNS; column++) {
+            int groupCount = 1 + random.nextInt(MAXIMUM_GROUPS);
+            int valueIdCount = 1 + random.nextInt(MAXIMUM_VALUE_IDS);
+            int[] valueIds = new int[groupCount];
+            long[] uses = new long[groupCount];
+            double[] usesLog2Uses = new double[groupCount];
+            for (int group = 0; group < groupCount; group++) {
+                valueIds[group] = random.nextInt(valueIdCount);
+                uses[group] = generateUses(random);
+                usesLog2Uses[group] = Uncertainty.usesLog2Uses(uses[group]);
+            }
+            int first = random.nextInt(groupCount);
+            int[] groups = random.nextBoolean()
+                    ? IntStream.range(first, first + 1 + random.nextInt(groupCount - first)).toArray()
+                    : IntStream.range(0, groupCount).filter(group -> random.nextBoolean()).toArray();
+            if (groups.length == 0) {
+                continue;
+            }
+
+            String message = "column " + column + ", " + groups.length + " groups";
+            assertEquals(scalarKernel.accumulateUses(uses, groups), vectorKernel.accumulateUses(uses, groups),
+                    message);
+            assertEquals(Double.doubleToLongBits(scalarKernel.accumulateUsesLog2Uses(usesLog2Uses, groups)),
+                    Double.doubleToLongBits(vectorKernel.accumulateUsesLog2Uses(usesLog2Uses, groups)), message);
+
+            long[] scalarUsesPerValue = new long[valueIdCount];
+            double[] scalarUsesLog2UsesPerValue = new double[valueIdCount];
+            scalarKernel.accumulatePartitions(valueIds, uses, usesLog2Uses, groups, scalarUsesPerValue,
+                    scalarUsesLog2UsesPerValue);
+            long[] vectorUsesPerValue = new long[valueIdCount];
+            double[] vectorUsesLog2UsesPerValue = new double[valueIdCount];
+            vectorKernel.accumulatePartitions(valueIds, uses, usesLog2Uses, groups, vectorUsesPerValue,
+                    vectorUsesLog2UsesPerValue);
+            assertArrayEquals(scalarUsesPerValue, vectorUsesPerValue, message);
+            assertArrayEquals(toBits(scalarUsesLog2UsesPerValue), toBits(vectorUsesLog2UsesPerValue), message);
+        }
+    }
+
+    /**
+     * Returns the bits of doubles, so that they are compared exactly.
+     *
+     * @param values the doubles
+     * @return the bits of the doubles
+     */
+    private static long[] toBits(double[] values) {
+        return DoubleStream.of(values).mapToLong(Double::doubleToLongBits).toArray();
+    }
+
+    /**
+     * Generates a document set of text documents carrying each identifier with a random value or not at all.
+     *
+     * @param random the source of randomness
+     * @return the document set
+     */
+    private static DocumentSet generateDocumentSet(Random random) {
+        int documentCount = 1 + random.nextInt(MAXIMUM_DOCUMENTS);
+        int valueCount = 1 + random.nextInt(MAXIMUM_VALUES);
+        Set<Document> documents = new LinkedHashSet<>();
+        for (int document = 0; document < documentCount; document++) {
+            Set<Tag> tags = new HashSet<>();
+            for (String identifier : IDENTIFIERS) {
+                int value = random.nextInt(valueCount + 1);
+                if (value < valueCount) {
+                    tags.add(new Tag(identifier, "v" + value));
+                }
+            }
+            documents.add(DocumentHandler.createDocument(DocumentType.TEXT, document + ".txt", tags,
+                    generateUses(random)));
+        }
+        return new DocumentSet(documents);
+    }
+
+    /**
+     * Generates the uses of a document: unused documents, uses looked up in the table and uses beyond the table.
+     *
+     * @param random the source of randomness
+     * @return the uses
+     */
+    private static long generateUses(Random random) {
+        return switch (random.nextInt(3)) {
+            case 0 -> 0;
+            case 1 -> 1 + random.nextInt(MAXIMUM_SMALL_USES);
+            default -> random.nextInt(MAXIMUM_LARGE_USES);
+        };
+    }
+
+    /**
+     * Selects a random subset of the groups of a document set, like the groups of an inner node of a tree.
+     *
+     * @param documents the document set
+     * @param random the source of randomness
+     * @return the indices of the selected groups in ascending order
+     */
+    private static int[] selectGroups(DocumentSet documents, Random random) {
+        return IntStream.of(documents.getAllGroups()).filter(group -> random.nextBoolean()).toArray();
+    }
+
+    /**
+     * Returns which documents belong to the groups of a node.
+     *
+     * @param documents the document set
+     * @param groups the indices of the groups of the node
+     * @return whether each document belongs to the node, indexed by document
+     */
+    private static boolean[] getDocumentsOfNode(DocumentSet documents, int[] groups) {
+        Set<Integer> groupsOfNode = new HashSet<>();
+        IntStream.of(groups).forEach(groupsOfNode::add);
+        boolean[] node = new boolean[documents.getDocumentCount()];
+        for (int document = 0; document < node.length; document++) {
+            node[document] = groupsOfNode.contains(documents.getDocumentGroup(document));
+        }
+        return node;
+    }
+
+    /**
+     * Returns an information gain as a structural tree prints it.
+     *
+     * @param informationGain the information gain
+     * @return the printed information gain or null if it is not printed
+     */
+    private static String print(double informationGain) {
+        if (informationGain < MINIMUM_INFORMATION_GAIN) {
+            return null;
+        }
+        return String.format(Locale.ROOT, INFORMATION_GAIN_FORMAT, informationGain);
+    }
+
+    /**
+     * Returns the information gain of an identifier by the former formula.
+     *
+     * @param documents the document set
+     * @param node whether each document belongs to the node
+     * @param identifier the identifier
+     * @return the information gain
+     */
+    private static double getFormerInformationGain(DocumentSet documents, boolean[] node, String identifier) {
+        long accumulatedUses = getAccumulatedUses(documents, node, null, null);
+        if (accumulatedUses == 0) {
+            return 0;
+        }
+        Set<String> values = new LinkedHashSet<>();
+        for (int document = 0; document < documents.getDocumentCount(); document++) {
+            values.add(getValue(documents, document, identifier));
+        }
+
+        double remainingUncertainty = 0;
+        for (String value : values) {
+            remainingUncertainty += getAccumulatedUses(documents, node, identifier, value) / (double) accumulatedUses
+                    * getFormerUncertainty(documents, node, identifier, value);
+        }
+        return getFormerUncertainty(documents, node, null, null) - remainingUncertainty;
+    }
+
+    /**
+     * Returns the uncertainty of the documents of a node by the former formula, summing -p * log2(p).
+     *
+     * @param documents the document set
+     * @param node whether each document belongs to the node
+     * @param identifier the identifier the documents are restricted by or null for all documents of the node
+     * @param value the value of the identifier the documents are restricted to
+     * @return the uncertainty
+     */
+    private static double getFormerUncertainty(DocumentSet documents, boolean[] node, String identifier, String value) {
+        long accumulatedUses = getAccumulatedUses(documents, node, identifier, value);
+        double sum = 0;
+        for (int document = 0; document < documents.getDocumentCount(); document++) {
+            long uses = documents.getDocumentUses(document);
+            if (isSelected(documents, node, document, identifier, value) && uses != 0) {
+                double probability = uses / (double) accumulatedUses;
+                sum += probability * (Math.log(probability) / Math.log(2));
+            }
+        }
+        return -sum;
+    }
+
+    /**
+     * Returns the accumulated uses of the documents of a node.
+     *
+     * @param documents the document set
+     * @param node whether each document belongs to the node
+     * @param identifier the identifier the documents are restricted by or null for all documents of the node
+     * @param value the value of the identifier the documents are restricted to
+     * @return the accumulated uses
+     */
+    private static long getAccumulatedUses(DocumentSet documents, boolean[] node, String identifier, String value) {
+        long accumulatedUses = 0;
+        for (int document = 0; document < documents.getDocumentCount(); document++) {
+            if (isSelected(documents, node, document, identifier, value)) {
+                accumulatedUses += documents.getDocumentUses(document);
+            }
+        }
+        return accumulatedUses;
+    }
+
+    /**
+     * Returns whether a document belongs to a node and carries a value of an identifier.
+     *
+     * @param documents the document set
+     * @param node whether each document belongs to the node
+     * @param document the document
+     * @param identifier the identifier or null to select every document of the node
+     * @param value the value of the identifier
+     * @return true if the document is selected, false otherwise
+     */
+    private static boolean isSelected(DocumentSet documents, boolean[] node, int document, String identifier,
+                                      String value) {
+        return node[document] && (identifier == null || getValue(documents, document, identifier).equals(value));
+    }
+
+    /**
+     * Returns the value of an identifier carried by a document.
+     *
+     * @param documents the document set
+     * @param document the document
+     * @param identifier the identifier
+     * @return the value or the undefined value if the document does not carry the identifier
+     */
+    private static String getValue(DocumentSet documents, int document, String identifier) {
+        for (Tag tag : documents.getGroups().get(documents.getDocumentGroup(document)).getTags()) {
+            if (tag.getIdentifier().equals(identifier)) {
+                return tag.getValue();
+            }
+        }
+        return Tag.UNDEFINED_VALUE_REPRESENTATION;
+    }
+}